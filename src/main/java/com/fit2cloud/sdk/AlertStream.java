@@ -0,0 +1,411 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fit2cloud.sdk.model.ClusterRoleAlertLogging;
+
+/**
+ * 告警的增量拉取. getAlertLoggings没有按时间过滤的参数, 本类以(startTime, id)作为水位, 从第一页开始向后翻页,
+ * 翻到比水位和所有未解除告警都早的记录即停止, 不重复拉取已处理过的历史. 新出现的告警输出RAISED事件,
+ * 跟踪中的告警出现endTime时输出RESOLVED事件, 同一次poll的事件按发生时间排序.
+ * <p>
+ * 接口没有排序参数, 依赖平台按告警开始时间倒序返回列表, 拉到顺序不符的页时poll抛出异常. 每次poll最多翻maxPages页,
+ * 两次poll之间的新告警超过这个范围时, 未翻到的部分记为缺口, 由之后的poll补齐, 期间{@link #hasGap()}为true; 缺口未补齐又出现新的缺口时,
+ * 旧缺口中的告警不再输出, 由{@link #getSkippedGaps()}计数. 跟踪中的未解除告警数和跟踪时长都有上限, 超出后不再跟踪其解除,
+ * 以限制内存和每次翻页的范围. 水位可以通过{@link #getWatermarkStartTime()}和{@link #getWatermarkId()}保存,
+ * 重启后用{@link #setWatermark(long, long)}恢复
+ */
+public class AlertStream {
+
+	public enum EventType {
+		RAISED, RESOLVED
+	}
+
+	/**
+	 * 一个告警事件
+	 */
+	public static class AlertEvent {
+		private final EventType type;
+		private final ClusterRoleAlertLogging alert;
+
+		AlertEvent(EventType type, ClusterRoleAlertLogging alert) {
+			this.type = type;
+			this.alert = alert;
+		}
+
+		public EventType getType() {
+			return type;
+		}
+
+		public ClusterRoleAlertLogging getAlert() {
+			return alert;
+		}
+
+		/**
+		 * @return 事件发生的时间, RAISED为startTime, RESOLVED为endTime
+		 */
+		public long getTime() {
+			return type == EventType.RAISED ? time(alert.getStartTime()) : time(alert.getEndTime());
+		}
+
+		@Override
+		public String toString() {
+			return type + " alert " + alert.getId() + " at " + getTime();
+		}
+	}
+
+	private static final Comparator<AlertEvent> BY_TIME = new Comparator<AlertEvent>() {
+		public int compare(AlertEvent a, AlertEvent b) {
+			if (a.getTime() != b.getTime()) {
+				return a.getTime() < b.getTime() ? -1 : 1;
+			}
+			return compareKey(a.alert, time(b.alert.getStartTime()), id(b.alert));
+		}
+	};
+
+	private static final Comparator<ClusterRoleAlertLogging> BY_START_TIME = new Comparator<ClusterRoleAlertLogging>() {
+		public int compare(ClusterRoleAlertLogging a, ClusterRoleAlertLogging b) {
+			return compareKey(a, time(b.getStartTime()), id(b));
+		}
+	};
+
+	private final Fit2CloudClient client;
+	/** 未解除的告警, 按出现顺序 */
+	private final LinkedHashMap<Long, ClusterRoleAlertLogging> open = new LinkedHashMap<Long, ClusterRoleAlertLogging>();
+	private Long clusterId;
+	private Long clusterRoleId;
+	private Long serverId;
+	private String alertType;
+	private int pageSize = 100;
+	private int maxPages = 20;
+	private int maxOpenAlerts = 10000;
+	private long maxOpenMillis = 24 * 60 * 60 * 1000L;
+	private long watermarkStartTime;
+	private long watermarkId;
+	private long fetches;
+	/** 未输出的告警区间, 开区间(gapFloor, gapCeiling) */
+	private boolean gap;
+	private long gapFloorStartTime;
+	private long gapFloorId;
+	private long gapCeilingStartTime;
+	private long gapCeilingId;
+	/** 列表中水位到缺口上沿(含)的告警数 */
+	private int gapOffset;
+	private long skippedGaps;
+
+	public AlertStream(Fit2CloudClient client) {
+		this.client = client;
+	}
+
+	/**
+	 * @param clusterId
+	 *            只拉取指定集群的告警, 默认null
+	 */
+	public void setClusterId(Long clusterId) {
+		this.clusterId = clusterId;
+	}
+
+	/**
+	 * @param clusterRoleId
+	 *            只拉取指定虚机组的告警, 默认null
+	 */
+	public void setClusterRoleId(Long clusterRoleId) {
+		this.clusterRoleId = clusterRoleId;
+	}
+
+	/**
+	 * @param serverId
+	 *            只拉取指定虚机的告警, 默认null
+	 */
+	public void setServerId(Long serverId) {
+		this.serverId = serverId;
+	}
+
+	/**
+	 * @param alertType
+	 *            只拉取指定级别(WARN | ERROR)的告警, 默认null
+	 */
+	public void setAlertType(String alertType) {
+		this.alertType = alertType;
+	}
+
+	/**
+	 * @param pageSize
+	 *            分页大小, 默认100
+	 */
+	public void setPageSize(int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("pageSize must be positive");
+		}
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * @param maxPages
+	 *            每次poll最多拉取的页数, 默认20. 两次poll之间新增的告警超过maxPages * pageSize时, 较早的部分由之后的poll补齐
+	 */
+	public void setMaxPages(int maxPages) {
+		if (maxPages <= 0) {
+			throw new IllegalArgumentException("maxPages must be positive");
+		}
+		this.maxPages = maxPages;
+	}
+
+	/**
+	 * @param maxOpenAlerts
+	 *            最多跟踪的未解除告警数, 默认10000, 超出时停止跟踪最早的告警
+	 */
+	public void setMaxOpenAlerts(int maxOpenAlerts) {
+		this.maxOpenAlerts = maxOpenAlerts;
+	}
+
+	/**
+	 * @param maxOpenMillis
+	 *            未解除告警的最长跟踪时间, 默认24小时, 以告警开始时间与水位的差计算
+	 */
+	public void setMaxOpenMillis(long maxOpenMillis) {
+		this.maxOpenMillis = maxOpenMillis;
+	}
+
+	/**
+	 * 设置水位, 只有(startTime, id)大于水位的告警才作为新告警输出, 同时清除缺口
+	 */
+	public synchronized void setWatermark(long startTime, long id) {
+		this.watermarkStartTime = startTime;
+		this.watermarkId = id;
+		this.gap = false;
+	}
+
+	/**
+	 * @return 水位的开始时间. 有缺口时返回缺口的下沿, 从这里恢复时缺口之上已输出的告警会再输出一次
+	 */
+	public synchronized long getWatermarkStartTime() {
+		return gap ? gapFloorStartTime : watermarkStartTime;
+	}
+
+	public synchronized long getWatermarkId() {
+		return gap ? gapFloorId : watermarkId;
+	}
+
+	/**
+	 * @return 是否有翻页上限之外尚未输出的告警
+	 */
+	public synchronized boolean hasGap() {
+		return gap;
+	}
+
+	/**
+	 * @return 未能补齐而放弃的缺口数, 大于0说明有告警被跳过
+	 */
+	public synchronized long getSkippedGaps() {
+		return skippedGaps;
+	}
+
+	/**
+	 * @return 正在跟踪的未解除告警数
+	 */
+	public synchronized int getOpenAlertCount() {
+		return open.size();
+	}
+
+	/**
+	 * @return 累计拉取的页数
+	 */
+	public synchronized long getFetches() {
+		return fetches;
+	}
+
+	/**
+	 * 拉取水位之后的新告警和跟踪中告警的解除, 返回按发生时间排序的事件. 拉取失败时抛出异常, 水位和跟踪状态保持不变.
+	 * <p>
+	 * 翻到maxPages页仍未翻到水位时, 已拉取的告警照常输出, 水位与这些告警之间的部分记为缺口, 之后的poll在翻过新告警后直接跳到缺口所在的页继续,
+	 * 直到缺口输出完毕
+	 */
+	public synchronized List<AlertEvent> poll() throws Fit2CloudException {
+		// 需要翻到的最早位置: 水位(有缺口时为缺口下沿)和最早的未解除告警中较早的一个
+		long floorStartTime = gap ? gapFloorStartTime : watermarkStartTime;
+		long floorId = gap ? gapFloorId : watermarkId;
+		if (!open.isEmpty()) {
+			ClusterRoleAlertLogging oldest = open.values().iterator().next();
+			if (compareKey(oldest, floorStartTime, floorId) < 0) {
+				floorStartTime = time(oldest.getStartTime());
+				floorId = id(oldest);
+			}
+		}
+
+		List<ClusterRoleAlertLogging> fetched = new ArrayList<ClusterRoleAlertLogging>();
+		Set<Long> seen = new HashSet<Long>();
+		// 水位之后的告警数
+		int above = 0;
+		boolean reachedWatermark = false;
+		boolean jumped = false;
+		boolean verifyJump = false;
+		boolean complete = false;
+		int pageNum = 1;
+		for (int pages = 0; pages < maxPages; pages++) {
+			List<ClusterRoleAlertLogging> page = client.getAlertLoggings(clusterId, clusterRoleId, serverId,
+					alertType, null, pageSize, pageNum);
+			fetches++;
+			if (page == null) {
+				complete = true;
+				break;
+			}
+			boolean reachedFloor = false;
+			boolean reachedCeiling = false;
+			ClusterRoleAlertLogging previous = null;
+			for (ClusterRoleAlertLogging alert : page) {
+				if (alert == null || alert.getId() == null) {
+					continue;
+				}
+				// 接口没有排序参数, 水位和缺口都依赖按开始时间倒序, 顺序不符时不能继续
+				if (previous != null && compareKey(alert, time(previous.getStartTime()), id(previous)) > 0) {
+					throw new Fit2CloudException("alerts are not sorted by startTime desc: alert " + alert.getId()
+							+ " follows " + previous.getId());
+				}
+				previous = alert;
+				if (gap && compareKey(alert, gapCeilingStartTime, gapCeilingId) >= 0) {
+					reachedCeiling = true;
+				}
+				// 翻页期间有新告警时, 后一页的开头会与前一页的末尾重复
+				if (!seen.add(alert.getId())) {
+					continue;
+				}
+				fetched.add(alert);
+				if (compareKey(alert, watermarkStartTime, watermarkId) > 0) {
+					above++;
+				} else {
+					reachedWatermark = true;
+				}
+				if (compareKey(alert, floorStartTime, floorId) < 0) {
+					reachedFloor = true;
+				}
+			}
+			if (verifyJump && !reachedCeiling) {
+				// 跳过的一段中有告警被删除, 落点越过了缺口上沿, 退回一页
+				pageNum--;
+				continue;
+			}
+			verifyJump = false;
+			if (reachedFloor || page.size() < pageSize) {
+				complete = true;
+				break;
+			}
+			if (gap && !jumped && reachedWatermark) {
+				jumped = true;
+				// 水位到缺口上沿之间的告警已经输出过, 直接跳到缺口上沿所在的页
+				int target = (above + gapOffset - 1) / pageSize + 1;
+				if (target > pageNum + 1) {
+					pageNum = target;
+					verifyJump = true;
+					continue;
+				}
+			}
+			pageNum++;
+		}
+
+		List<AlertEvent> events = new ArrayList<AlertEvent>();
+		long newStartTime = watermarkStartTime;
+		long newId = watermarkId;
+		List<ClusterRoleAlertLogging> raised = new ArrayList<ClusterRoleAlertLogging>();
+		ClusterRoleAlertLogging lowest = null;
+		int fromGap = 0;
+		for (ClusterRoleAlertLogging alert : fetched) {
+			boolean resolved = time(alert.getEndTime()) > 0;
+			boolean isNew = compareKey(alert, watermarkStartTime, watermarkId) > 0;
+			boolean inGap = !isNew && gap && compareKey(alert, gapCeilingStartTime, gapCeilingId) < 0
+					&& compareKey(alert, gapFloorStartTime, gapFloorId) > 0;
+			if (isNew || inGap) {
+				events.add(new AlertEvent(EventType.RAISED, alert));
+				if (resolved) {
+					events.add(new AlertEvent(EventType.RESOLVED, alert));
+				} else {
+					raised.add(alert);
+				}
+				if (isNew && compareKey(alert, newStartTime, newId) > 0) {
+					newStartTime = time(alert.getStartTime());
+					newId = id(alert);
+				}
+				if (inGap) {
+					fromGap++;
+				}
+				if (lowest == null || compareKey(alert, time(lowest.getStartTime()), id(lowest)) < 0) {
+					lowest = alert;
+				}
+			} else if (resolved && open.remove(alert.getId()) != null) {
+				events.add(new AlertEvent(EventType.RESOLVED, alert));
+			}
+		}
+		Collections.sort(events, BY_TIME);
+		if (fromGap > 0) {
+			// 缺口中的告警比已跟踪的早, 重新按开始时间排列
+			raised.addAll(open.values());
+			open.clear();
+		}
+		Collections.sort(raised, BY_START_TIME);
+		for (ClusterRoleAlertLogging alert : raised) {
+			open.put(alert.getId(), alert);
+		}
+
+		if (complete) {
+			gap = false;
+		} else if (!reachedWatermark) {
+			// 新告警超过了翻页上限, 已有的缺口无法与新缺口合并, 只能放弃
+			if (gap) {
+				skippedGaps++;
+			}
+			gap = true;
+			gapFloorStartTime = watermarkStartTime;
+			gapFloorId = watermarkId;
+			gapCeilingStartTime = time(lowest.getStartTime());
+			gapCeilingId = id(lowest);
+			gapOffset = above;
+		} else if (gap) {
+			// 缺口只输出了较晚的一部分
+			if (fromGap > 0) {
+				gapCeilingStartTime = time(lowest.getStartTime());
+				gapCeilingId = id(lowest);
+			}
+			gapOffset += above + fromGap;
+		}
+		watermarkStartTime = newStartTime;
+		watermarkId = newId;
+		evict();
+		return events;
+	}
+
+	private void evict() {
+		for (Iterator<Map.Entry<Long, ClusterRoleAlertLogging>> it = open.entrySet().iterator(); it.hasNext();) {
+			ClusterRoleAlertLogging alert = it.next().getValue();
+			if (open.size() > maxOpenAlerts || time(alert.getStartTime()) < watermarkStartTime - maxOpenMillis) {
+				it.remove();
+			} else {
+				break;
+			}
+		}
+	}
+
+	private static int compareKey(ClusterRoleAlertLogging alert, long startTime, long id) {
+		long t = time(alert.getStartTime());
+		if (t != startTime) {
+			return t < startTime ? -1 : 1;
+		}
+		long i = id(alert);
+		return i == id ? 0 : (i < id ? -1 : 1);
+	}
+
+	private static long time(Long time) {
+		return time == null ? 0 : time;
+	}
+
+	private static long id(ClusterRoleAlertLogging alert) {
+		return alert.getId() == null ? 0 : alert.getId();
+	}
+}
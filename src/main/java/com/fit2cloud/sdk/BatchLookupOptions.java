@@ -0,0 +1,70 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 按ID批量查询的参数. 平台的列表接口不支持按ID过滤, 因此ID数量较少时按ID并发单查,
+ * 数量达到listThreshold时改为分页拉取完整列表后在本地过滤
+ */
+public class BatchLookupOptions {
+
+	private int chunkSize = 50;
+	private int parallelism = 8;
+	private int listThreshold = 1000;
+	private int listPageSize = 1000;
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @param chunkSize
+	 *            每个并发任务一次处理的ID数量
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize must be >= 1");
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * @param parallelism
+	 *            同时进行的单查请求数上限
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be >= 1");
+		}
+		this.parallelism = parallelism;
+	}
+
+	public int getListThreshold() {
+		return listThreshold;
+	}
+
+	/**
+	 * @param listThreshold
+	 *            去重后的ID数量达到此值时改为拉取列表, 设为Integer.MAX_VALUE表示总是单查
+	 */
+	public void setListThreshold(int listThreshold) {
+		this.listThreshold = listThreshold;
+	}
+
+	public int getListPageSize() {
+		return listPageSize;
+	}
+
+	/**
+	 * @param listPageSize
+	 *            拉取列表时的分页大小
+	 */
+	public void setListPageSize(int listPageSize) {
+		if (listPageSize < 1) {
+			throw new IllegalArgumentException("listPageSize must be >= 1");
+		}
+		this.listPageSize = listPageSize;
+	}
+}
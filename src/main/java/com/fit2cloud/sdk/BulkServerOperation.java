@@ -0,0 +1,559 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.fit2cloud.sdk.model.Server;
+
+/**
+ * 批量启动, 停止或删除虚机. 由{@link ServerSelector}选出虚机后以有限的并发度和可选的速率上限逐台调用
+ * startServer/stopServer/terminateServer; 开启等待时, 调用线程在分发的同时定期批量查询已受理的虚机,
+ * 直到vmStatus达到目标状态或超时. 单台虚机的失败记录在报告中, 不影响其他虚机.
+ * <p>
+ * 默认的目标状态(Running, Stopped, Terminated/Deleted)与云平台的取值不一致时, 用{@link #setTargetStatuses(String...)}设置
+ */
+public class BulkServerOperation {
+
+	public enum Action {
+		START, STOP, TERMINATE
+	}
+
+	public enum Status {
+		PENDING, RUNNING, SUCCEEDED, FAILED, SKIPPED
+	}
+
+	private static final Projection<Server> STATUS_FIELDS = new Projection<Server>(Server.class, "id", "name",
+			"vmStatus");
+
+	/**
+	 * 一台虚机的执行结果
+	 */
+	public static class Result {
+		private final long serverId;
+		private volatile Status status = Status.PENDING;
+		private volatile Server server;
+		private volatile String message;
+		private volatile long startTime;
+		private volatile long requestEndTime;
+		private volatile long endTime;
+
+		Result(long serverId) {
+			this.serverId = serverId;
+		}
+
+		public long getServerId() {
+			return serverId;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+
+		/**
+		 * @return 最近一次查询到的虚机信息, 没有查询过时为null
+		 */
+		public Server getServer() {
+			return server;
+		}
+
+		/**
+		 * @return 失败或跳过的原因
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		/**
+		 * @return 操作请求本身的耗时, 未发出请求时为-1
+		 */
+		public long getRequestMillis() {
+			return startTime == 0 || requestEndTime == 0 ? -1 : requestEndTime - startTime;
+		}
+
+		/**
+		 * @return 从发出请求到结束(包括等待目标状态)的耗时, 未发出请求时为-1
+		 */
+		public long getDurationMillis() {
+			if (startTime == 0) {
+				return -1;
+			}
+			return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+		}
+
+		@Override
+		public String toString() {
+			return "server " + serverId + " " + status + (message == null ? "" : ": " + message);
+		}
+	}
+
+	/**
+	 * 一次批量操作的结果
+	 */
+	public static class Report {
+		private final List<Result> results;
+		private final long durationMillis;
+		private final boolean interrupted;
+
+		Report(List<Result> results, long durationMillis, boolean interrupted) {
+			this.results = Collections.unmodifiableList(results);
+			this.durationMillis = durationMillis;
+			this.interrupted = interrupted;
+		}
+
+		public List<Result> getResults() {
+			return results;
+		}
+
+		public List<Result> getResults(Status status) {
+			List<Result> list = new ArrayList<Result>();
+			for (Result result : results) {
+				if (result.getStatus() == status) {
+					list.add(result);
+				}
+			}
+			return list;
+		}
+
+		/**
+		 * @return 是否没有被中断且没有失败的虚机
+		 */
+		public boolean isSucceeded() {
+			return !interrupted && getResults(Status.FAILED).isEmpty();
+		}
+
+		/**
+		 * @return 是否在完成前被中断. 此时尚未发出请求的虚机为SKIPPED, 已受理但未达到目标状态的虚机仍为RUNNING
+		 */
+		public boolean isInterrupted() {
+			return interrupted;
+		}
+
+		/**
+		 * @return 整个批量操作的耗时
+		 */
+		public long getDurationMillis() {
+			return durationMillis;
+		}
+
+		/**
+		 * @param percentile
+		 *            分位数, 取值(0, 1], 如0.95
+		 * @return 发出了请求的虚机中, 请求耗时的分位数(最近秩), 没有请求时返回-1
+		 */
+		public long getRequestPercentile(double percentile) {
+			List<Long> values = new ArrayList<Long>();
+			for (Result result : results) {
+				if (result.getRequestMillis() >= 0) {
+					values.add(result.getRequestMillis());
+				}
+			}
+			return percentile(values, percentile);
+		}
+
+		/**
+		 * @param percentile
+		 *            分位数, 取值(0, 1], 如0.95
+		 * @return 成功的虚机中, 从发出请求到达到目标状态的耗时的分位数(最近秩), 没有成功的虚机时返回-1
+		 */
+		public long getDurationPercentile(double percentile) {
+			List<Long> values = new ArrayList<Long>();
+			for (Result result : getResults(Status.SUCCEEDED)) {
+				values.add(result.getDurationMillis());
+			}
+			return percentile(values, percentile);
+		}
+
+		private static long percentile(List<Long> values, double percentile) {
+			if (values.isEmpty()) {
+				return -1;
+			}
+			Collections.sort(values);
+			int rank = (int) Math.ceil(percentile * values.size());
+			return values.get(Math.min(values.size(), Math.max(1, rank)) - 1);
+		}
+
+		@Override
+		public String toString() {
+			return results.size() + " servers, " + getResults(Status.SUCCEEDED).size() + " succeeded, "
+					+ getResults(Status.FAILED).size() + " failed, " + getResults(Status.SKIPPED).size()
+					+ " skipped in " + durationMillis + " ms, request p50/p95/max " + getRequestPercentile(0.5) + "/"
+					+ getRequestPercentile(0.95) + "/" + getRequestPercentile(1) + " ms";
+		}
+	}
+
+	private final Fit2CloudClient client;
+	private final Action action;
+	private ServerSelector selector;
+	private int parallelism = 8;
+	private double maxRequestsPerSecond;
+	private boolean waitForStatus;
+	private boolean skipInTargetStatus;
+	private Set<String> targetStatuses;
+	private long pollIntervalMillis = 5000;
+	private long waitTimeoutMillis = 10 * 60 * 1000L;
+	private BatchLookupOptions lookupOptions = new BatchLookupOptions();
+	/** 下一个请求最早可以发出的时间(纳秒), 用于限速 */
+	private long nextRequestNanos;
+
+	public BulkServerOperation(Fit2CloudClient client, Action action) {
+		this.client = client;
+		this.action = action;
+		switch (action) {
+		case START:
+			targetStatuses = toStatusSet("Running");
+			break;
+		case STOP:
+			targetStatuses = toStatusSet("Stopped");
+			break;
+		default:
+			targetStatuses = toStatusSet("Terminated", "Deleted");
+		}
+	}
+
+	/**
+	 * @param selector
+	 *            操作的虚机, 必须设置. 为避免误操作全部虚机, 没有默认值
+	 */
+	public void setSelector(ServerSelector selector) {
+		this.selector = selector;
+	}
+
+	/**
+	 * @param parallelism
+	 *            同时进行的操作请求数上限, 默认8
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be >= 1");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @param maxRequestsPerSecond
+	 *            每秒最多发出的操作请求数, 小于等于0表示不限, 默认不限. 等待状态的查询不计入
+	 */
+	public void setMaxRequestsPerSecond(double maxRequestsPerSecond) {
+		this.maxRequestsPerSecond = maxRequestsPerSecond;
+	}
+
+	/**
+	 * @param waitForStatus
+	 *            是否等待虚机达到目标状态, 默认false, 即平台受理请求即视为成功
+	 */
+	public void setWaitForStatus(boolean waitForStatus) {
+		this.waitForStatus = waitForStatus;
+	}
+
+	/**
+	 * @param skipInTargetStatus
+	 *            开始前查询虚机状态, 已处于目标状态的虚机不发出请求, 记为SKIPPED, 默认false
+	 */
+	public void setSkipInTargetStatus(boolean skipInTargetStatus) {
+		this.skipInTargetStatus = skipInTargetStatus;
+	}
+
+	/**
+	 * 设置目标vmStatus, 不区分大小写. 删除操作中查询不到的虚机也视为已达到目标状态
+	 */
+	public void setTargetStatuses(String... statuses) {
+		this.targetStatuses = toStatusSet(statuses);
+	}
+
+	/**
+	 * @param pollIntervalMillis
+	 *            等待目标状态时批量查询的间隔, 默认5秒
+	 */
+	public void setPollIntervalMillis(long pollIntervalMillis) {
+		this.pollIntervalMillis = pollIntervalMillis;
+	}
+
+	/**
+	 * @param waitTimeoutMillis
+	 *            单台虚机从请求被受理起等待目标状态的最长时间, 超时视为失败, 默认10分钟
+	 */
+	public void setWaitTimeoutMillis(long waitTimeoutMillis) {
+		this.waitTimeoutMillis = waitTimeoutMillis;
+	}
+
+	/**
+	 * @param lookupOptions
+	 *            等待目标状态时批量查询虚机的参数
+	 */
+	public void setLookupOptions(BatchLookupOptions lookupOptions) {
+		this.lookupOptions = lookupOptions;
+	}
+
+	/**
+	 * 执行批量操作, 阻塞至所有虚机结束. 调用线程被中断时不再发出新的请求, 保留中断标记并返回已有的报告,
+	 * 见{@link Report#isInterrupted()}
+	 *
+	 * @throws Fit2CloudException
+	 *             选择虚机失败; 单台虚机的失败不抛出异常, 见报告
+	 * @throws IllegalStateException
+	 *             没有设置selector
+	 */
+	public Report run() throws Fit2CloudException {
+		if (selector == null) {
+			throw new IllegalStateException("selector is required");
+		}
+		long start = System.currentTimeMillis();
+		List<Result> results = new ArrayList<Result>();
+		List<Result> pending = new ArrayList<Result>();
+		if (skipInTargetStatus) {
+			List<Server> servers = selector.select(client, STATUS_FIELDS);
+			if (selector.getServerIds() != null) {
+				// 按ID选择时查不到的虚机不在servers中, 按请求的ID逐个记录
+				Map<Long, Server> found = new LinkedHashMap<Long, Server>();
+				for (Server server : servers) {
+					found.put(server.getId(), server);
+				}
+				servers = new ArrayList<Server>();
+				for (Long id : selector.selectIds(client)) {
+					Server server = found.get(id);
+					if (server == null) {
+						Result result = new Result(id);
+						finish(result, Status.FAILED, "server not found");
+						results.add(result);
+					} else {
+						servers.add(server);
+					}
+				}
+			}
+			for (Server server : servers) {
+				Result result = new Result(server.getId());
+				result.server = server;
+				if (isTargetStatus(server.getVmStatus())) {
+					result.status = Status.SKIPPED;
+					result.message = "already " + server.getVmStatus();
+				} else {
+					pending.add(result);
+				}
+				results.add(result);
+			}
+		} else {
+			for (Long id : selector.selectIds(client)) {
+				Result result = new Result(id);
+				pending.add(result);
+				results.add(result);
+			}
+		}
+
+		final Queue<Result> accepted = new ConcurrentLinkedQueue<Result>();
+		final AtomicBoolean stopped = new AtomicBoolean();
+		Fit2CloudClient.ConcurrentTask<Result> task = new Fit2CloudClient.ConcurrentTask<Result>() {
+			public void run(Result result) throws Exception {
+				if (stopped.get()) {
+					result.status = Status.SKIPPED;
+					result.message = "interrupted";
+					return;
+				}
+				try {
+					acquire();
+				} catch (InterruptedException e) {
+					// 只有run被中断后取消任务时发生, 其余虚机由stopped标记跳过
+					stopped.set(true);
+					result.status = Status.SKIPPED;
+					result.message = "interrupted";
+					Thread.currentThread().interrupt();
+					return;
+				}
+				if (dispatch(result) && waitForStatus) {
+					accepted.add(result);
+				}
+			}
+		};
+		List<Future<Void>> futures = client.fanOut(pending, parallelism, false, task);
+		try {
+			if (waitForStatus) {
+				await(futures, accepted);
+			} else {
+				for (Future<Void> future : futures) {
+					try {
+						future.get();
+					} catch (ExecutionException e) {
+						// 由下面的awaitAll抛出
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			stopped.set(true);
+			for (Future<Void> future : futures) {
+				future.cancel(true);
+			}
+			Thread.currentThread().interrupt();
+			for (Result result : results) {
+				if (result.status == Status.PENDING) {
+					result.status = Status.SKIPPED;
+					result.message = "interrupted";
+				} else if (result.status == Status.RUNNING) {
+					result.message = "interrupted while waiting for " + targetStatuses;
+				}
+			}
+			return new Report(results, System.currentTimeMillis() - start, true);
+		}
+		Fit2CloudClient.awaitAll(futures);
+		return new Report(results, System.currentTimeMillis() - start, false);
+	}
+
+	/**
+	 * 发出一台虚机的操作请求
+	 *
+	 * @return 请求是否被受理
+	 */
+	private boolean dispatch(Result result) {
+		result.startTime = System.currentTimeMillis();
+		result.status = Status.RUNNING;
+		try {
+			boolean ok;
+			switch (action) {
+			case START:
+				Server server = client.startServer(result.serverId);
+				if (server != null) {
+					result.server = server;
+				}
+				ok = server != null;
+				break;
+			case STOP:
+				ok = client.stopServer(result.serverId);
+				break;
+			default:
+				ok = client.terminateServer(result.serverId);
+			}
+			result.requestEndTime = System.currentTimeMillis();
+			if (!ok) {
+				finish(result, Status.FAILED, action + " was not accepted");
+				return false;
+			}
+			if (!waitForStatus) {
+				finish(result, Status.SUCCEEDED, null);
+			}
+			return true;
+		} catch (Fit2CloudException e) {
+			result.requestEndTime = System.currentTimeMillis();
+			finish(result, Status.FAILED, e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * 在分发的同时定期批量查询已受理的虚机, 直到分发结束且所有虚机都达到目标状态或超时
+	 */
+	private void await(List<Future<Void>> futures, Queue<Result> accepted) throws InterruptedException {
+		Map<Long, Result> waiting = new LinkedHashMap<Long, Result>();
+		while (true) {
+			boolean dispatched = isDone(futures);
+			Result result;
+			while ((result = accepted.poll()) != null) {
+				waiting.put(result.serverId, result);
+			}
+			if (waiting.isEmpty()) {
+				if (dispatched) {
+					return;
+				}
+			} else {
+				poll(waiting);
+			}
+			if (!waiting.isEmpty() || !dispatched) {
+				TimeUnit.MILLISECONDS.sleep(waiting.isEmpty() ? Math.min(pollIntervalMillis, 100)
+						: pollIntervalMillis);
+			}
+		}
+	}
+
+	private void poll(Map<Long, Result> waiting) {
+		Map<Long, Server> servers = null;
+		String error = null;
+		try {
+			servers = client.getServers(waiting.keySet(), lookupOptions);
+		} catch (Fit2CloudException e) {
+			// 查询失败不影响操作本身, 继续等待直到超时
+			error = e.getMessage();
+		}
+		long now = System.currentTimeMillis();
+		for (Iterator<Result> it = waiting.values().iterator(); it.hasNext();) {
+			Result result = it.next();
+			if (servers != null) {
+				Server server = servers.get(result.serverId);
+				if (server != null) {
+					result.server = server;
+				}
+				if (server == null ? action == Action.TERMINATE : isTargetStatus(server.getVmStatus())) {
+					finish(result, Status.SUCCEEDED, null);
+					it.remove();
+					continue;
+				}
+			}
+			if (now - result.requestEndTime >= waitTimeoutMillis) {
+				String status = result.server == null ? "unknown" : result.server.getVmStatus();
+				finish(result, Status.FAILED, "vmStatus " + status + " did not reach " + targetStatuses + " within "
+						+ waitTimeoutMillis + " ms" + (error == null ? "" : ", last query error: " + error));
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * 按速率上限等待下一个请求的发出时间
+	 */
+	private void acquire() throws InterruptedException {
+		double rate = maxRequestsPerSecond;
+		if (rate <= 0) {
+			return;
+		}
+		long wait;
+		synchronized (this) {
+			long now = System.nanoTime();
+			long next = Math.max(now, nextRequestNanos);
+			nextRequestNanos = next + (long) (1e9 / rate);
+			wait = next - now;
+		}
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	private static void finish(Result result, Status status, String message) {
+		result.message = message;
+		result.endTime = System.currentTimeMillis();
+		result.status = status;
+	}
+
+	private static boolean isDone(List<Future<Void>> futures) {
+		for (Future<Void> future : futures) {
+			if (!future.isDone()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isTargetStatus(String status) {
+		return targetStatuses.contains(normalize(status));
+	}
+
+	private static String normalize(String status) {
+		return status == null ? "" : status.trim().toLowerCase(Locale.ENGLISH);
+	}
+
+	private static Set<String> toStatusSet(String... statuses) {
+		Set<String> set = new HashSet<String>();
+		for (String status : statuses) {
+			set.add(normalize(status));
+		}
+		return set;
+	}
+}
@@ -0,0 +1,136 @@
+package com.fit2cloud.sdk;
+
+import java.util.List;
+
+/**
+ * 单个接口分组的熔断器. 熔断期间请求不再发往平台, 直接以{@link CircuitBreakerOpenException}失败
+ */
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	enum Permit {
+		DENIED, ALLOWED, PROBE
+	}
+
+	private final String endpoint;
+	private final String group;
+	private final CircuitBreakerPolicy policy;
+	private final List<CircuitBreakerListener> listeners;
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openedAt;
+	private int probesInFlight;
+	private int probeSuccesses;
+
+	CircuitBreaker(String endpoint, String group, CircuitBreakerPolicy policy, List<CircuitBreakerListener> listeners) {
+		this.endpoint = endpoint;
+		this.group = group;
+		this.policy = policy;
+		this.listeners = listeners;
+	}
+
+	/**
+	 * 申请发送一次请求
+	 *
+	 * @return DENIED表示熔断中不允许发送; PROBE表示半开状态下的探测请求
+	 */
+	Permit tryAcquire() {
+		boolean halfOpened = false;
+		Permit permit;
+		synchronized (this) {
+			if (state == State.OPEN && System.currentTimeMillis() - openedAt >= policy.getOpenDurationMillis()) {
+				state = State.HALF_OPEN;
+				probesInFlight = 0;
+				probeSuccesses = 0;
+				halfOpened = true;
+			}
+			if (state == State.CLOSED) {
+				permit = Permit.ALLOWED;
+			} else if (state == State.HALF_OPEN && probesInFlight + probeSuccesses < policy.getHalfOpenMaxProbes()) {
+				probesInFlight++;
+				permit = Permit.PROBE;
+			} else {
+				permit = Permit.DENIED;
+			}
+		}
+		if (halfOpened) {
+			fire(State.OPEN, State.HALF_OPEN);
+		}
+		return permit;
+	}
+
+	void onSuccess(Permit permit) {
+		boolean closed = false;
+		synchronized (this) {
+			if (permit == Permit.PROBE && state == State.HALF_OPEN) {
+				probesInFlight--;
+				probeSuccesses++;
+				if (probeSuccesses >= policy.getHalfOpenMaxProbes()) {
+					state = State.CLOSED;
+					consecutiveFailures = 0;
+					closed = true;
+				}
+			} else if (state == State.CLOSED) {
+				consecutiveFailures = 0;
+			}
+		}
+		if (closed) {
+			fire(State.HALF_OPEN, State.CLOSED);
+		}
+	}
+
+	void onFailure(Permit permit) {
+		State from = null;
+		synchronized (this) {
+			if (permit == Permit.PROBE && state == State.HALF_OPEN) {
+				probesInFlight--;
+				from = state;
+			} else if (state == State.CLOSED && ++consecutiveFailures >= policy.getFailureThreshold()) {
+				from = state;
+			}
+			if (from != null) {
+				state = State.OPEN;
+				openedAt = System.currentTimeMillis();
+				consecutiveFailures = 0;
+			}
+		}
+		if (from != null) {
+			fire(from, State.OPEN);
+		}
+	}
+
+	private void fire(State from, State to) {
+		for (CircuitBreakerListener listener : listeners) {
+			try {
+				listener.onStateChange(endpoint, group, from, to);
+			} catch (RuntimeException e) {
+				// 监听器异常不影响请求
+			}
+		}
+	}
+
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	public String getGroup() {
+		return group;
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	/**
+	 * @return 熔断状态下剩余的熔断时间, 非熔断状态返回0
+	 */
+	public synchronized long getRemainingOpenMillis() {
+		if (state != State.OPEN) {
+			return 0;
+		}
+		return Math.max(0, policy.getOpenDurationMillis() - (System.currentTimeMillis() - openedAt));
+	}
+}
@@ -0,0 +1,19 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 熔断器状态变化回调. 回调在触发状态变化的请求线程中同步执行, 实现应尽量轻量
+ */
+public interface CircuitBreakerListener {
+
+	/**
+	 * @param endpoint
+	 *            熔断器所属的API Endpoint
+	 * @param group
+	 *            接口分组, 如servers, cluster, deploy
+	 * @param from
+	 *            原状态
+	 * @param to
+	 *            新状态
+	 */
+	void onStateChange(String endpoint, String group, CircuitBreaker.State from, CircuitBreaker.State to);
+}
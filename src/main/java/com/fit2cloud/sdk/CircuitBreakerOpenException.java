@@ -0,0 +1,29 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 接口分组处于熔断状态时, 请求不会发往平台而是立即抛出此异常
+ */
+public class CircuitBreakerOpenException extends Fit2CloudException {
+
+	private static final long serialVersionUID = 3816412264713307825L;
+
+	private final String group;
+	private final long remainingOpenMillis;
+
+	public CircuitBreakerOpenException(String group, long remainingOpenMillis) {
+		super("circuit breaker is open for endpoint group: " + group);
+		this.group = group;
+		this.remainingOpenMillis = remainingOpenMillis;
+	}
+
+	public String getGroup() {
+		return group;
+	}
+
+	/**
+	 * @return 预计距离下一次半开探测的毫秒数
+	 */
+	public long getRemainingOpenMillis() {
+		return remainingOpenMillis;
+	}
+}
@@ -0,0 +1,53 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 熔断器参数. 同一接口分组连续失败failureThreshold次后熔断, 熔断openDurationMillis毫秒后进入半开状态,
+ * 半开状态下最多放行halfOpenMaxProbes个探测请求, 探测全部成功则恢复, 任一失败则重新熔断
+ */
+public class CircuitBreakerPolicy {
+
+	private int failureThreshold = 5;
+	private long openDurationMillis = 30000;
+	private int halfOpenMaxProbes = 1;
+
+	/**
+	 * 判断一次响应对熔断器而言是否算作失败. 4xx等业务错误说明平台可用, 不计入失败
+	 *
+	 * @param code
+	 *            HTTP状态码
+	 * @return
+	 */
+	public boolean isFailureStatus(int code) {
+		return code >= 500 || code == 408 || code == 429;
+	}
+
+	public int getFailureThreshold() {
+		return failureThreshold;
+	}
+
+	public void setFailureThreshold(int failureThreshold) {
+		if (failureThreshold < 1) {
+			throw new IllegalArgumentException("failureThreshold must be >= 1");
+		}
+		this.failureThreshold = failureThreshold;
+	}
+
+	public long getOpenDurationMillis() {
+		return openDurationMillis;
+	}
+
+	public void setOpenDurationMillis(long openDurationMillis) {
+		this.openDurationMillis = openDurationMillis;
+	}
+
+	public int getHalfOpenMaxProbes() {
+		return halfOpenMaxProbes;
+	}
+
+	public void setHalfOpenMaxProbes(int halfOpenMaxProbes) {
+		if (halfOpenMaxProbes < 1) {
+			throw new IllegalArgumentException("halfOpenMaxProbes must be >= 1");
+		}
+		this.halfOpenMaxProbes = halfOpenMaxProbes;
+	}
+}
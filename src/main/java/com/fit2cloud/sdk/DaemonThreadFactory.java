@@ -0,0 +1,23 @@
+package com.fit2cloud.sdk;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SDK内部线程池使用的守护线程, 不阻止调用方JVM退出
+ */
+class DaemonThreadFactory implements ThreadFactory {
+
+	private final String prefix;
+	private final AtomicInteger sequence = new AtomicInteger();
+
+	DaemonThreadFactory(String prefix) {
+		this.prefix = prefix;
+	}
+
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
@@ -0,0 +1,149 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fit2cloud.sdk.model.ApplicationDeploymentEventLog;
+import com.fit2cloud.sdk.model.ApplicationDeploymentLog;
+
+/**
+ * 增量跟踪一次部署的事件日志. 平台接口每次返回完整的事件日志列表, 本类只记住每条记录的id和状态(不保留eventLog正文),
+ * 每次poll只返回新增或状态有变化的记录.
+ * <p>
+ * 事件日志列表包含大段的eventLog正文, 为避免每次轮询都重新下载, 默认先查询不含正文的各虚机部署日志(getDeploymentLogs),
+ * 其没有变化且距上次下载事件日志不超过maxSkipMillis时跳过本次下载
+ */
+public class DeploymentEventLogWatcher {
+
+	/**
+	 * 一条新增或状态变化的事件日志
+	 */
+	public static class Change {
+		private final ApplicationDeploymentEventLog eventLog;
+		private final String previousStatus;
+		private final boolean added;
+
+		Change(ApplicationDeploymentEventLog eventLog, String previousStatus, boolean added) {
+			this.eventLog = eventLog;
+			this.previousStatus = previousStatus;
+			this.added = added;
+		}
+
+		public ApplicationDeploymentEventLog getEventLog() {
+			return eventLog;
+		}
+
+		/**
+		 * @return 变化前的状态, 新增记录为null
+		 */
+		public String getPreviousStatus() {
+			return previousStatus;
+		}
+
+		/**
+		 * @return 是否为首次出现的记录
+		 */
+		public boolean isAdded() {
+			return added;
+		}
+	}
+
+	private final Fit2CloudClient client;
+	private final Long deploymentId;
+	/** 事件日志id -> 状态 */
+	private final Map<Long, String> statuses = new HashMap<Long, String>();
+	/** 事件日志id -> 状态, 结束时间和返回码组成的指纹 */
+	private final Map<Long, String> fingerprints = new HashMap<Long, String>();
+	private String deploymentLogsFingerprint;
+	private long lastFetchTime;
+	private boolean skipUnchanged = true;
+	private long maxSkipMillis = 30000;
+	private long fetches;
+	private long skippedFetches;
+
+	public DeploymentEventLogWatcher(Fit2CloudClient client, Long deploymentId) {
+		this.client = client;
+		this.deploymentId = deploymentId;
+	}
+
+	/**
+	 * @param skipUnchanged
+	 *            部署日志没有变化时是否跳过事件日志的下载, 默认true
+	 */
+	public void setSkipUnchanged(boolean skipUnchanged) {
+		this.skipUnchanged = skipUnchanged;
+	}
+
+	/**
+	 * @param maxSkipMillis
+	 *            连续跳过事件日志下载的最长时间, 默认30秒, 超过后即使部署日志没有变化也会下载一次
+	 */
+	public void setMaxSkipMillis(long maxSkipMillis) {
+		this.maxSkipMillis = maxSkipMillis;
+	}
+
+	/**
+	 * 查询一次并返回自上次poll以来新增或状态变化的事件日志, 顺序与平台返回的顺序一致
+	 */
+	public synchronized List<Change> poll() throws Fit2CloudException {
+		String logsFingerprint = null;
+		if (skipUnchanged) {
+			logsFingerprint = fingerprint(client.getDeploymentLogs(deploymentId));
+			if (logsFingerprint.equals(deploymentLogsFingerprint)
+					&& System.currentTimeMillis() - lastFetchTime < maxSkipMillis) {
+				skippedFetches++;
+				return new ArrayList<Change>();
+			}
+		}
+		long fetchTime = System.currentTimeMillis();
+		fetches++;
+		List<ApplicationDeploymentEventLog> eventLogs = client.getDeploymentEventLogs(deploymentId);
+		// 事件日志下载成功后才记录部署日志指纹, 否则下载失败后部署日志不再变化时会一直跳过
+		deploymentLogsFingerprint = logsFingerprint;
+		lastFetchTime = fetchTime;
+		List<Change> changes = new ArrayList<Change>();
+		if (eventLogs == null) {
+			return changes;
+		}
+		for (ApplicationDeploymentEventLog eventLog : eventLogs) {
+			if (eventLog.getId() == null) {
+				continue;
+			}
+			String fingerprint = eventLog.getStatus() + "|" + eventLog.getEndTime() + "|" + eventLog.getResponseCode();
+			String previous = fingerprints.put(eventLog.getId(), fingerprint);
+			if (fingerprint.equals(previous)) {
+				continue;
+			}
+			String previousStatus = statuses.put(eventLog.getId(), eventLog.getStatus());
+			changes.add(new Change(eventLog, previousStatus, previous == null));
+		}
+		return changes;
+	}
+
+	/**
+	 * @return 实际下载事件日志列表的次数
+	 */
+	public synchronized long getFetches() {
+		return fetches;
+	}
+
+	/**
+	 * @return 因部署日志没有变化而跳过下载的次数
+	 */
+	public synchronized long getSkippedFetches() {
+		return skippedFetches;
+	}
+
+	private static String fingerprint(List<ApplicationDeploymentLog> logs) {
+		StringBuilder sb = new StringBuilder();
+		if (logs != null) {
+			for (ApplicationDeploymentLog log : logs) {
+				sb.append(log.getId()).append(':').append(log.getStatus()).append(':').append(log.getEndTime())
+						.append(':').append(log.getResponseCode()).append(';');
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,467 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.fit2cloud.sdk.model.ApplicationDeployPolicyType;
+import com.fit2cloud.sdk.model.ApplicationDeployment;
+import com.fit2cloud.sdk.model.ApplicationDeploymentEventLog;
+
+/**
+ * 将同一应用版本分批发布到多个集群. 每批(wave)内的集群并发调用addDeployment, 并通过getDeployment轮询跟踪至结束;
+ * 一批全部结束后若累计失败的集群数超过maxFailures, 后续批次不再发起. 平台不支持取消已发起的部署, 停止只影响尚未开始的批次
+ */
+public class DeploymentRollout {
+
+	public enum Status {
+		PENDING, RUNNING, SUCCEEDED, FAILED, SKIPPED
+	}
+
+	/**
+	 * 一个发布目标, 即一个集群(或集群下的虚机组)
+	 */
+	public static class Target {
+		private final String clusterName;
+		private final String clusterRoleName;
+		private volatile Status status = Status.PENDING;
+		private volatile ApplicationDeployment deployment;
+		private volatile String message;
+		private volatile long startTime;
+		private volatile long endTime;
+
+		Target(String clusterName, String clusterRoleName) {
+			this.clusterName = clusterName;
+			this.clusterRoleName = clusterRoleName;
+		}
+
+		public String getClusterName() {
+			return clusterName;
+		}
+
+		public String getClusterRoleName() {
+			return clusterRoleName;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+
+		/**
+		 * @return 最近一次查询到的部署信息, 尚未发起或发起失败时为null
+		 */
+		public ApplicationDeployment getDeployment() {
+			return deployment;
+		}
+
+		/**
+		 * @return 失败原因, 来自部署的msg, 失败事件日志或客户端异常
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		/**
+		 * @return 从发起部署到结束的耗时, 尚未开始时为-1
+		 */
+		public long getDurationMillis() {
+			if (startTime == 0) {
+				return -1;
+			}
+			return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+		}
+
+		@Override
+		public String toString() {
+			return clusterName + (clusterRoleName == null ? "" : "/" + clusterRoleName) + " " + status;
+		}
+	}
+
+	/**
+	 * 同时发起的一批发布目标
+	 */
+	public static class Wave {
+		private final int index;
+		private final List<Target> targets;
+		private volatile long startTime;
+		private volatile long endTime;
+
+		Wave(int index, List<Target> targets) {
+			this.index = index;
+			this.targets = Collections.unmodifiableList(targets);
+		}
+
+		/**
+		 * @return 批次序号, 从0开始
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		public List<Target> getTargets() {
+			return targets;
+		}
+
+		/**
+		 * @return 本批从开始到全部结束的耗时, 未执行时为-1
+		 */
+		public long getDurationMillis() {
+			if (startTime == 0) {
+				return -1;
+			}
+			return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+		}
+
+		public int getFailedCount() {
+			int count = 0;
+			for (Target target : targets) {
+				if (target.getStatus() == Status.FAILED) {
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+
+	/**
+	 * 一次发布的结果
+	 */
+	public static class Report {
+		private final List<Wave> waves;
+		private final boolean halted;
+
+		Report(List<Wave> waves, boolean halted) {
+			this.waves = Collections.unmodifiableList(waves);
+			this.halted = halted;
+		}
+
+		public List<Wave> getWaves() {
+			return waves;
+		}
+
+		/**
+		 * @return 是否因失败数超过阈值而停止了后续批次
+		 */
+		public boolean isHalted() {
+			return halted;
+		}
+
+		/**
+		 * @return 所有目标是否都发布成功
+		 */
+		public boolean isSucceeded() {
+			return getTargets(Status.SUCCEEDED).size() == getTargets().size();
+		}
+
+		public List<Target> getTargets() {
+			List<Target> result = new ArrayList<Target>();
+			for (Wave wave : waves) {
+				result.addAll(wave.getTargets());
+			}
+			return result;
+		}
+
+		public List<Target> getTargets(Status status) {
+			List<Target> result = new ArrayList<Target>();
+			for (Target target : getTargets()) {
+				if (target.getStatus() == status) {
+					result.add(target);
+				}
+			}
+			return result;
+		}
+	}
+
+	private final Fit2CloudClient client;
+	private final String applicationName;
+	private final String applicationRevisionName;
+	private final List<Target> targets = new ArrayList<Target>();
+	private final List<DeploymentRolloutListener> listeners = new CopyOnWriteArrayList<DeploymentRolloutListener>();
+	private String deployPolicy = ApplicationDeployPolicyType.ONE_AT_A_TIME;
+	private String description;
+	private Long contactGroupId;
+	private int waveSize = 5;
+	private int firstWaveSize;
+	private int maxFailures;
+	private long pollIntervalMillis = 5000;
+	private long deploymentTimeoutMillis = 30 * 60 * 1000L;
+	private Set<String> successStatuses = toStatusSet("success");
+	private Set<String> failureStatuses = toStatusSet("fail", "failed", "error", "timeout", "expired", "aborted");
+
+	/**
+	 * @param client
+	 * @param applicationName
+	 *            应用名称
+	 * @param applicationRevisionName
+	 *            应用版本名称
+	 */
+	public DeploymentRollout(Fit2CloudClient client, String applicationName, String applicationRevisionName) {
+		this.client = client;
+		this.applicationName = applicationName;
+		this.applicationRevisionName = applicationRevisionName;
+	}
+
+	/**
+	 * 添加一个发布目标, 按添加顺序分批
+	 *
+	 * @param clusterName
+	 *            集群名称
+	 * @param clusterRoleName
+	 *            虚机组名称,(可选)
+	 */
+	public void addTarget(String clusterName, String clusterRoleName) {
+		targets.add(new Target(clusterName, clusterRoleName));
+	}
+
+	public void addTarget(String clusterName) {
+		addTarget(clusterName, null);
+	}
+
+	public void addListener(DeploymentRolloutListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(DeploymentRolloutListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @param deployPolicy
+	 *            每个集群内的部署策略, 见{@link ApplicationDeployPolicyType}, 默认oneAtATime
+	 */
+	public void setDeployPolicy(String deployPolicy) {
+		this.deployPolicy = deployPolicy;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public void setContactGroupId(Long contactGroupId) {
+		this.contactGroupId = contactGroupId;
+	}
+
+	/**
+	 * @param waveSize
+	 *            每批同时发布的集群数, 默认5
+	 */
+	public void setWaveSize(int waveSize) {
+		if (waveSize < 1) {
+			throw new IllegalArgumentException("waveSize must be >= 1");
+		}
+		this.waveSize = waveSize;
+	}
+
+	/**
+	 * @param firstWaveSize
+	 *            第一批(金丝雀)的集群数, 0表示与waveSize相同
+	 */
+	public void setFirstWaveSize(int firstWaveSize) {
+		if (firstWaveSize < 0) {
+			throw new IllegalArgumentException("firstWaveSize must be >= 0");
+		}
+		this.firstWaveSize = firstWaveSize;
+	}
+
+	/**
+	 * @param maxFailures
+	 *            允许失败的集群数, 累计失败超过此值后不再发起后续批次, 默认0
+	 */
+	public void setMaxFailures(int maxFailures) {
+		this.maxFailures = maxFailures;
+	}
+
+	/**
+	 * @param pollIntervalMillis
+	 *            查询部署状态的间隔, 默认5秒
+	 */
+	public void setPollIntervalMillis(long pollIntervalMillis) {
+		this.pollIntervalMillis = pollIntervalMillis;
+	}
+
+	/**
+	 * @param deploymentTimeoutMillis
+	 *            单个集群部署的最长等待时间, 超时视为失败, 默认30分钟
+	 */
+	public void setDeploymentTimeoutMillis(long deploymentTimeoutMillis) {
+		this.deploymentTimeoutMillis = deploymentTimeoutMillis;
+	}
+
+	/**
+	 * 设置视为成功结束的部署状态, 不区分大小写, 默认success
+	 */
+	public void setSuccessStatuses(String... statuses) {
+		this.successStatuses = toStatusSet(statuses);
+	}
+
+	/**
+	 * 设置视为失败结束的部署状态, 不区分大小写. 部署的endTime不为空时即使状态不在两者之中也视为结束
+	 */
+	public void setFailureStatuses(String... statuses) {
+		this.failureStatuses = toStatusSet(statuses);
+	}
+
+	/**
+	 * 按批次执行发布, 阻塞至所有批次结束或因失败停止. 单个集群的任何异常都只使该集群失败, 监听器的异常被忽略
+	 */
+	public Report run() throws Fit2CloudException {
+		List<Wave> waves = plan();
+		ExecutorService executor = client.getExecutor();
+		int failures = 0;
+		boolean halted = false;
+		for (Wave wave : waves) {
+			if (failures > maxFailures) {
+				halted = true;
+				for (Target target : wave.getTargets()) {
+					target.status = Status.SKIPPED;
+				}
+				continue;
+			}
+			wave.startTime = System.currentTimeMillis();
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (final Target target : wave.getTargets()) {
+				futures.add(executor.submit(new Callable<Void>() {
+					public Void call() throws Exception {
+						track(target);
+						return null;
+					}
+				}));
+			}
+			Fit2CloudClient.awaitAll(futures);
+			wave.endTime = System.currentTimeMillis();
+			for (DeploymentRolloutListener listener : listeners) {
+				try {
+					listener.onWaveFinished(wave);
+				} catch (RuntimeException e) {
+					// 监听器异常不影响发布
+				}
+			}
+			failures += wave.getFailedCount();
+		}
+		return new Report(waves, halted);
+	}
+
+	private List<Wave> plan() {
+		List<Wave> waves = new ArrayList<Wave>();
+		int index = 0;
+		while (index < targets.size()) {
+			int size = waves.isEmpty() && firstWaveSize > 0 ? firstWaveSize : waveSize;
+			int end = Math.min(targets.size(), index + size);
+			waves.add(new Wave(waves.size(), new ArrayList<Target>(targets.subList(index, end))));
+			index = end;
+		}
+		return waves;
+	}
+
+	private void track(Target target) {
+		target.startTime = System.currentTimeMillis();
+		target.status = Status.RUNNING;
+		try {
+			ApplicationDeployment deployment = client.addDeployment(applicationName, applicationRevisionName,
+					target.clusterName, target.clusterRoleName, null, deployPolicy, description == null ? ""
+							: description, contactGroupId);
+			if (deployment == null || deployment.getId() == null) {
+				finish(target, Status.FAILED, "no deployment returned for cluster " + target.clusterName);
+				return;
+			}
+			target.deployment = deployment;
+			long deadline = target.startTime + deploymentTimeoutMillis;
+			while (!isFinished(deployment)) {
+				if (System.currentTimeMillis() >= deadline) {
+					finish(target, Status.FAILED, "deployment " + deployment.getId() + " did not finish within "
+							+ deploymentTimeoutMillis + " ms");
+					return;
+				}
+				Thread.sleep(pollIntervalMillis);
+				try {
+					deployment = client.getDeployment(deployment.getId());
+					target.deployment = deployment;
+				} catch (Fit2CloudException e) {
+					// 查询失败不影响部署本身, 继续轮询直到超时
+					target.message = e.getMessage();
+				}
+			}
+			if (isSuccessStatus(deployment.getStatus())) {
+				finish(target, Status.SUCCEEDED, null);
+			} else {
+				finish(target, Status.FAILED, describeFailure(deployment));
+			}
+		} catch (Fit2CloudException e) {
+			finish(target, Status.FAILED, e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			finish(target, Status.FAILED, "interrupted");
+		} catch (RuntimeException e) {
+			// 如平台返回无法解析的数据, 该集群按失败处理, 其他集群和报告不受影响
+			finish(target, Status.FAILED, e.toString());
+		}
+	}
+
+	private void finish(Target target, Status status, String message) {
+		target.message = message;
+		target.endTime = System.currentTimeMillis();
+		target.status = status;
+		for (DeploymentRolloutListener listener : listeners) {
+			try {
+				listener.onTargetFinished(target);
+			} catch (RuntimeException e) {
+				// 监听器异常不影响发布
+			}
+		}
+	}
+
+	private boolean isFinished(ApplicationDeployment deployment) {
+		if (deployment.getEndTime() != null && deployment.getEndTime().longValue() > 0) {
+			return true;
+		}
+		String status = normalize(deployment.getStatus());
+		return successStatuses.contains(status) || failureStatuses.contains(status);
+	}
+
+	private boolean isSuccessStatus(String status) {
+		return successStatuses.contains(normalize(status));
+	}
+
+	/**
+	 * 失败原因: 部署的msg加上失败事件日志的事件名和msg. 事件日志获取失败时只返回部署的msg
+	 */
+	private String describeFailure(ApplicationDeployment deployment) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("deployment ").append(deployment.getId()).append(" ").append(deployment.getStatus());
+		if (deployment.getMsg() != null && deployment.getMsg().length() > 0) {
+			sb.append(": ").append(deployment.getMsg());
+		}
+		try {
+			List<ApplicationDeploymentEventLog> eventLogs = client.getDeploymentEventLogs(deployment.getId());
+			if (eventLogs != null) {
+				for (ApplicationDeploymentEventLog eventLog : eventLogs) {
+					if (failureStatuses.contains(normalize(eventLog.getStatus()))) {
+						sb.append("; ").append(eventLog.getEventName()).append(": ").append(eventLog.getMsg());
+					}
+				}
+			}
+		} catch (Fit2CloudException e) {
+			// 事件日志只用于补充失败原因
+		}
+		return sb.toString();
+	}
+
+	private static String normalize(String status) {
+		return status == null ? "" : status.trim().toLowerCase(Locale.ENGLISH);
+	}
+
+	private static Set<String> toStatusSet(String... statuses) {
+		Set<String> set = new HashSet<String>();
+		for (String status : statuses) {
+			set.add(normalize(status));
+		}
+		return set;
+	}
+}
@@ -0,0 +1,17 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 多集群发布进度回调. 回调在跟踪部署的线程中执行, 可能并发调用, 实现应线程安全且尽量轻量
+ */
+public interface DeploymentRolloutListener {
+
+	/**
+	 * 单个集群的部署结束(成功, 失败或超时)
+	 */
+	void onTargetFinished(DeploymentRollout.Target target);
+
+	/**
+	 * 一批集群全部结束
+	 */
+	void onWaveFinished(DeploymentRollout.Wave wave);
+}
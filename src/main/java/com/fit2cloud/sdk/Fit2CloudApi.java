@@ -1,6 +1,7 @@
 package com.fit2cloud.sdk;
 
 import org.scribe.builder.api.DefaultApi10a;
+import org.scribe.extractors.BaseStringExtractor;
 import org.scribe.model.Token;
 
 public class Fit2CloudApi extends DefaultApi10a 
@@ -21,5 +22,10 @@ public class Fit2CloudApi extends DefaultApi10a
 		return null;
 	}
 
+	@Override
+	public BaseStringExtractor getBaseStringExtractor() {
+		return new Fit2CloudBaseStringExtractor();
+	}
+
 
 }
@@ -0,0 +1,72 @@
+package com.fit2cloud.sdk;
+
+import org.scribe.exceptions.OAuthParametersMissingException;
+import org.scribe.extractors.BaseStringExtractor;
+import org.scribe.extractors.BaseStringExtractorImpl;
+import org.scribe.model.OAuthRequest;
+import org.scribe.model.ParameterList;
+import org.scribe.utils.OAuthEncoder;
+
+/**
+ * OAuth签名基串的生成. 普通请求交给scribe的默认实现; {@link ScriptOAuthRequest}的脚本参数直接使用
+ * {@link ScriptBody}中缓存的二次编码结果, 只对其余少量参数按默认规则编码并排序
+ */
+class Fit2CloudBaseStringExtractor implements BaseStringExtractor {
+
+	private static final String ENCODED_AMPERSAND = "%26";
+	private static final String ENCODED_EQUALS = "%3D";
+
+	private final BaseStringExtractor defaultExtractor = new BaseStringExtractorImpl();
+
+	public String extract(OAuthRequest request) {
+		if (!(request instanceof ScriptOAuthRequest)) {
+			return defaultExtractor.extract(request);
+		}
+		if (request.getOauthParameters() == null || request.getOauthParameters().size() <= 0) {
+			throw new OAuthParametersMissingException(request);
+		}
+		ScriptOAuthRequest scriptRequest = (ScriptOAuthRequest) request;
+		ParameterList params = new ParameterList();
+		params.addAll(request.getQueryStringParams());
+		params.addAll(request.getBodyParams());
+		params.addAll(new ParameterList(request.getOauthParameters()));
+		String pairs = params.sort().asFormUrlEncodedString();
+		String scriptName = OAuthEncoder.encode(scriptRequest.getScriptParameterName());
+		String scriptValue = scriptRequest.getScriptBody().getSignatureEncoded();
+
+		StringBuilder sb = new StringBuilder(scriptValue.length() + pairs.length() * 2 + 256);
+		sb.append(OAuthEncoder.encode(request.getVerb().name()));
+		sb.append('&');
+		sb.append(OAuthEncoder.encode(request.getSanitizedUrl()));
+		sb.append('&');
+		// 参数按名称排序, 脚本参数插入到第一个名称比它大的参数之前
+		boolean first = true;
+		boolean inserted = false;
+		for (String pair : pairs.split("&")) {
+			if (pair.length() == 0) {
+				continue;
+			}
+			if (!inserted && pair.substring(0, pair.indexOf('=')).compareTo(scriptName) > 0) {
+				first = appendScript(sb, first, scriptName, scriptValue);
+				inserted = true;
+			}
+			if (!first) {
+				sb.append(ENCODED_AMPERSAND);
+			}
+			sb.append(OAuthEncoder.encode(pair));
+			first = false;
+		}
+		if (!inserted) {
+			appendScript(sb, first, scriptName, scriptValue);
+		}
+		return sb.toString();
+	}
+
+	private static boolean appendScript(StringBuilder sb, boolean first, String scriptName, String scriptValue) {
+		if (!first) {
+			sb.append(ENCODED_AMPERSAND);
+		}
+		sb.append(OAuthEncoder.encode(scriptName)).append(ENCODED_EQUALS).append(scriptValue);
+		return false;
+	}
+}
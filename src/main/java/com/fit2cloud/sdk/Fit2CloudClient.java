@@ -1,13 +1,45 @@
 package com.fit2cloud.sdk;
 
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Field;
 import java.lang.reflect.Type;
-import java.net.URLEncoder;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.scribe.builder.ServiceBuilder;
+import org.scribe.exceptions.OAuthConnectionException;
 import org.scribe.model.OAuthRequest;
 import org.scribe.model.Response;
 import org.scribe.model.Token;
@@ -44,14 +76,69 @@ import com.fit2cloud.sdk.model.Tag;
 import com.fit2cloud.sdk.model.ViewScriptlog;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
 
 public class Fit2CloudClient {
 
+	private static final CircuitBreakerPolicy DEFAULT_FAILURE_POLICY = new CircuitBreakerPolicy();
+	/** Gson实例线程安全, 所有解码共享一个, 避免每次调用重新构建 */
+	private static final Gson GSON = new GsonBuilder().create();
+	/** 按内容缓存编码结果的脚本最小长度, 更短的脚本编码开销可以忽略 */
+	private static final int SCRIPT_BODY_CACHE_MIN_LENGTH = 16 * 1024;
+	private static final long SCRIPT_BODY_CACHE_BYTES = 16L * 1024 * 1024;
+
+	private static final QuerySpec SERVERS_QUERY = new QuerySpec("/servers", "clusterId", "clusterRoleId", "sort",
+			"order", "pageSize", "pageNum", "showTerminated");
+	private static final QuerySpec SCRIPTS_QUERY = new QuerySpec("/scripts", "pageSize", "pageNum");
+	private static final QuerySpec LOGGINGS_QUERY = new QuerySpec("/event/loggings", "clusterId", "clusterRoleId",
+			"serverId", "scriptId", "status", "sort", "order", "pageSize", "pageNum");
+	private static final QuerySpec TAGS_QUERY = new QuerySpec("/tags", "clusterId", "clusterRoleId", "serverId",
+			"tagName", "pageSize", "pageNum");
+	private static final QuerySpec SERVERS_BY_TAG_QUERY = new QuerySpec("/tags/servers", "clusterId",
+			"clusterRoleId", "tagName", "tagValue", "pageSize", "pageNum");
+	private static final QuerySpec DEPLOYMENTS_QUERY = new QuerySpec("/deployments", "clusterId", "applicationId",
+			"pageSize", "pageNum");
+	private static final QuerySpec APPLICATIONS_QUERY = new QuerySpec("/deploy/apps", "pageSize", "pageNum");
+	private static final QuerySpec APPLICATION_REPOS_QUERY = new QuerySpec("/deploy/repos", "pageSize", "pageNum");
+	private static final QuerySpec TOP_METRIC_DATA_QUERY = new QuerySpec("/top/metric/data", "metric", "limit");
+	private static final QuerySpec ALERTS_QUERY = new QuerySpec("/alerts", "clusterId", "clusterRoleId", "serverId",
+			"alertType", "alertStatus", "pageSize", "pageNum");
+	private static final QuerySpec LAUNCH_CONFIGURATIONS_QUERY = new QuerySpec("/launchconfigurations",
+			"cloudCredentialId");
+	private static final QuerySpec SERVICE_CATALOG_ORDERS_QUERY = new QuerySpec("/servicecatalog/orders", "status",
+			"sort", "order", "pageSize", "pageNum");
+	private static final QuerySpec SERVICE_CATALOG_ORDER_UPDATE_QUERY = new QuerySpec("/update", "status");
+	private static final QuerySpec CONTACT_GROUPS_QUERY = new QuerySpec("/contactgroups", "pageSize", "pageNum");
+	private static final QuerySpec SERVER_METRICS_QUERY = new QuerySpec("/server/metrics", "serverId",
+			"metricName", "startTime", "endTime");
+	private static final QuerySpec PORT_MONITORS_QUERY = new QuerySpec("/monitor/ports", "pageSize", "pageNum");
+
 	OAuthService service;
 	private String restApiEndpoint;
 	private String executeScriptInServerUrl;
 	private String getLoggingUrl;
+	private volatile int connectTimeoutMillis = 10000;
+	private volatile int readTimeoutMillis = 60000;
+	private RetryPolicy retryPolicy = new RetryPolicy();
+	private RetryBudget retryBudget = new RetryBudget();
+	private final Random random = new Random();
+	private CircuitBreakerPolicy circuitBreakerPolicy = new CircuitBreakerPolicy();
+	private final List<CircuitBreakerListener> circuitBreakerListeners = new CopyOnWriteArrayList<CircuitBreakerListener>();
+	private final List<Fit2CloudEndpoint> endpoints = new ArrayList<Fit2CloudEndpoint>();
+	private HedgingPolicy hedgingPolicy;
+	private final ConcurrentMap<String, LatencyHistogram> latencyHistograms = new ConcurrentHashMap<String, LatencyHistogram>();
+	private ExecutorService executor;
+	private SingleFlight<Object> singleFlight;
+	private volatile boolean lazyTextFields;
+	private volatile StringDeduplicator stringDeduplicator;
+	private volatile boolean streamingDecoding;
+	private volatile long topMetricsCacheMillis = 5000;
+	private volatile int topMetricsParallelism = 4;
+	private final ConcurrentMap<String, CachedTopMetrics> topMetricsCache =
+			new ConcurrentHashMap<String, CachedTopMetrics>();
+	private final SingleFlight<Map<String, List<MetricTop>>> topMetricsFlight =
+			new SingleFlight<Map<String, List<MetricTop>>>();
+	private final ScriptBodyCache scriptBodies = new ScriptBodyCache(SCRIPT_BODY_CACHE_BYTES);
 
 	/**
 	 * @param consumerKey
@@ -62,15 +149,204 @@ public class Fit2CloudClient {
 	 *            FIT2CLOUD用户的API Endpoint,可以通过FIT2CLOUD控制台的"帐号信息"中获取
 	 */
 	public Fit2CloudClient(String consumerKey, String secret, String restApiUrl) {
-		if (restApiUrl != null && restApiUrl.endsWith("/")) {
-			restApiUrl = restApiUrl.substring(0, restApiUrl.length() - 1);
+		this(consumerKey, secret, Collections.singletonList(restApiUrl));
+	}
+
+	/**
+	 * 多Endpoint模式: 每个请求发往当前延迟和错误率最低的健康Endpoint, 幂等请求失败时自动切换到其他Endpoint重试
+	 * 
+	 * @param consumerKey
+	 *            FIT2CLOUD用户的consumerKey,可以通过FIT2CLOUD控制台的"帐号信息"中获取
+	 * @param secret
+	 *            FIT2CLOUD用户的SecretKey,可以通过FIT2CLOUD控制台的"帐号信息"中获取
+	 * @param restApiUrls
+	 *            同一平台的多个API Endpoint(如不同地域的入口), 至少一个
+	 */
+	public Fit2CloudClient(String consumerKey, String secret, List<String> restApiUrls) {
+		if (restApiUrls == null || restApiUrls.isEmpty()) {
+			throw new IllegalArgumentException("at least one restApiUrl is required");
+		}
+		for (String restApiUrl : restApiUrls) {
+			if (restApiUrl != null && restApiUrl.endsWith("/")) {
+				restApiUrl = restApiUrl.substring(0, restApiUrl.length() - 1);
+			}
+			endpoints.add(new Fit2CloudEndpoint(restApiUrl));
 		}
-		restApiEndpoint = restApiUrl;
+		restApiEndpoint = endpoints.get(0).getUrl();
 		executeScriptInServerUrl = String.format("%s/executescript/server", restApiEndpoint);
 		getLoggingUrl = String.format("%s/event/loggings/", restApiEndpoint);
 		service = new ServiceBuilder().provider(Fit2CloudApi.class).apiKey(consumerKey).apiSecret(secret).build();
 	}
 
+	public int getConnectTimeoutMillis() {
+		return connectTimeoutMillis;
+	}
+
+	/**
+	 * @param connectTimeoutMillis
+	 *            建立连接的超时时间, 默认10秒, 0表示不限制. 超时按{@link Fit2CloudTimeoutException}抛出并计入熔断
+	 */
+	public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+		if (connectTimeoutMillis < 0) {
+			throw new IllegalArgumentException("connectTimeoutMillis must be >= 0");
+		}
+		this.connectTimeoutMillis = connectTimeoutMillis;
+	}
+
+	public int getReadTimeoutMillis() {
+		return readTimeoutMillis;
+	}
+
+	/**
+	 * @param readTimeoutMillis
+	 *            等待响应数据的超时时间, 默认60秒, 0表示不限制. 平台无响应时请求在此时间后失败, 不会无限期占用线程
+	 */
+	public void setReadTimeoutMillis(int readTimeoutMillis) {
+		if (readTimeoutMillis < 0) {
+			throw new IllegalArgumentException("readTimeoutMillis must be >= 0");
+		}
+		this.readTimeoutMillis = readTimeoutMillis;
+	}
+
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * 设置请求重试策略, 默认幂等请求最多尝试3次; 传入{@link RetryPolicy#noRetry()}可关闭重试
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy == null ? RetryPolicy.noRetry() : retryPolicy;
+	}
+
+	public RetryBudget getRetryBudget() {
+		return retryBudget;
+	}
+
+	/**
+	 * 设置重试预算, 同一个预算可以在多个client之间共享以限制整体重试量
+	 */
+	public void setRetryBudget(RetryBudget retryBudget) {
+		this.retryBudget = retryBudget == null ? new RetryBudget(0, 0) : retryBudget;
+	}
+
+	public CircuitBreakerPolicy getCircuitBreakerPolicy() {
+		return circuitBreakerPolicy;
+	}
+
+	/**
+	 * 设置熔断策略, 熔断按接口分组(如servers, cluster, deploy)独立计算; 传入null关闭熔断
+	 */
+	public void setCircuitBreakerPolicy(CircuitBreakerPolicy circuitBreakerPolicy) {
+		this.circuitBreakerPolicy = circuitBreakerPolicy;
+		for (Fit2CloudEndpoint endpoint : endpoints) {
+			endpoint.getCircuitBreakers().clear();
+		}
+	}
+
+	public void addCircuitBreakerListener(CircuitBreakerListener listener) {
+		circuitBreakerListeners.add(listener);
+	}
+
+	public void removeCircuitBreakerListener(CircuitBreakerListener listener) {
+		circuitBreakerListeners.remove(listener);
+	}
+
+	/**
+	 * @param group
+	 *            接口分组, 即API路径的第一段, 如servers, cluster, deploy
+	 * @return 主Endpoint上该分组的熔断器, 该分组尚无请求或未启用熔断时返回null
+	 */
+	public CircuitBreaker getCircuitBreaker(String group) {
+		return endpoints.get(0).getCircuitBreaker(group);
+	}
+
+	public HedgingPolicy getHedgingPolicy() {
+		return hedgingPolicy;
+	}
+
+	/**
+	 * 设置对冲请求策略, 默认不启用. 对冲只作用于GET请求, 可通过{@link HedgingPolicy#forGroups(String...)}
+	 * 限定接口分组, 如server, event, alerts
+	 */
+	public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+		this.hedgingPolicy = hedgingPolicy;
+	}
+
+	/**
+	 * @param group
+	 *            接口分组
+	 * @return 该分组已观测的请求延迟(毫秒), 仅在启用对冲策略后记录, 无记录时返回null
+	 */
+	public LatencyHistogram getLatencyHistogram(String group) {
+		return latencyHistograms.get(group);
+	}
+
+	/**
+	 * 开启或关闭GET请求合并, 默认关闭. 开启后并发的相同GET请求(相同url和返回类型)只发出一次,
+	 * 所有调用方共享同一个解析后的结果对象, 调用方不应修改返回的对象
+	 */
+	public void setRequestCoalescing(boolean enabled) {
+		this.singleFlight = enabled ? new SingleFlight<Object>() : null;
+	}
+
+	/**
+	 * @return 请求合并的统计(实际执行与被合并的请求数), 未开启时返回null
+	 */
+	public SingleFlight<Object> getSingleFlight() {
+		return singleFlight;
+	}
+
+	/**
+	 * 开启后, Event/ViewScriptlog的eventData, ApplicationDeploymentEventLog的eventLog, ServiceCatalogOrder的orderContent
+	 * 和Server的customData在解码时不生成String, 只记录其在响应中的位置, 首次调用getter时才还原. 适合列出大量记录但很少读取这些字段的场景;
+	 * 未读取前会一直引用整个响应字符串, 保留其中任意一条记录都会使整页响应无法回收
+	 */
+	public void setLazyTextFields(boolean enabled) {
+		this.lazyTextFields = enabled;
+	}
+
+	public boolean isLazyTextFields() {
+		return lazyTextFields;
+	}
+
+	/**
+	 * 开启后, 解码为模型类或模型类列表的响应使用内置的流式解码器, 按字段表直接调用setter, 不经过Gson的反射和JsonElement树;
+	 * 其他类型仍使用Gson. 默认关闭. 同时开启{@link #setLazyTextFields(boolean)}时, 含大文本字段的模型仍按延迟解码处理
+	 */
+	public void setStreamingDecoding(boolean enabled) {
+		this.streamingDecoding = enabled;
+	}
+
+	public boolean isStreamingDecoding() {
+		return streamingDecoding;
+	}
+
+	/**
+	 * 开启或关闭解码结果的字符串去重, 默认关闭. 开启后Server, Logging和ViewScriptlog中集群名, 区域, 状态, 日志级别等取值很少的字段
+	 * 在同一客户端的所有查询结果中共享相同的String实例
+	 * 
+	 * @param maxEntries
+	 *            去重表最多保存的不同字符串数, 小于等于0时关闭
+	 */
+	public void setStringDeduplication(int maxEntries) {
+		this.stringDeduplicator = maxEntries > 0 ? new StringDeduplicator(maxEntries) : null;
+	}
+
+	/**
+	 * @return 字符串去重表及其命中统计, 未开启时返回null
+	 */
+	public StringDeduplicator getStringDeduplicator() {
+		return stringDeduplicator;
+	}
+
+	/**
+	 * @return 所有API Endpoint及其延迟, 错误率统计, 第一个为主Endpoint
+	 */
+	public List<Fit2CloudEndpoint> getEndpoints() {
+		return Collections.unmodifiableList(endpoints);
+	}
+
 	/**
 	 * 获取当前用户所有集群信息
 	 * 
@@ -78,19 +354,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<Cluster> getClusters() throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/clusters");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<Cluster>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/clusters");
+		return execute(request, ListTypes.of(Cluster.class));
 	}
 
 	/**
@@ -102,17 +367,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public Cluster getCluster(long clusterId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/cluster/" + clusterId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Cluster.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/cluster/" + clusterId);
+		return execute(request, Cluster.class);
 	}
 
 	/**
@@ -124,19 +380,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<ClusterRole> getClusterRoles(long clusterId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/cluster/" + clusterId + "/roles");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<ClusterRole>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/cluster/" + clusterId + "/roles");
+		return execute(request, ListTypes.of(ClusterRole.class));
 	}
 
 	/**
@@ -148,17 +393,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public ClusterRole getClusterRole(long clusterRoleId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/clusterrole/" + clusterRoleId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ClusterRole.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/clusterrole/" + clusterRoleId);
+		return execute(request, ClusterRole.class);
 	}
 
 	/**
@@ -184,55 +420,30 @@ public class Fit2CloudClient {
 	public List<Server> getServers(Long clusterId, Long clusterRoleId, String sort, String order, Integer pageSize,
 			Integer pageNum, boolean showTerminated) throws Fit2CloudException {
 
-		StringBuffer requestParamSb = new StringBuffer();
-		if (clusterId != null && clusterId.intValue() > 0) {
-			requestParamSb.append("clusterId=");
-			requestParamSb.append(clusterId);
-			requestParamSb.append("&");
-		}
-		if (clusterRoleId != null && clusterRoleId.intValue() > 0) {
-			requestParamSb.append("clusterRoleId=");
-			requestParamSb.append(clusterRoleId);
-			requestParamSb.append("&");
-		}
-		if (sort != null && sort.trim().length() > 0) {
-			requestParamSb.append("sort=");
-			requestParamSb.append(sort.trim());
-			requestParamSb.append("&");
-		}
-		if (order != null && order.trim().length() > 0) {
-			requestParamSb.append("order=");
-			requestParamSb.append(order.trim());
-			requestParamSb.append("&");
-		}
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/servers?" + requestParam);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				SERVERS_QUERY.build(restApiEndpoint, clusterId, clusterRoleId, sort, order, pageSize, pageNum,
+				showTerminated));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<Server>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(Server.class));
+	}
+
+	/**
+	 * 与{@link #getServers(Long, Long, String, String, Integer, Integer, boolean)}相同, 但只解码projection指定的字段,
+	 * 其余字段为null. 适合只需要少量字段的大批量查询
+	 * 
+	 * @param projection
+	 *            需要解码的字段
+	 * @return
+	 * @throws Fit2CloudException
+	 */
+	public List<Server> getServers(Long clusterId, Long clusterRoleId, String sort, String order, Integer pageSize,
+			Integer pageNum, boolean showTerminated, Projection<Server> projection) throws Fit2CloudException {
+
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				SERVERS_QUERY.build(restApiEndpoint, clusterId, clusterRoleId, sort, order, pageSize, pageNum,
+				showTerminated));
+		request.setCharset("UTF-8");
+		return execute(request, projection);
 	}
 
 	/**
@@ -244,16 +455,187 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public Server getServer(long serverId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/server/" + serverId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Server.class);
-		} else {
-			throw new Fit2CloudException(responseString);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/server/" + serverId);
+		return execute(request, Server.class);
+	}
+
+	/**
+	 * 按ID批量获取虚机信息, 使用默认的{@link BatchLookupOptions}
+	 * 
+	 * @param serverIds
+	 *            虚机ID集合, 重复ID只查询一次
+	 * @return 虚机ID到虚机信息的映射, 按ID首次出现的顺序排列; 不存在的虚机不包含在内
+	 * @throws Fit2CloudException
+	 */
+	public Map<Long, Server> getServers(Collection<Long> serverIds) throws Fit2CloudException {
+		return getServers(serverIds, new BatchLookupOptions());
+	}
+
+	/**
+	 * 按ID批量获取虚机信息. ID数量少于listThreshold时按ID并发单查, 否则分页拉取虚机列表后在本地过滤
+	 * 
+	 * @param serverIds
+	 *            虚机ID集合, 重复ID只查询一次
+	 * @param options
+	 *            分块大小, 并发度等参数
+	 * @return 虚机ID到虚机信息的映射, 按ID首次出现的顺序排列; 不存在的虚机不包含在内
+	 * @throws Fit2CloudException
+	 */
+	public Map<Long, Server> getServers(Collection<Long> serverIds, BatchLookupOptions options)
+			throws Fit2CloudException {
+		Set<Long> ids = new LinkedHashSet<Long>();
+		for (Long serverId : serverIds) {
+			if (serverId != null && serverId.longValue() > 0) {
+				ids.add(serverId);
+			}
+		}
+		Map<Long, Server> found = new HashMap<Long, Server>();
+		if (ids.size() >= options.getListThreshold()) {
+			int pageSize = options.getListPageSize();
+			for (int pageNum = 1;; pageNum++) {
+				List<Server> page = getServers(null, null, null, null, pageSize, pageNum, true);
+				for (Server server : page) {
+					if (ids.contains(server.getId())) {
+						found.put(server.getId(), server);
+					}
+				}
+				if (page.size() < pageSize || found.size() == ids.size()) {
+					break;
+				}
+			}
+		} else if (!ids.isEmpty()) {
+			found = getServersById(ids, options);
+		}
+		Map<Long, Server> servers = new LinkedHashMap<Long, Server>();
+		for (Long id : ids) {
+			Server server = found.get(id);
+			if (server != null) {
+				servers.put(id, server);
+			}
+		}
+		return servers;
+	}
+
+	private Map<Long, Server> getServersById(Set<Long> ids, BatchLookupOptions options) throws Fit2CloudException {
+		List<List<Long>> chunks = new ArrayList<List<Long>>();
+		List<Long> chunk = new ArrayList<Long>(options.getChunkSize());
+		for (Long id : ids) {
+			chunk.add(id);
+			if (chunk.size() == options.getChunkSize()) {
+				chunks.add(chunk);
+				chunk = new ArrayList<Long>(options.getChunkSize());
+			}
+		}
+		if (!chunk.isEmpty()) {
+			chunks.add(chunk);
+		}
+		final Map<Long, Server> found = new ConcurrentHashMap<Long, Server>();
+		awaitAll(fanOut(chunks, options.getParallelism(), false, new ConcurrentTask<List<Long>>() {
+			public void run(List<Long> chunk) throws Exception {
+				for (Long id : chunk) {
+					Server server = findServer(id);
+					if (server != null) {
+						found.put(id, server);
+					}
+				}
+			}
+		}));
+		return found;
+	}
+
+	/**
+	 * @return 虚机信息, 虚机不存在(404)时返回null
+	 */
+	private Server findServer(Long id) throws Fit2CloudException {
+		try {
+			return getServer(id);
+		} catch (Fit2CloudResponseException e) {
+			if (e.getStatusCode() != 404) {
+				throw e;
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * {@link #fanOut}中对单个元素的处理
+	 */
+	interface ConcurrentTask<T> {
+		void run(T item) throws Exception;
+	}
+
+	/**
+	 * 启动最多parallelism个任务, 共同从items中依次取出元素交给task处理. 任一元素失败后其他任务不再取新元素,
+	 * 用{@link #awaitAll(List)}等待结束并取得第一个失败的异常
+	 *
+	 * @param skipNotFound
+	 *            为true时task抛出的404视为该元素已不存在, 跳过后继续
+	 * @return 各任务的Future, 元素为空时也至少启动一个任务
+	 */
+	<T> List<Future<Void>> fanOut(Collection<? extends T> items, int parallelism, final boolean skipNotFound,
+			final ConcurrentTask<? super T> task) {
+		final Queue<T> pending = new ConcurrentLinkedQueue<T>(items);
+		final AtomicBoolean failed = new AtomicBoolean();
+		int workers = Math.max(1, Math.min(parallelism, pending.size()));
+		List<Future<Void>> futures = new ArrayList<Future<Void>>(workers);
+		for (int i = 0; i < workers; i++) {
+			futures.add(getExecutor().submit(new Callable<Void>() {
+				public Void call() throws Exception {
+					T item;
+					while (!failed.get() && (item = pending.poll()) != null) {
+						try {
+							task.run(item);
+						} catch (Fit2CloudResponseException e) {
+							if (!skipNotFound || e.getStatusCode() != 404) {
+								failed.set(true);
+								throw e;
+							}
+						} catch (Exception e) {
+							failed.set(true);
+							throw e;
+						} catch (Error e) {
+							failed.set(true);
+							throw e;
+						}
+					}
+					return null;
+				}
+			}));
+		}
+		return futures;
+	}
+
+	/**
+	 * 等待所有并发任务结束, 抛出第一个失败任务的异常
+	 */
+	static void awaitAll(List<? extends Future<?>> futures) throws Fit2CloudException {
+		Throwable failure = null;
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				}
+			} catch (InterruptedException e) {
+				for (Future<?> f : futures) {
+					f.cancel(true);
+				}
+				Thread.currentThread().interrupt();
+				throw new Fit2CloudException("interrupted while waiting for concurrent tasks", e);
+			}
+		}
+		if (failure instanceof Fit2CloudException) {
+			throw (Fit2CloudException) failure;
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new Fit2CloudException(failure);
 		}
 	}
 
@@ -284,23 +666,60 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public long executeScript(long serverId, String scriptContent, String scriptType) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, executeScriptInServerUrl);
+		return executeScript(serverId, getScriptBody(scriptContent), scriptType);
+	}
+
+	/**
+	 * 向大量虚机循环下发同一个大脚本时, 按内容复用最近使用过的编码结果, 避免每台虚机重复编码
+	 */
+	ScriptBody getScriptBody(String scriptContent) {
+		if (scriptContent == null || scriptContent.length() < SCRIPT_BODY_CACHE_MIN_LENGTH) {
+			return new ScriptBody(scriptContent);
+		}
+		return scriptBodies.get(scriptContent);
+	}
+
+	/**
+	 * executeScript按内容缓存大脚本(16K字符以上)的编码结果, 缓存中保留脚本内容和编码结果
+	 *
+	 * @param maxBytes
+	 *            缓存的最大占用字节数, 默认16MB, 0表示不缓存并清空已有的缓存
+	 */
+	public void setScriptBodyCacheBytes(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("maxBytes must be >= 0");
+		}
+		scriptBodies.setMaxBytes(maxBytes);
+	}
+
+	/**
+	 * 清空脚本编码缓存, 释放其中保留的脚本内容
+	 */
+	public void clearScriptBodyCache() {
+		scriptBodies.clear();
+	}
+
+	/**
+	 * 在指定虚机上执行预先编码的脚本, 同一个ScriptBody可以在多台虚机间复用而不必重复编码
+	 * 
+	 * @param serverId
+	 *            虚机ID
+	 * @param script
+	 *            预编码的脚本内容
+	 * @param scriptType
+	 *            脚本类型,(可选)
+	 * @return 返回执行脚本事件ID, 可根据此ID获取返回的所有执行日志
+	 * @throws Fit2CloudException
+	 */
+	public long executeScript(long serverId, ScriptBody script, String scriptType) throws Fit2CloudException {
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, executeScriptInServerUrl);
 		request.addBodyParameter("serverId", String.valueOf(serverId));
-		request.addBodyParameter("scriptContent", scriptContent);
+		request.setScriptBody("scriptContent", script);
 		if(scriptType != null && scriptType.trim().length() > 0) {
 			request.addBodyParameter("scriptType", scriptType);
 		}
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return Long.parseLong(responseString);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, Long.class);
 	}
 
 	/**
@@ -312,19 +731,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<Logging> getLoggingsByEventId(long eventId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, getLoggingUrl + eventId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<Logging>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, getLoggingUrl + eventId);
+		return execute(request, ListTypes.of(Logging.class));
 	}
 
 	/**
@@ -336,17 +744,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public Event getEvent(long eventId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/event/" + eventId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Event.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/event/" + eventId);
+		return execute(request, Event.class);
 	}
 
 	/**
@@ -363,18 +762,9 @@ public class Fit2CloudClient {
 	 */
 	public Server launchServer(long clusterId, long clusterRoleId, long launchConfigurationId)
 			throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/launchserver/cluster/" + clusterId
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/launchserver/cluster/" + clusterId
 				+ "/clusterrole/" + clusterRoleId + "?launchConfigurationId=" + launchConfigurationId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Server.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, Server.class);
 	}
 
 	/**
@@ -391,18 +781,9 @@ public class Fit2CloudClient {
 	 */
 	public Server launchServerAsync(long clusterId, long clusterRoleId, long launchConfigurationId)
 			throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/launchserver/async/cluster/" + clusterId
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/launchserver/async/cluster/" + clusterId
 				+ "/clusterrole/" + clusterRoleId + "?launchConfigurationId=" + launchConfigurationId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Server.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, Server.class);
 	}
 
 	/**
@@ -414,17 +795,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public boolean terminateServer(long serverId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/terminateserver/server/" + serverId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return "true".equals(responseString);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/terminateserver/server/" + serverId);
+		String responseString = execute(request);
+		return "true".equals(responseString);
 	}
 
 	/**
@@ -436,17 +809,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public Server startServer(long serverId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/startserver/server/" + serverId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Server.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/startserver/server/" + serverId);
+		return execute(request, Server.class);
 	}
 
 	/**
@@ -458,17 +822,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public boolean stopServer(long serverId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/stopserver/server/" + serverId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return "true".equals(responseString);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/stopserver/server/" + serverId);
+		String responseString = execute(request);
+		return "true".equals(responseString);
 	}
 
 	/**
@@ -480,20 +836,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<ClusterParam> getClusterParams(long clusterId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/cluster/" + clusterId + "/params");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<ClusterParam>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/cluster/" + clusterId + "/params");
+		return execute(request, ListTypes.of(ClusterParam.class));
 	}
 
 	/**
@@ -507,18 +851,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public ClusterParam getClusterParam(long clusterId, String name) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET,
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
 				restApiEndpoint + "/cluster/" + clusterId + "/param?name=" + name);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ClusterParam.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ClusterParam.class);
 	}
 
 	/**
@@ -534,20 +869,13 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public boolean setClusterParam(long clusterId, String name, String value) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/cluster/" + clusterId + "/param");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/cluster/" + clusterId + "/param");
+		request.setIdempotent(true);
 		request.addBodyParameter("name", name);
 		request.addBodyParameter("value", value);
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return "true".equals(responseString);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		String responseString = execute(request);
+		return "true".equals(responseString);
 	}
 
 	/**
@@ -561,18 +889,10 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public boolean deleteClusterParam(long clusterId, String name) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST,
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST,
 				restApiEndpoint + "/cluster/" + clusterId + "/param/delete?name=" + name);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return "true".equals(responseString);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		String responseString = execute(request);
+		return "true".equals(responseString);
 	}
 
 	/**
@@ -586,35 +906,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<Script> getScripts(Integer pageSize, Integer pageNum) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/scripts?" + requestParam);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<Script>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				SCRIPTS_QUERY.build(restApiEndpoint, pageSize, pageNum));
+		return execute(request, ListTypes.of(Script.class));
 	}
 
 	/**
@@ -626,17 +920,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public Script getScript(long scriptId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/script/" + scriptId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Script.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/script/" + scriptId);
+		return execute(request, Script.class);
 	}
 
 	/**
@@ -652,21 +937,12 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public Long addScript(String name, String description, String scriptText) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/script/add");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/script/add");
 		request.addBodyParameter("name", name);
 		request.addBodyParameter("description", description);
-		request.addBodyParameter("scriptText", scriptText);
+		request.setScriptBody("scriptText", new ScriptBody(scriptText));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return Long.parseLong(responseString);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, Long.class);
 	}
 
 	/**
@@ -682,20 +958,12 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public boolean editScript(long scriptId, String description, String scriptText) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/script/" + scriptId + "/update");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/script/" + scriptId + "/update");
 		request.addBodyParameter("description", description);
-		request.addBodyParameter("scriptText", scriptText);
+		request.setScriptBody("scriptText", new ScriptBody(scriptText));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return "true".equals(responseString);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		String responseString = execute(request);
+		return "true".equals(responseString);
 	}
 
 	/**
@@ -707,17 +975,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public boolean deleteScript(long scriptId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/script/" + scriptId + "/delete");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return "true".equals(responseString);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/script/" + scriptId + "/delete");
+		String responseString = execute(request);
+		return "true".equals(responseString);
 	}
 
 	/**
@@ -746,71 +1006,11 @@ public class Fit2CloudClient {
 	 */
 	public List<ViewScriptlog> getLoggings(Long clusterId, Long clusterRoleId, Long serverId, Long scriptId,
 			String status, Integer pageSize, Integer pageNum, String sort, String order) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (clusterId != null && clusterId.intValue() > 0) {
-			requestParamSb.append("clusterId=");
-			requestParamSb.append(clusterId);
-			requestParamSb.append("&");
-		}
-		if (clusterRoleId != null && clusterRoleId.intValue() > 0) {
-			requestParamSb.append("clusterRoleId=");
-			requestParamSb.append(clusterRoleId);
-			requestParamSb.append("&");
-		}
-		if (serverId != null && serverId.intValue() > 0) {
-			requestParamSb.append("serverId=");
-			requestParamSb.append(serverId);
-			requestParamSb.append("&");
-		}
-		if (scriptId != null && scriptId.intValue() > 0) {
-			requestParamSb.append("scriptId=");
-			requestParamSb.append(scriptId);
-			requestParamSb.append("&");
-		}
-		if (status != null && status.trim().length() > 0) {
-			requestParamSb.append("status=");
-			requestParamSb.append(status);
-			requestParamSb.append("&");
-		}
-		if (sort != null && sort.trim().length() > 0) {
-			requestParamSb.append("sort=");
-			requestParamSb.append(sort);
-			requestParamSb.append("&");
-		}
-		if (order != null && order.trim().length() > 0) {
-			requestParamSb.append("order=");
-			requestParamSb.append(order);
-			requestParamSb.append("&");
-		}
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/event/loggings?" + requestParam);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				LOGGINGS_QUERY.build(restApiEndpoint, clusterId, clusterRoleId, serverId, scriptId, status, sort, order,
+				pageSize, pageNum));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<ViewScriptlog>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(ViewScriptlog.class));
 	}
 
 	/**
@@ -833,55 +1033,10 @@ public class Fit2CloudClient {
 	 */
 	public List<Tag> getTags(Long clusterId, Long clusterRoleId, Long serverId, String tagName, Integer pageSize,
 			Integer pageNum) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (clusterId != null && clusterId.intValue() > 0) {
-			requestParamSb.append("clusterId=");
-			requestParamSb.append(clusterId);
-			requestParamSb.append("&");
-		}
-		if (clusterRoleId != null && clusterRoleId.intValue() > 0) {
-			requestParamSb.append("clusterRoleId=");
-			requestParamSb.append(clusterRoleId);
-			requestParamSb.append("&");
-		}
-		if (serverId != null && serverId.intValue() > 0) {
-			requestParamSb.append("serverId=");
-			requestParamSb.append(serverId);
-			requestParamSb.append("&");
-		}
-		if (tagName != null && tagName.trim().length() > 0) {
-			requestParamSb.append("tagName=");
-			requestParamSb.append(tagName.trim());
-			requestParamSb.append("&");
-		}
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/tags?" + requestParam);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				TAGS_QUERY.build(restApiEndpoint, clusterId, clusterRoleId, serverId, tagName, pageSize, pageNum));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<Tag>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(Tag.class));
 	}
 
 	/**
@@ -897,7 +1052,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public Tag saveTag(Long serverId, String tagName, String tagValue) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/tags/save");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/tags/save");
+		request.setIdempotent(true);
 		if (serverId != null && serverId.intValue() > 0) {
 			request.addBodyParameter("serverId", String.valueOf(serverId));
 		}
@@ -908,16 +1064,7 @@ public class Fit2CloudClient {
 			request.addBodyParameter("tagValue", tagValue.trim());
 		}
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Tag.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, Tag.class);
 	}
 
 	/**
@@ -931,23 +1078,15 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public boolean deleteTag(Long serverId, String tagName) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/tags/delete");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/tags/delete");
 		if (serverId != null && serverId.intValue() > 0) {
 			request.addBodyParameter("serverId", String.valueOf(serverId));
 		}
 		if (tagName != null && tagName.trim().length() > 0) {
 			request.addBodyParameter("tagName", tagName.trim());
 		}
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return "true".equals(responseString);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		String responseString = execute(request);
+		return "true".equals(responseString);
 	}
 
 	/**
@@ -970,58 +1109,10 @@ public class Fit2CloudClient {
 	 */
 	public List<Server> getServersByTag(Long clusterId, Long clusterRoleId, String tagName, String tagValue,
 			Integer pageSize, Integer pageNum) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (clusterId != null && clusterId.intValue() > 0) {
-			requestParamSb.append("clusterId=");
-			requestParamSb.append(clusterId);
-			requestParamSb.append("&");
-		}
-		if (clusterRoleId != null && clusterRoleId.intValue() > 0) {
-			requestParamSb.append("clusterRoleId=");
-			requestParamSb.append(clusterRoleId);
-			requestParamSb.append("&");
-		}
-		if (tagName != null && tagName.trim().length() > 0) {
-			requestParamSb.append("tagName=");
-			requestParamSb.append(tagName);
-			requestParamSb.append("&");
-		}
-		if (tagValue != null && tagValue.trim().length() > 0) {
-			requestParamSb.append("tagValue=");
-			try {
-				requestParamSb.append(URLEncoder.encode(tagValue, "UTF-8"));
-			} catch (UnsupportedEncodingException e) {
-				e.printStackTrace();
-			}
-			requestParamSb.append("&");
-		}
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/tags/servers?" + requestParam);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<Server>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				SERVERS_BY_TAG_QUERY.build(restApiEndpoint, clusterId, clusterRoleId, tagName, tagValue, pageSize,
+				pageNum));
+		return execute(request, ListTypes.of(Server.class));
 	}
 
 	/**
@@ -1044,7 +1135,7 @@ public class Fit2CloudClient {
 	 */
 	public ApplicationRevision addApplicationRevision(String name, String description, String applicationName,
 			String repositoryName, String location, String md5) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/deploy/app/revision/add.json");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/deploy/app/revision/add.json");
 		request.addBodyParameter("revName", name);
 		request.addBodyParameter("revDescription", description);
 		request.addBodyParameter("appName", applicationName);
@@ -1056,16 +1147,7 @@ public class Fit2CloudClient {
 			request.addBodyParameter("md5", md5);
 		}
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ApplicationRevision.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, ApplicationRevision.class);
 	}
 
 	/**
@@ -1120,7 +1202,7 @@ public class Fit2CloudClient {
 	public ApplicationDeployment addDeployment(String applicationName, String applicationRevisionName,
 			String clusterName, String clusterRoleName, Long serverId, String deployPolicy, String description,
 			Long contactGroupId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST,
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST,
 				restApiEndpoint + "/deploy/app/revision/deployment/add.json");
 		request.addBodyParameter("appName", applicationName);
 		request.addBodyParameter("revName", applicationRevisionName);
@@ -1137,16 +1219,7 @@ public class Fit2CloudClient {
 			request.addBodyParameter("contactGroupId", String.valueOf(contactGroupId));
 		}
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ApplicationDeployment.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, ApplicationDeployment.class);
 	}
 
 	/**
@@ -1200,7 +1273,7 @@ public class Fit2CloudClient {
 	public ApplicationDeployment addDeployment(Long applicationId, Long applicationRevisionid, String clusterName,
 			String clusterRoleName, Long serverId, String deployPolicy, String description, Long contactGroupId)
 			throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST,
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST,
 				restApiEndpoint + "/deploy/app/revision/deployment/add.json");
 		request.addBodyParameter("applicationId", String.valueOf(applicationId));
 		request.addBodyParameter("applicationRevisionId", String.valueOf(applicationRevisionid));
@@ -1217,16 +1290,7 @@ public class Fit2CloudClient {
 			request.addBodyParameter("contactGroupId", String.valueOf(contactGroupId));
 		}
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ApplicationDeployment.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, ApplicationDeployment.class);
 	}
 
 	/**
@@ -1243,18 +1307,9 @@ public class Fit2CloudClient {
 
 		String url = String.format("%s/deploy/app/revision/deployment/get.json?deploymentId=%s", restApiEndpoint,
 				deploymentId);
-		OAuthRequest request = new OAuthRequest(Verb.GET, url);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, url);
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ApplicationDeployment.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, ApplicationDeployment.class);
 	}
 
 	/**
@@ -1273,45 +1328,9 @@ public class Fit2CloudClient {
 	 */
 	public List<ApplicationDeployment> getDeployments(Long clusterId, Long applicationId, Integer pageSize,
 			Integer pageNum) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (clusterId != null && clusterId.intValue() > 0) {
-			requestParamSb.append("clusterId=");
-			requestParamSb.append(clusterId);
-			requestParamSb.append("&");
-		}
-		if (applicationId != null && applicationId.intValue() > 0) {
-			requestParamSb.append("applicationId=");
-			requestParamSb.append(applicationId);
-			requestParamSb.append("&");
-		}
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/deployments?" + requestParam);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<ApplicationDeployment>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				DEPLOYMENTS_QUERY.build(restApiEndpoint, clusterId, applicationId, pageSize, pageNum));
+		return execute(request, ListTypes.of(ApplicationDeployment.class));
 	}
 
 	/**
@@ -1323,19 +1342,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<ApplicationDeploymentLog> getDeploymentLogs(Long deploymentId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/deploymentlog/" + deploymentId + "/list");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<ApplicationDeploymentLog>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/deploymentlog/" + deploymentId + "/list");
+		return execute(request, ListTypes.of(ApplicationDeploymentLog.class));
 	}
 
 	/**
@@ -1347,20 +1355,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<ApplicationDeploymentEventLog> getDeploymentEventLogs(Long deploymentId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET,
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
 				restApiEndpoint + "/deploymentEventlog/" + deploymentId + "/list");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<ApplicationDeploymentEventLog>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(ApplicationDeploymentEventLog.class));
 	}
 
 	/**
@@ -1372,18 +1369,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public Application getApplication(String applicationName) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET,
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
 				restApiEndpoint + "/deploy/app/search?name=" + applicationName);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Application.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, Application.class);
 	}
 
 	/**
@@ -1395,17 +1383,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public Application getApplication(Long applicationId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/deploy/app/search?id=" + applicationId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Application.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/deploy/app/search?id=" + applicationId);
+		return execute(request, Application.class);
 	}
 
 	/**
@@ -1419,36 +1398,10 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<Application> getApplicationList(Integer pageSize, Integer pageNum) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/deploy/apps?" + requestParam);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				APPLICATIONS_QUERY.build(restApiEndpoint, pageSize, pageNum));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<List<Application>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(Application.class));
 	}
 
 	/**
@@ -1460,18 +1413,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public ApplicationRepo getApplicationRepo(String applicationRepoName) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET,
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
 				restApiEndpoint + "/deploy/repo/search?name=" + applicationRepoName);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ApplicationRepo.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ApplicationRepo.class);
 	}
 
 	/**
@@ -1483,18 +1427,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public ApplicationRepo getApplicationRepo(Long applicationRepoId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET,
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
 				restApiEndpoint + "/deploy/repo/search?id=" + applicationRepoId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ApplicationRepo.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ApplicationRepo.class);
 	}
 
 	/**
@@ -1508,36 +1443,10 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<ApplicationRepo> getApplicationRepoList(Integer pageSize, Integer pageNum) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/deploy/repos?" + requestParam);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				APPLICATION_REPOS_QUERY.build(restApiEndpoint, pageSize, pageNum));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<List<ApplicationRepo>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(ApplicationRepo.class));
 	}
 
 	/**
@@ -1547,19 +1456,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<Metric> getTopMetrics() throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/top/metrics");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<Metric>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/top/metrics");
+		return execute(request, ListTypes.of(Metric.class));
 	}
 
 	/**
@@ -1573,32 +1471,113 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<MetricTop> getTopMetricData(String metricName, Integer limit) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (metricName != null && metricName.trim().length() > 0) {
-			requestParamSb.append("metric=");
-			requestParamSb.append(metricName);
-			requestParamSb.append("&");
-		}
-		if (limit != null && limit.intValue() > 0) {
-			requestParamSb.append("limit=");
-			requestParamSb.append(limit);
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/top/metric/data?" + requestParam);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<MetricTop>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				TOP_METRIC_DATA_QUERY.build(restApiEndpoint, metricName, limit));
+		return execute(request, ListTypes.of(MetricTop.class));
+	}
+
+	/**
+	 * 获取所有监控项的监控排行数据. 先获取监控项列表, 再按{@link #setTopMetricsParallelism(int)}并发获取各监控项的排行;
+	 * 结果缓存一段时间(见{@link #setTopMetricsCacheMillis(long)}), 缓存过期后并发的调用只发出一次查询并共享结果.
+	 * 返回的对象被所有调用方共享, 不应修改
+	 * 
+	 * @param limit
+	 *            每个监控项的排行数量限制,(可选,默认5)
+	 * @return 监控项名称到排行数据的映射, 按getTopMetrics的顺序排列
+	 * @throws Fit2CloudException
+	 *             任何一个监控项查询失败
+	 */
+	public Map<String, List<MetricTop>> getAllTopMetricData(final Integer limit) throws Fit2CloudException {
+		final String key = String.valueOf(limit);
+		CachedTopMetrics cached = topMetricsCache.get(key);
+		if (cached != null && cached.isFresh()) {
+			return cached.value;
+		}
+		return topMetricsFlight.execute(key, new SingleFlight.Loader<Map<String, List<MetricTop>>>() {
+			public Map<String, List<MetricTop>> load() throws Fit2CloudException {
+				// 刚结束的另一次查询可能已更新缓存
+				CachedTopMetrics cached = topMetricsCache.get(key);
+				if (cached != null && cached.isFresh()) {
+					return cached.value;
+				}
+				Map<String, List<MetricTop>> value = fetchAllTopMetricData(limit);
+				long ttl = topMetricsCacheMillis;
+				if (ttl > 0) {
+					topMetricsCache.put(key, new CachedTopMetrics(value, System.currentTimeMillis() + ttl));
+				}
+				return value;
+			}
+		});
+	}
+
+	private Map<String, List<MetricTop>> fetchAllTopMetricData(final Integer limit) throws Fit2CloudException {
+		List<Metric> metrics = getTopMetrics();
+		if (metrics == null) {
+			// 平台返回空响应时视为没有监控项
+			metrics = Collections.emptyList();
+		}
+		Set<String> names = new LinkedHashSet<String>();
+		for (Metric metric : metrics) {
+			if (metric != null && metric.getMetricName() != null) {
+				names.add(metric.getMetricName());
+			}
+		}
+		final Map<String, List<MetricTop>> fetched = new ConcurrentHashMap<String, List<MetricTop>>();
+		awaitAll(fanOut(names, topMetricsParallelism, false, new ConcurrentTask<String>() {
+			public void run(String metricName) throws Exception {
+				List<MetricTop> tops = getTopMetricData(metricName, limit);
+				fetched.put(metricName, Collections.unmodifiableList(tops == null ? new ArrayList<MetricTop>() : tops));
+			}
+		}));
+		Map<String, List<MetricTop>> result = new LinkedHashMap<String, List<MetricTop>>();
+		for (String name : names) {
+			result.put(name, fetched.get(name));
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * @param millis
+	 *            {@link #getAllTopMetricData(Integer)}结果的缓存时间(毫秒), 默认5000,
+	 *            小于等于0时不缓存, 但仍合并并发的调用
+	 */
+	public void setTopMetricsCacheMillis(long millis) {
+		this.topMetricsCacheMillis = millis;
+		if (millis <= 0) {
+			topMetricsCache.clear();
+		}
+	}
+
+	public long getTopMetricsCacheMillis() {
+		return topMetricsCacheMillis;
+	}
+
+	/**
+	 * @param parallelism
+	 *            {@link #getAllTopMetricData(Integer)}同时查询的监控项数, 默认4
+	 */
+	public void setTopMetricsParallelism(int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism must be positive");
+		}
+		this.topMetricsParallelism = parallelism;
+	}
+
+	public int getTopMetricsParallelism() {
+		return topMetricsParallelism;
+	}
+
+	private static class CachedTopMetrics {
+		final Map<String, List<MetricTop>> value;
+		final long expiresAt;
+
+		CachedTopMetrics(Map<String, List<MetricTop>> value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isFresh() {
+			return System.currentTimeMillis() < expiresAt;
 		}
 	}
 
@@ -1623,60 +1602,11 @@ public class Fit2CloudClient {
 	 */
 	public List<ClusterRoleAlertLogging> getAlertLoggings(Long clusterId, Long clusterRoleId, Long serverId,
 			String alertType, String alertStatus, Integer pageSize, Integer pageNum) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (clusterId != null && clusterId.intValue() > 0) {
-			requestParamSb.append("clusterId=");
-			requestParamSb.append(clusterId);
-			requestParamSb.append("&");
-		}
-		if (clusterRoleId != null && clusterRoleId.intValue() > 0) {
-			requestParamSb.append("clusterRoleId=");
-			requestParamSb.append(clusterRoleId);
-			requestParamSb.append("&");
-		}
-		if (serverId != null && serverId.intValue() > 0) {
-			requestParamSb.append("serverId=");
-			requestParamSb.append(serverId);
-			requestParamSb.append("&");
-		}
-		if (alertType != null && alertType.trim().length() > 0) {
-			requestParamSb.append("alertType=");
-			requestParamSb.append(alertType.trim());
-			requestParamSb.append("&");
-		}
-		if (alertStatus != null && alertStatus.trim().length() > 0) {
-			requestParamSb.append("alertStatus=");
-			requestParamSb.append(alertStatus.trim());
-			requestParamSb.append("&");
-		}
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/alerts?" + requestParam);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				ALERTS_QUERY.build(restApiEndpoint, clusterId, clusterRoleId, serverId, alertType, alertStatus,
+				pageSize, pageNum));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<List<ClusterRoleAlertLogging>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(ClusterRoleAlertLogging.class));
 	}
 
 	/**
@@ -1688,17 +1618,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public KeyPassword getServerLoginInfo(long serverId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/server/" + serverId + "/logininfo");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, KeyPassword.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/server/" + serverId + "/logininfo");
+		return execute(request, KeyPassword.class);
 	}
 
 	/**
@@ -1708,19 +1629,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<CloudCredential> getCloudCredentials() throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/cloudcredentials");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<CloudCredential>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/cloudcredentials");
+		return execute(request, ListTypes.of(CloudCredential.class));
 	}
 
 	/**
@@ -1732,29 +1642,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<LaunchConfiguration> getLaunchconfigurations(Long cloudCredentialId) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (cloudCredentialId != null && cloudCredentialId.intValue() > 0) {
-			requestParamSb.append("cloudCredentialId=");
-			requestParamSb.append(cloudCredentialId);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/launchconfigurations?" + requestParam);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<LaunchConfiguration>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				LAUNCH_CONFIGURATIONS_QUERY.build(restApiEndpoint, cloudCredentialId));
+		return execute(request, ListTypes.of(LaunchConfiguration.class));
 	}
 
 	/**
@@ -1775,20 +1665,9 @@ public class Fit2CloudClient {
 	 */
 	public List<ServiceCatalogOrder> getServiceCatalogOrders(String status, String sort, String order, Integer pageSize,
 			Integer pageNum) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/servicecatalog/orders?status=" + status
-				+ "&sort=" + sort + "&order=" + order + "&pageSize=" + pageSize + "&pageNum=" + pageNum);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<ArrayList<ServiceCatalogOrder>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				SERVICE_CATALOG_ORDERS_QUERY.build(restApiEndpoint, status, sort, order, pageSize, pageNum));
+		return execute(request, ListTypes.of(ServiceCatalogOrder.class));
 	}
 
 	/**
@@ -1802,18 +1681,9 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public ServiceCatalogOrder updateServiceCatalogOrder(long orderId, String status) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST,
-				restApiEndpoint + "/servicecatalog/order/" + orderId + "/update?status=" + status);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ServiceCatalogOrder.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST,
+				SERVICE_CATALOG_ORDER_UPDATE_QUERY.build(restApiEndpoint + "/servicecatalog/order/" + orderId, status));
+		return execute(request, ServiceCatalogOrder.class);
 	}
 
 	/**
@@ -1827,36 +1697,10 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<ContactGroup> getContactGroupList(Integer pageSize, Integer pageNum) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/contactgroups?" + requestParam);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				CONTACT_GROUPS_QUERY.build(restApiEndpoint, pageSize, pageNum));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<List<ContactGroup>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(ContactGroup.class));
 	}
 
 	/**
@@ -1868,17 +1712,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public ContactGroup getContactGroup(Long contactGroupId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/contactgroup/" + contactGroupId);
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ContactGroup.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/contactgroup/" + contactGroupId);
+		return execute(request, ContactGroup.class);
 	}
 
 	/**
@@ -1894,20 +1729,9 @@ public class Fit2CloudClient {
 			throw new Fit2CloudException("请检查clusterRoleId的输入！");
 		}
 
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/metrics?clusterRoleId=" + clusterRoleId);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/metrics?clusterRoleId=" + clusterRoleId);
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<List<KeyPair>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(KeyPair.class));
 	}
 
 	/**
@@ -1930,46 +1754,10 @@ public class Fit2CloudClient {
 			throw new Fit2CloudException("请检查serverId的输入！");
 		}
 
-		StringBuffer requestParamSb = new StringBuffer();
-		requestParamSb.append("serverId=");
-		requestParamSb.append(serverId);
-		requestParamSb.append("&");
-
-		if (metricName != null && metricName.trim().length() > 0) {
-			requestParamSb.append("metricName=");
-			requestParamSb.append(metricName);
-			requestParamSb.append("&");
-		}
-
-		if (startTime != null && startTime.intValue() > 0) {
-			requestParamSb.append("startTime=");
-			requestParamSb.append(startTime);
-			requestParamSb.append("&");
-		}
-		if (endTime != null && endTime.intValue() > 0) {
-			requestParamSb.append("endTime=");
-			requestParamSb.append(endTime);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/server/metrics?" + requestParam);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				SERVER_METRICS_QUERY.build(restApiEndpoint, serverId, metricName, startTime, endTime));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<List<ServerMetric>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(ServerMetric.class));
 	}
 
 	/**
@@ -1983,36 +1771,10 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public List<PortMonitor> getPortMonitors(Integer pageSize, Integer pageNum) throws Fit2CloudException {
-		StringBuffer requestParamSb = new StringBuffer();
-		if (pageSize != null && pageSize.intValue() > 0) {
-			requestParamSb.append("pageSize=");
-			requestParamSb.append(pageSize);
-			requestParamSb.append("&");
-		}
-		if (pageNum != null && pageNum.intValue() > 0) {
-			requestParamSb.append("pageNum=");
-			requestParamSb.append(pageNum);
-			requestParamSb.append("&");
-		}
-		String requestParam = requestParamSb.toString();
-		if (requestParam != null && requestParam.endsWith("&")) {
-			requestParam = requestParam.substring(0, requestParam.length() - 1);
-		}
-
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/monitor/ports?" + requestParam);
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
+				PORT_MONITORS_QUERY.build(restApiEndpoint, pageSize, pageNum));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			Type listType = new TypeToken<List<PortMonitor>>() {
-			}.getType();
-			return new GsonBuilder().create().fromJson(responseString, listType);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, ListTypes.of(PortMonitor.class));
 	}
 
 	/**
@@ -2026,19 +1788,10 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public PortMonitor getPortMonitor(long portMonitorId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET,
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET,
 				restApiEndpoint + "/monitor/port?portMonitorId=" + portMonitorId);
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, PortMonitor.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		return execute(request, PortMonitor.class);
 	}
 
 	/**
@@ -2050,18 +1803,10 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public String getServerSSHUrl(long serverId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/server/" + serverId + "/openssh");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/server/" + serverId + "/openssh");
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return responseString;
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		String responseString = execute(request);
+		return responseString;
 	}
 
 	/**
@@ -2071,17 +1816,8 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public GroupEnv getGroupEnv() throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.GET, restApiEndpoint + "/group/info");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, GroupEnv.class);
-		} else {
-			throw new Fit2CloudException(responseString);
-		}
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.GET, restApiEndpoint + "/group/info");
+		return execute(request, GroupEnv.class);
 	}
 
 	/**
@@ -2106,7 +1842,7 @@ public class Fit2CloudClient {
 	 */
 	public Server registerServer(String sfServerId, Long cloudServerId, boolean installAgent, String user,
 			String password, String key, Long port) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/sfserver/register");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/sfserver/register");
 		request.addBodyParameter("sfServerId", sfServerId);
 		request.addBodyParameter("cloudServerId", String.valueOf(cloudServerId));
 		request.addBodyParameter("installAgent", String.valueOf(installAgent));
@@ -2124,16 +1860,7 @@ public class Fit2CloudClient {
 		}
 		request.addBodyParameter("port", String.valueOf(port));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Server.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, Server.class);
 	}
 
 	/**
@@ -2156,7 +1883,9 @@ public class Fit2CloudClient {
 	 */
 	public Server registerServer(Server server, boolean installAgent, String user,
 								 String password, String key, Long port) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/server/import");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/server/import");
+		// 延迟解码得到的Server需先还原customData, Gson序列化直接读取字段
+		server.getCustomData();
 		request.addBodyParameter("server", new Gson().toJson(server));
 		request.addBodyParameter("installAgent", String.valueOf(installAgent));
 		if (user != null && user.trim().length() > 0) {
@@ -2173,21 +1902,12 @@ public class Fit2CloudClient {
 		}
 		request.addBodyParameter("port", String.valueOf(port));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Server.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, Server.class);
 	}
 	
 	public CmdbVm registerCmdbServer(String sfServerId, Long cmdbServerId, boolean installAgent, String user,
 			String password, String key, Long port) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/cmdbserver/register");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/cmdbserver/register");
 		request.addBodyParameter("sfServerId", sfServerId);
 		request.addBodyParameter("cmdbServerId", String.valueOf(cmdbServerId));
 		request.addBodyParameter("installAgent", String.valueOf(installAgent));
@@ -2205,32 +1925,14 @@ public class Fit2CloudClient {
 		}
 		request.addBodyParameter("port", String.valueOf(port));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, CmdbVm.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, CmdbVm.class);
 	}
 
 	public CmdbVm registerCmdbServer(Long cmdbServerId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/cmdbserver/register");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/cmdbserver/register");
 		request.addBodyParameter("cmdbServerId", String.valueOf(cmdbServerId));
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, CmdbVm.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, CmdbVm.class);
 	}
 	
 	/**
@@ -2245,7 +1947,7 @@ public class Fit2CloudClient {
 	 */
 	public Cluster addCluster(String name, String description, String envType,
 			Long projectId) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/cluster/add");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/cluster/add");
 		request.addBodyParameter("name", name);
 		if (description != null) {
 			request.addBodyParameter("description", description);
@@ -2257,16 +1959,7 @@ public class Fit2CloudClient {
 			request.addBodyParameter("projectId", String.valueOf(projectId));
 		}
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, Cluster.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, Cluster.class);
 	}
 	
 	/**
@@ -2279,7 +1972,7 @@ public class Fit2CloudClient {
 	 * @throws Fit2CloudException
 	 */
 	public ClusterRole addClusterRole(Long clusterId, String name, String description) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/clusterrole/add");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/clusterrole/add");
 		request.addBodyParameter("name", name);
 		if (description != null) {
 			request.addBodyParameter("description", description);
@@ -2288,26 +1981,15 @@ public class Fit2CloudClient {
 			request.addBodyParameter("clusterId", String.valueOf(clusterId));
 		}
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
-		int code = response.getCode();
-		String responseString = response.getBody();
-		if (code == 200) {
-			return new GsonBuilder().create().fromJson(responseString, ClusterRole.class);
-		} else {
-			throw new Fit2CloudException(response.getBody());
-		}
+		return execute(request, ClusterRole.class);
 	}
 
 	public boolean updateCluster(Long clusterId, String clusterName) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/cmdbserver/updateCluster");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/cmdbserver/updateCluster");
 		request.addBodyParameter("clusterId", String.valueOf(clusterId));
 		request.addBodyParameter("clusterName", clusterName);
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
+		Response response = send(request);
 		int code = response.getCode();
 		if (code == 200) {
 			return true;
@@ -2317,13 +1999,11 @@ public class Fit2CloudClient {
 	}
 
 	public boolean updateClusterRole(Long clusterRoleId, String clusterRoleName) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/cmdbserver/updateClusterRole");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/cmdbserver/updateClusterRole");
 		request.addBodyParameter("clusterRoleId", String.valueOf(clusterRoleId));
 		request.addBodyParameter("clusterRoleName", clusterRoleName);
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
+		Response response = send(request);
 		int code = response.getCode();
 		if (code == 200) {
 			return true;
@@ -2334,7 +2014,7 @@ public class Fit2CloudClient {
 
 	public boolean changeClusterAndRole(Long cmdbServerId, String clusterName, String clusterRoleName, String sshIp,
 			Long sshPort, String sshUser, String sshPwd, String osType) throws Fit2CloudException {
-		OAuthRequest request = new OAuthRequest(Verb.POST, restApiEndpoint + "/cmdbserver/changeClusterAndRole");
+		Fit2CloudRequest request = new Fit2CloudRequest(Verb.POST, restApiEndpoint + "/cmdbserver/changeClusterAndRole");
 		request.addBodyParameter("cmdbServerId", String.valueOf(cmdbServerId));
 		request.addBodyParameter("clusterName", clusterName);
 		request.addBodyParameter("clusterRoleName", clusterRoleName);
@@ -2344,9 +2024,7 @@ public class Fit2CloudClient {
 		request.addBodyParameter("sshPwd", sshPwd);
 		request.addBodyParameter("osType", osType);
 		request.setCharset("UTF-8");
-		Token accessToken = new Token("", "");
-		service.signRequest(accessToken, request);
-		Response response = request.send();
+		Response response = send(request);
 		int code = response.getCode();
 		System.out.println(code);
 		if (code == 200) {
@@ -2356,4 +2034,542 @@ public class Fit2CloudClient {
 		}
 	}
 
+	/**
+	 * 发送请求并返回状态码为200时的响应内容
+	 */
+	String execute(Fit2CloudRequest request) throws Fit2CloudException {
+		Response response = send(request);
+		int code = response.getCode();
+		String responseString = response.getBody();
+		if (code == 200) {
+			return responseString;
+		} else {
+			throw describe(new Fit2CloudResponseException(responseString), request, code);
+		}
+	}
+
+	/**
+	 * 发送请求并将状态码为200时的响应内容解析为指定类型
+	 */
+	<T> T execute(Fit2CloudRequest request, Class<T> type) throws Fit2CloudException {
+		return this.<T> execute(request, (Type) type);
+	}
+
+	/**
+	 * 发送请求并将状态码为200时的响应内容解析为指定类型
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T execute(final Fit2CloudRequest request, final Type type) throws Fit2CloudException {
+		SingleFlight<Object> flight = singleFlight;
+		if (flight == null || request.getVerb() != Verb.GET) {
+			return this.<T> executeAndDecode(request, type);
+		}
+		return (T) flight.execute(request.getUrl() + "\n" + type, new SingleFlight.Loader<Object>() {
+			public Object load() throws Fit2CloudException {
+				return executeAndDecode(request, type);
+			}
+		});
+	}
+
+	private <T> T executeAndDecode(Fit2CloudRequest request, Type type) throws Fit2CloudException {
+		String responseString = execute(request);
+		try {
+			Map<String, Field> lazyFields = lazyTextFields ? LazyTextFields.getFields(type) : null;
+			T result;
+			if (lazyFields != null) {
+				result = LazyTextFields.<T> decode(GSON, responseString, type, lazyFields);
+			} else if (streamingDecoding && ModelAdapters.supports(type)) {
+				result = ModelAdapters.<T> decode(responseString, type);
+			} else {
+				result = GSON.<T> fromJson(responseString, type);
+			}
+			deduplicate(result);
+			return result;
+		} catch (JsonParseException e) {
+			throw describe(new Fit2CloudDecodeException("failed to decode response as " + type + ": "
+					+ e.getMessage(), responseString, e), request, 200);
+		}
+	}
+
+	/**
+	 * 发送请求并将状态码为200时的响应内容按字段投影解析为列表
+	 */
+	@SuppressWarnings("unchecked")
+	<T> List<T> execute(final Fit2CloudRequest request, final Projection<T> projection) throws Fit2CloudException {
+		SingleFlight<Object> flight = singleFlight;
+		if (flight == null || request.getVerb() != Verb.GET) {
+			return executeAndDecode(request, projection);
+		}
+		return (List<T>) flight.execute(request.getUrl() + "\n" + projection, new SingleFlight.Loader<Object>() {
+			public Object load() throws Fit2CloudException {
+				return executeAndDecode(request, projection);
+			}
+		});
+	}
+
+	private <T> List<T> executeAndDecode(Fit2CloudRequest request, Projection<T> projection)
+			throws Fit2CloudException {
+		String responseString = execute(request);
+		try {
+			List<T> result = projection.decodeList(responseString);
+			deduplicate(result);
+			return result;
+		} catch (JsonParseException e) {
+			throw describe(new Fit2CloudDecodeException("failed to decode response as " + projection + ": "
+					+ e.getMessage(), responseString, e), request, 200);
+		}
+	}
+
+	private void deduplicate(Object result) {
+		StringDeduplicator deduplicator = stringDeduplicator;
+		if (deduplicator != null) {
+			deduplicator.apply(result);
+		}
+	}
+
+	/**
+	 * 签名并发送请求, 按重试策略和重试预算对临时性失败进行重试, 返回最后一次的响应
+	 */
+	Response send(Fit2CloudRequest request) throws Fit2CloudException {
+		RetryPolicy policy = retryPolicy;
+		RetryBudget budget = retryBudget;
+		budget.onRequest();
+		request.start();
+		List<Fit2CloudEndpoint> tried = new ArrayList<Fit2CloudEndpoint>(endpoints.size());
+		for (int attempt = 1;; attempt++) {
+			long delay;
+			try {
+				Response response = sendAttempt(request, tried);
+				if (!request.isIdempotent() || !policy.isRetryableStatus(response.getCode())
+						|| attempt >= policy.getMaxAttempts()) {
+					return response;
+				}
+				long retryAfter = getRetryAfterMillis(response);
+				if (retryAfter > policy.getMaxRetryAfterMillis() || !budget.tryAcquireRetry()) {
+					return response;
+				}
+				delay = tried.size() < endpoints.size() ? 0 : Math.max(retryAfter,
+						policy.getBackoffMillis(attempt, random));
+				if (!sleep(delay)) {
+					return response;
+				}
+			} catch (CircuitBreakerOpenException e) {
+				throw describe(e, request, -1);
+			} catch (OAuthConnectionException e) {
+				if (isInterrupted(e) || !isRetryableFailure(request, e) || attempt >= policy.getMaxAttempts()
+						|| !budget.tryAcquireRetry()) {
+					throw describe(toFit2CloudException(e), request, -1);
+				}
+				delay = tried.size() < endpoints.size() ? 0 : policy.getBackoffMillis(attempt, random);
+				if (!sleep(delay)) {
+					throw describe(toFit2CloudException(e), request, -1);
+				}
+			}
+			request.onRetry();
+		}
+	}
+
+	private Fit2CloudException toFit2CloudException(OAuthConnectionException e) {
+		Throwable cause = e.getCause() == null ? e : e.getCause();
+		if (cause instanceof SocketTimeoutException) {
+			return new Fit2CloudTimeoutException(cause.getMessage(), cause);
+		}
+		return new Fit2CloudConnectionException(cause.getMessage(), cause);
+	}
+
+	private <E extends Fit2CloudException> E describe(E e, Fit2CloudRequest request, int statusCode) {
+		String url = request.getUrl();
+		int query = url.indexOf('?');
+		e.setRequestInfo(query < 0 ? url : url.substring(0, query), statusCode, request.getElapsedMillis(),
+				request.getRetryCount());
+		return e;
+	}
+
+	/**
+	 * 发送一次请求; 对启用了对冲策略的GET请求, 首次请求超过延迟分位数仍未返回时再发出一次, 取先成功返回的结果
+	 */
+	private Response sendAttempt(final Fit2CloudRequest request, List<Fit2CloudEndpoint> tried)
+			throws CircuitBreakerOpenException {
+		HedgingPolicy policy = hedgingPolicy;
+		final String group = getEndpointGroup(request.getUrl());
+		if (policy == null || request.getVerb() != Verb.GET || !policy.appliesTo(group)) {
+			return sendOnce(request, tried);
+		}
+		final LatencyHistogram histogram = getOrCreateLatencyHistogram(group);
+		long hedgeDelay = policy.getHedgeDelayMillis(histogram);
+		policy.getBudget().onRequest();
+		if (hedgeDelay < 0) {
+			return sendTimed(request, tried, histogram);
+		}
+
+		CompletionService<Response> completion = new ExecutorCompletionService<Response>(getExecutor());
+		final List<Fit2CloudEndpoint> primaryTried = Collections
+				.synchronizedList(new ArrayList<Fit2CloudEndpoint>(tried));
+		List<Fit2CloudEndpoint> hedgeTried = null;
+		final AtomicReference<Object> primarySlot = new AtomicReference<Object>();
+		final AtomicReference<Object> hedgeSlot = new AtomicReference<Object>();
+		Future<Response> primary = completion.submit(new Callable<Response>() {
+			public Response call() throws Exception {
+				return handOff(sendTimed(request, primaryTried, histogram), primarySlot);
+			}
+		});
+		Future<Response> hedge = null;
+		Future<Response> done = null;
+		try {
+			done = completion.poll(hedgeDelay, TimeUnit.MILLISECONDS);
+			if (done == null && policy.getBudget().tryAcquireRetry()) {
+				synchronized (primaryTried) {
+					hedgeTried = Collections.synchronizedList(new ArrayList<Fit2CloudEndpoint>(primaryTried));
+				}
+				final List<Fit2CloudEndpoint> attemptTried = hedgeTried;
+				hedge = completion.submit(new Callable<Response>() {
+					public Response call() throws Exception {
+						return handOff(sendTimed(request, attemptTried, histogram), hedgeSlot);
+					}
+				});
+				policy.onHedge();
+			}
+			if (done == null) {
+				done = completion.take();
+			}
+			if (hedge != null && !isSuccessful(done)) {
+				done = completion.take();
+			}
+			if (done == hedge) {
+				policy.onHedgeWin();
+			}
+			return getResult(done);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OAuthConnectionException(new InterruptedIOException("interrupted while waiting for response"));
+		} finally {
+			// 阻塞中的HttpURLConnection不响应中断, 只取消尚未开始的请求; 未被采用的响应由handOff关闭
+			if (done != primary) {
+				primary.cancel(false);
+				abandon(primarySlot);
+			}
+			if (hedge != null && done != hedge) {
+				hedge.cancel(false);
+				abandon(hedgeSlot);
+			}
+			mergeTried(tried, primaryTried);
+			if (hedgeTried != null) {
+				mergeTried(tried, hedgeTried);
+			}
+		}
+	}
+
+	private static final Object ABANDONED = new Object();
+
+	/**
+	 * 请求完成时把响应放入slot; 调用方已放弃这次请求时关闭响应, 使连接可以回到keep-alive连接池
+	 */
+	private static Response handOff(Response response, AtomicReference<Object> slot) {
+		if (!slot.compareAndSet(null, response)) {
+			discard(response);
+		}
+		return response;
+	}
+
+	/**
+	 * 放弃一次请求: 已完成时立即关闭响应, 否则由handOff在完成时关闭
+	 */
+	private static void abandon(AtomicReference<Object> slot) {
+		Object response = slot.getAndSet(ABANDONED);
+		if (response instanceof Response) {
+			discard((Response) response);
+		}
+	}
+
+	/**
+	 * 读完并关闭不再需要的响应体, 响应体较大时直接关闭连接
+	 */
+	private static void discard(Response response) {
+		InputStream in = null;
+		try {
+			in = response.getStream();
+			if (in == null) {
+				return;
+			}
+			byte[] buffer = new byte[8192];
+			long remaining = 64 * 1024;
+			int n;
+			while (remaining > 0 && (n = in.read(buffer)) >= 0) {
+				remaining -= n;
+			}
+		} catch (IOException e) {
+			// 只是释放连接
+		} catch (RuntimeException e) {
+			// scribe在取得响应流失败时抛出OAuthException
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+					// 忽略
+				}
+			}
+		}
+	}
+
+	/**
+	 * 发送一次请求并在成功时记录延迟
+	 */
+	private Response sendTimed(Fit2CloudRequest request, List<Fit2CloudEndpoint> tried, LatencyHistogram histogram)
+			throws CircuitBreakerOpenException {
+		long start = System.currentTimeMillis();
+		Response response = sendOnce(request, tried);
+		if (!isFailureStatus(response.getCode())) {
+			histogram.record(System.currentTimeMillis() - start);
+		}
+		return response;
+	}
+
+	private boolean isSuccessful(Future<Response> future) {
+		try {
+			return !isFailureStatus(future.get().getCode());
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	private Response getResult(Future<Response> future) throws CircuitBreakerOpenException, InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CircuitBreakerOpenException) {
+				throw (CircuitBreakerOpenException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private void mergeTried(List<Fit2CloudEndpoint> tried, List<Fit2CloudEndpoint> attemptTried) {
+		synchronized (attemptTried) {
+			for (Fit2CloudEndpoint endpoint : attemptTried) {
+				if (!tried.contains(endpoint)) {
+					tried.add(endpoint);
+				}
+			}
+		}
+	}
+
+	private LatencyHistogram getOrCreateLatencyHistogram(String group) {
+		LatencyHistogram histogram = latencyHistograms.get(group);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			LatencyHistogram existing = latencyHistograms.putIfAbsent(group, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * SDK内部并发请求使用的线程池, 首次使用时创建
+	 */
+	synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newCachedThreadPool(new DaemonThreadFactory("fit2cloud-client"));
+		}
+		return executor;
+	}
+
+	private boolean isFailureStatus(int code) {
+		CircuitBreakerPolicy policy = circuitBreakerPolicy == null ? DEFAULT_FAILURE_POLICY : circuitBreakerPolicy;
+		return policy.isFailureStatus(code);
+	}
+
+	/**
+	 * 选择Endpoint, 经过熔断器签名并发送一次请求. 本次调用中已尝试过的Endpoint排在最后, 以便失败时切换
+	 */
+	private Response sendOnce(Fit2CloudRequest request, List<Fit2CloudEndpoint> tried)
+			throws CircuitBreakerOpenException {
+		String group = getEndpointGroup(request.getUrl());
+		CircuitBreakerOpenException denied = null;
+		for (Fit2CloudEndpoint endpoint : selectEndpoints(tried)) {
+			CircuitBreaker breaker = getOrCreateCircuitBreaker(endpoint, group);
+			CircuitBreaker.Permit permit = CircuitBreaker.Permit.ALLOWED;
+			if (breaker != null) {
+				permit = breaker.tryAcquire();
+				if (permit == CircuitBreaker.Permit.DENIED) {
+					if (denied == null) {
+						denied = new CircuitBreakerOpenException(group, breaker.getRemainingOpenMillis());
+					}
+					continue;
+				}
+			}
+			if (!tried.contains(endpoint)) {
+				tried.add(endpoint);
+			}
+			boolean success = false;
+			long start = System.currentTimeMillis();
+			try {
+				String url = request.getUrl();
+				if (endpoint != endpoints.get(0) && url.startsWith(restApiEndpoint)) {
+					url = endpoint.getUrl() + url.substring(restApiEndpoint.length());
+				}
+				OAuthRequest oauthRequest = request.toOAuthRequest(url, connectTimeoutMillis, readTimeoutMillis);
+				Token accessToken = new Token("", "");
+				service.signRequest(accessToken, oauthRequest);
+				Response response = oauthRequest.send();
+				success = !isFailureStatus(response.getCode());
+				return response;
+			} finally {
+				long latency = System.currentTimeMillis() - start;
+				if (success) {
+					endpoint.onSuccess(latency);
+				} else {
+					endpoint.onFailure(latency);
+				}
+				if (breaker != null) {
+					if (success) {
+						breaker.onSuccess(permit);
+					} else {
+						breaker.onFailure(permit);
+					}
+				}
+			}
+		}
+		throw denied;
+	}
+
+	/**
+	 * 健康的Endpoint按得分排序在前, 不健康的随后, 本次调用已尝试过的排在最后
+	 */
+	private List<Fit2CloudEndpoint> selectEndpoints(List<Fit2CloudEndpoint> tried) {
+		if (endpoints.size() == 1) {
+			return endpoints;
+		}
+		List<Fit2CloudEndpoint> healthy = new ArrayList<Fit2CloudEndpoint>(endpoints.size());
+		List<Fit2CloudEndpoint> unhealthy = new ArrayList<Fit2CloudEndpoint>();
+		for (Fit2CloudEndpoint endpoint : endpoints) {
+			if (tried.contains(endpoint)) {
+				continue;
+			}
+			if (endpoint.isHealthy()) {
+				healthy.add(endpoint);
+			} else {
+				unhealthy.add(endpoint);
+			}
+		}
+		Comparator<Fit2CloudEndpoint> byScore = new Comparator<Fit2CloudEndpoint>() {
+			public int compare(Fit2CloudEndpoint o1, Fit2CloudEndpoint o2) {
+				return Double.compare(o1.getScore(), o2.getScore());
+			}
+		};
+		Collections.sort(healthy, byScore);
+		Collections.sort(unhealthy, byScore);
+		healthy.addAll(unhealthy);
+		healthy.addAll(tried);
+		return healthy;
+	}
+
+	private CircuitBreaker getOrCreateCircuitBreaker(Fit2CloudEndpoint endpoint, String group) {
+		CircuitBreakerPolicy policy = circuitBreakerPolicy;
+		if (policy == null) {
+			return null;
+		}
+		ConcurrentMap<String, CircuitBreaker> circuitBreakers = endpoint.getCircuitBreakers();
+		CircuitBreaker breaker = circuitBreakers.get(group);
+		if (breaker == null) {
+			breaker = new CircuitBreaker(endpoint.getUrl(), group, policy, circuitBreakerListeners);
+			CircuitBreaker existing = circuitBreakers.putIfAbsent(group, breaker);
+			if (existing != null) {
+				breaker = existing;
+			}
+		}
+		return breaker;
+	}
+
+	/**
+	 * 取API路径的第一段作为接口分组, 如/server/5为server, /deploy/app/search为deploy
+	 */
+	private String getEndpointGroup(String url) {
+		String path = url.startsWith(restApiEndpoint) ? url.substring(restApiEndpoint.length()) : url;
+		int start = path.startsWith("/") ? 1 : 0;
+		int end = start;
+		while (end < path.length() && path.charAt(end) != '/' && path.charAt(end) != '?') {
+			end++;
+		}
+		return path.substring(start, end);
+	}
+
+	/**
+	 * 连接被拒绝时请求尚未发出, 任何请求都可以重试; 超时或连接中断时服务端可能已处理请求, 只有幂等请求可以重试
+	 */
+	private boolean isRetryableFailure(Fit2CloudRequest request, OAuthConnectionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof ConnectException) {
+			return true;
+		}
+		if (cause instanceof UnknownHostException) {
+			return false;
+		}
+		return request.isIdempotent() && cause instanceof IOException;
+	}
+
+	/**
+	 * 解析Retry-After响应头(秒数或HTTP日期), 无此响应头时返回0
+	 */
+	private long getRetryAfterMillis(Response response) {
+		String retryAfter = null;
+		for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+			if ("Retry-After".equalsIgnoreCase(header.getKey())) {
+				retryAfter = header.getValue();
+				break;
+			}
+		}
+		if (retryAfter == null || retryAfter.trim().length() == 0) {
+			return 0;
+		}
+		retryAfter = retryAfter.trim();
+		try {
+			return Math.max(0, Long.parseLong(retryAfter) * 1000);
+		} catch (NumberFormatException e) {
+			try {
+				SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+				return Math.max(0, format.parse(retryAfter).getTime() - System.currentTimeMillis());
+			} catch (ParseException pe) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * 调用线程被中断, 或请求因中断失败(读超时的SocketTimeoutException也是InterruptedIOException, 不算中断)
+	 */
+	private static boolean isInterrupted(OAuthConnectionException e) {
+		Throwable cause = e.getCause();
+		return Thread.currentThread().isInterrupted()
+				|| (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException));
+	}
+
+	/**
+	 * @return 是否可以继续重试, 调用线程已被中断时返回false
+	 */
+	private boolean sleep(long millis) {
+		if (Thread.currentThread().isInterrupted()) {
+			return false;
+		}
+		if (millis <= 0) {
+			return true;
+		}
+		try {
+			Thread.sleep(millis);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
 }
@@ -0,0 +1,22 @@
+package com.fit2cloud.sdk;
+
+import java.net.ConnectException;
+
+/**
+ * 无法与平台建立连接或连接被中断, 未收到HTTP响应
+ */
+public class Fit2CloudConnectionException extends Fit2CloudException {
+
+	private static final long serialVersionUID = 4187235170264359112L;
+
+	public Fit2CloudConnectionException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	/**
+	 * @return 是否为连接被拒绝, 此时请求一定没有到达平台
+	 */
+	public boolean isConnectionRefused() {
+		return getCause() instanceof ConnectException;
+	}
+}
@@ -0,0 +1,20 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 平台返回200, 但响应内容无法解析为期望的类型
+ */
+public class Fit2CloudDecodeException extends Fit2CloudException {
+
+	private static final long serialVersionUID = -7745826193046411590L;
+
+	private final String responseBody;
+
+	public Fit2CloudDecodeException(String message, String responseBody, Throwable cause) {
+		super(message, cause);
+		this.responseBody = responseBody;
+	}
+
+	public String getResponseBody() {
+		return responseBody;
+	}
+}
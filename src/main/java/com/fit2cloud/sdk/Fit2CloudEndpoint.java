@@ -0,0 +1,104 @@
+package com.fit2cloud.sdk;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 一个API Endpoint及其健康统计. 延迟和错误率均采用指数加权移动平均(EWMA), 用于多Endpoint模式下选择请求的目标
+ */
+public class Fit2CloudEndpoint {
+
+	/**
+	 * EWMA平滑系数, 越大越偏重最近的请求
+	 */
+	static final double ALPHA = 0.3;
+
+	/**
+	 * 错误率超过此值的Endpoint视为不健康, 只在没有健康Endpoint时使用
+	 */
+	static final double UNHEALTHY_ERROR_RATE = 0.5;
+
+	/**
+	 * 不健康的Endpoint在最近一次失败后经过此时间, 重新参与选择以便探测其是否恢复
+	 */
+	static final long UNHEALTHY_RECHECK_MILLIS = 10000;
+
+	private final String url;
+	private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<String, CircuitBreaker>();
+	private double latencyMillis;
+	private double errorRate;
+	private long requests;
+	private long failures;
+	private long lastFailureTime;
+
+	Fit2CloudEndpoint(String url) {
+		this.url = url;
+	}
+
+	synchronized void onSuccess(long latency) {
+		latencyMillis = requests == 0 ? latency : latencyMillis + ALPHA * (latency - latencyMillis);
+		errorRate = errorRate * (1 - ALPHA);
+		requests++;
+	}
+
+	synchronized void onFailure(long latency) {
+		latencyMillis = requests == 0 ? latency : latencyMillis + ALPHA * (latency - latencyMillis);
+		errorRate = errorRate + ALPHA * (1 - errorRate);
+		requests++;
+		failures++;
+		lastFailureTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * @return 是否健康: 错误率未超过阈值, 或距离最近一次失败已超过重新探测间隔
+	 */
+	public synchronized boolean isHealthy() {
+		return errorRate <= UNHEALTHY_ERROR_RATE
+				|| System.currentTimeMillis() - lastFailureTime >= UNHEALTHY_RECHECK_MILLIS;
+	}
+
+	/**
+	 * @return 选择得分, 越小越优先. 以EWMA延迟为基础, 按错误率加权
+	 */
+	synchronized double getScore() {
+		return (latencyMillis + 1) * (1 + 10 * errorRate);
+	}
+
+	ConcurrentMap<String, CircuitBreaker> getCircuitBreakers() {
+		return circuitBreakers;
+	}
+
+	/**
+	 * @param group
+	 *            接口分组, 如servers, cluster, deploy
+	 * @return 此Endpoint上该分组的熔断器, 尚无请求或未启用熔断时返回null
+	 */
+	public CircuitBreaker getCircuitBreaker(String group) {
+		return circuitBreakers.get(group);
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public synchronized double getLatencyMillis() {
+		return latencyMillis;
+	}
+
+	public synchronized double getErrorRate() {
+		return errorRate;
+	}
+
+	public synchronized long getRequests() {
+		return requests;
+	}
+
+	public synchronized long getFailures() {
+		return failures;
+	}
+
+	@Override
+	public String toString() {
+		return url;
+	}
+}
@@ -4,6 +4,11 @@ public class Fit2CloudException extends Exception {
 
 	private static final long serialVersionUID = -649559784594858788L;
 
+	private int statusCode = -1;
+	private String endpoint;
+	private long durationMillis = -1;
+	private int retryCount;
+
 	public Fit2CloudException() {
 		super();
 	}
@@ -20,4 +25,42 @@ public class Fit2CloudException extends Exception {
 		super(cause);
 	}
 
+	/**
+	 * 由client在抛出异常前填充请求信息
+	 */
+	void setRequestInfo(String endpoint, int statusCode, long durationMillis, int retryCount) {
+		this.endpoint = endpoint;
+		this.statusCode = statusCode;
+		this.durationMillis = durationMillis;
+		this.retryCount = retryCount;
+	}
+
+	/**
+	 * @return 平台返回的HTTP状态码, 未收到响应(超时, 连接失败, 熔断等)时为-1
+	 */
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * @return 请求的API地址(不含查询参数), 参数校验失败等未发出请求的情况为null
+	 */
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * @return 从首次发送到失败的总耗时(包含重试和退避等待), 未发出请求时为-1
+	 */
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	/**
+	 * @return 失败前已经进行的重试次数
+	 */
+	public int getRetryCount() {
+		return retryCount;
+	}
+
 }
@@ -0,0 +1,122 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.scribe.model.OAuthRequest;
+import org.scribe.model.Verb;
+
+/**
+ * 一次API调用的请求描述. scribe的OAuthRequest发送一次后不可重用, 重试时需要根据此描述重新构造并签名
+ */
+class Fit2CloudRequest {
+
+	private final Verb verb;
+	private final String url;
+	private final List<String[]> bodyParameters = new ArrayList<String[]>();
+	private String scriptParameterName;
+	private ScriptBody scriptBody;
+	private String charset;
+	private boolean idempotent;
+	private long startTime;
+	private int retryCount;
+
+	Fit2CloudRequest(Verb verb, String url) {
+		this.verb = verb;
+		this.url = url;
+		this.idempotent = verb == Verb.GET;
+	}
+
+	void addBodyParameter(String name, String value) {
+		bodyParameters.add(new String[] { name, value });
+	}
+
+	/**
+	 * 以预编码的脚本内容作为body参数, 每个请求最多一个
+	 */
+	void setScriptBody(String name, ScriptBody scriptBody) {
+		this.scriptParameterName = name;
+		this.scriptBody = scriptBody;
+	}
+
+	void setCharset(String charset) {
+		this.charset = charset;
+	}
+
+	/**
+	 * 标记请求是否幂等. GET默认幂等, 其余默认不幂等; 只有幂等请求会在超时或服务端错误后重试
+	 */
+	void setIdempotent(boolean idempotent) {
+		this.idempotent = idempotent;
+	}
+
+	boolean isIdempotent() {
+		return idempotent;
+	}
+
+	Verb getVerb() {
+		return verb;
+	}
+
+	String getUrl() {
+		return url;
+	}
+
+	void start() {
+		startTime = System.currentTimeMillis();
+		retryCount = 0;
+	}
+
+	void onRetry() {
+		retryCount++;
+	}
+
+	int getRetryCount() {
+		return retryCount;
+	}
+
+	/**
+	 * @return 从首次发送至今的耗时, 尚未发送时为-1
+	 */
+	long getElapsedMillis() {
+		return startTime == 0 ? -1 : System.currentTimeMillis() - startTime;
+	}
+
+	OAuthRequest toOAuthRequest() {
+		return toOAuthRequest(url, 0, 0);
+	}
+
+	/**
+	 * @param targetUrl
+	 *            实际发送的地址, 多Endpoint模式下为替换了Endpoint前缀的url
+	 * @param connectTimeoutMillis
+	 *            连接超时, 0表示不限制
+	 * @param readTimeoutMillis
+	 *            读超时, 0表示不限制
+	 */
+	OAuthRequest toOAuthRequest(String targetUrl, int connectTimeoutMillis, int readTimeoutMillis) {
+		OAuthRequest request;
+		if (scriptBody == null) {
+			request = new OAuthRequest(verb, targetUrl);
+		} else {
+			request = new ScriptOAuthRequest(verb, targetUrl, scriptParameterName, scriptBody);
+		}
+		for (String[] parameter : bodyParameters) {
+			request.addBodyParameter(parameter[0], parameter[1]);
+		}
+		if (charset != null) {
+			request.setCharset(charset);
+		}
+		if (connectTimeoutMillis > 0) {
+			request.setConnectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS);
+		}
+		if (readTimeoutMillis > 0) {
+			request.setReadTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS);
+		}
+		if (scriptBody != null) {
+			((ScriptOAuthRequest) request).preparePayload();
+		}
+		return request;
+	}
+}
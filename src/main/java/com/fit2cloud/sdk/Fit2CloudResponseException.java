@@ -0,0 +1,20 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 平台返回了非200的HTTP状态码. 异常消息为平台返回的响应内容
+ */
+public class Fit2CloudResponseException extends Fit2CloudException {
+
+	private static final long serialVersionUID = 6232475011307815432L;
+
+	public Fit2CloudResponseException(String message) {
+		super(message);
+	}
+
+	/**
+	 * @return 是否为平台侧错误(5xx), 否则为请求参数, 权限等业务错误
+	 */
+	public boolean isServerError() {
+		return getStatusCode() >= 500;
+	}
+}
@@ -0,0 +1,13 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 连接或读取响应超时. 对非幂等请求而言, 平台可能已经处理了该请求
+ */
+public class Fit2CloudTimeoutException extends Fit2CloudException {
+
+	private static final long serialVersionUID = -2619930783441781064L;
+
+	public Fit2CloudTimeoutException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,27 @@
+package com.fit2cloud.sdk;
+
+import com.fit2cloud.sdk.model.Server;
+
+/**
+ * 虚机列表变化回调, 在调用{@link FleetWatcher#poll()}的线程中按变化顺序执行
+ */
+public interface FleetListener {
+
+	/**
+	 * 新出现的虚机, 首次poll时所有虚机都按新增通知
+	 */
+	void onServerAdded(Server server);
+
+	/**
+	 * 不再出现在列表中的虚机
+	 *
+	 * @param server
+	 *            虚机最后一次出现时的信息
+	 */
+	void onServerRemoved(Server server);
+
+	/**
+	 * 跟踪的字段(状态, 名称, IP等)有变化的虚机
+	 */
+	void onServerChanged(FleetWatcher.Change change);
+}
@@ -0,0 +1,317 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.fit2cloud.sdk.model.Server;
+
+/**
+ * 轮询虚机列表并输出变化. 以Server.id为键保存上一次的快照, 每台虚机只对跟踪的字段计算一个64位指纹,
+ * 指纹相同即视为没有变化, 不同时才逐个比较跟踪的字段得到变化的字段. 每次poll返回新增, 删除和变化的虚机, 同时通知监听器.
+ * <p>
+ * 跟踪的字段: vmStatus, heartbeatStatus, alertType, status, name, remoteIP, localIP, clusterId, clusterRoleId, vmType.
+ * 其他字段的变化不产生事件, 但变化事件中的虚机信息总是最新的
+ * <p>
+ * 分页按id升序拉取. 拉取期间有虚机增删时分页会错位: 新增会使id重复或不递增, 删除会使后一页的第一台虚机被跳过且无法从结果中察觉.
+ * 因此虚机需要连续多次poll(默认2次)未出现才按删除通知, 未确认前保留在快照中; 本次分页出现id重复或不递增时不计入未出现次数
+ */
+public class FleetWatcher {
+
+	/** 跟踪的字段名, 下标与{@link #field(Server, int)}一致 */
+	private static final String[] FIELDS = { "vmStatus", "heartbeatStatus", "alertType", "status", "name",
+			"remoteIP", "localIP", "clusterId", "clusterRoleId", "vmType" };
+
+	public enum ChangeType {
+		ADDED, REMOVED, CHANGED
+	}
+
+	/**
+	 * 一台虚机的变化
+	 */
+	public static class Change {
+		private final ChangeType type;
+		private final Server server;
+		private final Server previous;
+		private final Set<String> changedFields;
+
+		Change(ChangeType type, Server server, Server previous, Set<String> changedFields) {
+			this.type = type;
+			this.server = server;
+			this.previous = previous;
+			this.changedFields = changedFields;
+		}
+
+		public ChangeType getType() {
+			return type;
+		}
+
+		/**
+		 * @return 最新的虚机信息, 删除时为最后一次出现时的信息
+		 */
+		public Server getServer() {
+			return server;
+		}
+
+		/**
+		 * @return 变化前的虚机信息, 新增时为null
+		 */
+		public Server getPrevious() {
+			return previous;
+		}
+
+		/**
+		 * @return 有变化的跟踪字段名, 新增和删除时为空
+		 */
+		public Set<String> getChangedFields() {
+			return changedFields;
+		}
+
+		public boolean isChanged(String field) {
+			return changedFields.contains(field);
+		}
+
+		@Override
+		public String toString() {
+			return type + " server " + server.getId() + (changedFields.isEmpty() ? "" : " " + changedFields);
+		}
+	}
+
+	private static class Entry {
+		final Server server;
+		final long fingerprint;
+		/** 连续未出现的poll次数 */
+		final int misses;
+
+		Entry(Server server, long fingerprint, int misses) {
+			this.server = server;
+			this.fingerprint = fingerprint;
+			this.misses = misses;
+		}
+	}
+
+	private final Fit2CloudClient client;
+	private final List<FleetListener> listeners = new CopyOnWriteArrayList<FleetListener>();
+	private Map<Long, Entry> snapshot = new HashMap<Long, Entry>();
+	private Long clusterId;
+	private Long clusterRoleId;
+	private boolean showTerminated;
+	private int pageSize = 1000;
+	private int removalPolls = 2;
+	private long polls;
+
+	public FleetWatcher(Fit2CloudClient client) {
+		this.client = client;
+	}
+
+	public void addListener(FleetListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(FleetListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * @param clusterId
+	 *            只跟踪指定集群的虚机, 默认null即所有虚机
+	 */
+	public void setClusterId(Long clusterId) {
+		this.clusterId = clusterId;
+	}
+
+	/**
+	 * @param clusterRoleId
+	 *            只跟踪指定虚机组的虚机, 默认null
+	 */
+	public void setClusterRoleId(Long clusterRoleId) {
+		this.clusterRoleId = clusterRoleId;
+	}
+
+	/**
+	 * @param showTerminated
+	 *            是否包含已关闭的虚机, 默认false. 为false时虚机关闭后按删除通知
+	 */
+	public void setShowTerminated(boolean showTerminated) {
+		this.showTerminated = showTerminated;
+	}
+
+	/**
+	 * @param pageSize
+	 *            每次请求的分页大小, 默认1000, 逐页拉取直到返回的记录数小于分页大小
+	 */
+	public void setPageSize(int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("pageSize must be positive");
+		}
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * @param removalPolls
+	 *            虚机连续多少次poll未出现才按删除通知, 默认2. 设为1时立即通知, 但分页期间的删除可能使仍存在的虚机被误报为删除
+	 */
+	public void setRemovalPolls(int removalPolls) {
+		if (removalPolls <= 0) {
+			throw new IllegalArgumentException("removalPolls must be positive");
+		}
+		this.removalPolls = removalPolls;
+	}
+
+	/**
+	 * 拉取一次完整的虚机列表, 与上一次的快照比较后通知监听器并返回变化, 顺序为新增和变化(按列表顺序), 然后是删除.
+	 * 拉取失败时抛出异常, 快照保持不变. 监听器抛出的异常被忽略, 不影响其他监听器和返回值
+	 */
+	public synchronized List<Change> poll() throws Fit2CloudException {
+		Map<Long, Entry> current = new LinkedHashMap<Long, Entry>(snapshot.size() * 4 / 3 + 16);
+		long lastId = Long.MIN_VALUE;
+		boolean consistent = true;
+		for (int pageNum = 1;; pageNum++) {
+			List<Server> page = client.getServers(clusterId, clusterRoleId, "id", "asc", pageSize, pageNum,
+					showTerminated);
+			if (page == null) {
+				break;
+			}
+			for (Server server : page) {
+				if (server != null && server.getId() != null) {
+					if (server.getId() <= lastId) {
+						consistent = false;
+					}
+					lastId = Math.max(lastId, server.getId());
+					current.put(server.getId(), new Entry(server, fingerprint(server), 0));
+				}
+			}
+			if (page.size() < pageSize) {
+				break;
+			}
+		}
+
+		List<Change> changes = new ArrayList<Change>();
+		Set<String> none = Collections.emptySet();
+		for (Entry entry : current.values()) {
+			Entry previous = snapshot.get(entry.server.getId());
+			if (previous == null) {
+				changes.add(new Change(ChangeType.ADDED, entry.server, null, none));
+			} else if (previous.fingerprint != entry.fingerprint) {
+				Set<String> changed = diff(previous.server, entry.server);
+				if (!changed.isEmpty()) {
+					changes.add(new Change(ChangeType.CHANGED, entry.server, previous.server, changed));
+				}
+			}
+		}
+		for (Entry previous : snapshot.values()) {
+			if (!current.containsKey(previous.server.getId())) {
+				int misses = consistent ? previous.misses + 1 : previous.misses;
+				if (misses >= removalPolls) {
+					changes.add(new Change(ChangeType.REMOVED, previous.server, previous.server, none));
+				} else {
+					// 可能因分页错位被跳过, 保留到之后的poll再确认
+					current.put(previous.server.getId(), new Entry(previous.server, previous.fingerprint, misses));
+				}
+			}
+		}
+		snapshot = current;
+		polls++;
+
+		for (Change change : changes) {
+			for (FleetListener listener : listeners) {
+				try {
+					fire(listener, change);
+				} catch (RuntimeException e) {
+					// 快照已更新, 监听器异常不能中断其他通知
+				}
+			}
+		}
+		return changes;
+	}
+
+	private static void fire(FleetListener listener, Change change) {
+		switch (change.getType()) {
+		case ADDED:
+			listener.onServerAdded(change.getServer());
+			break;
+		case REMOVED:
+			listener.onServerRemoved(change.getServer());
+			break;
+		default:
+			listener.onServerChanged(change);
+		}
+	}
+
+	/**
+	 * @return 当前快照中的虚机数, 包含尚未确认删除的虚机
+	 */
+	public synchronized int getSize() {
+		return snapshot.size();
+	}
+
+	/**
+	 * @return 成功完成的poll次数
+	 */
+	public synchronized long getPolls() {
+		return polls;
+	}
+
+	private static Set<String> diff(Server previous, Server current) {
+		Set<String> changed = new LinkedHashSet<String>();
+		for (int i = 0; i < FIELDS.length; i++) {
+			Object a = field(previous, i);
+			Object b = field(current, i);
+			if (a == null ? b != null : !a.equals(b)) {
+				changed.add(FIELDS[i]);
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * 跟踪字段的FNV-1a指纹, null与空字符串区分
+	 */
+	private static long fingerprint(Server server) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < FIELDS.length; i++) {
+			Object value = field(server, i);
+			if (value == null) {
+				hash = (hash ^ 0xff) * 0x100000001b3L;
+				continue;
+			}
+			String s = value.toString();
+			for (int j = 0; j < s.length(); j++) {
+				hash = (hash ^ s.charAt(j)) * 0x100000001b3L;
+			}
+			hash = (hash ^ 0xfe) * 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private static Object field(Server server, int index) {
+		switch (index) {
+		case 0:
+			return server.getVmStatus();
+		case 1:
+			return server.getHeartbeatStatus();
+		case 2:
+			return server.getAlertType();
+		case 3:
+			return server.getStatus();
+		case 4:
+			return server.getName();
+		case 5:
+			return server.getRemoteIP();
+		case 6:
+			return server.getLocalIP();
+		case 7:
+			return server.getClusterId();
+		case 8:
+			return server.getClusterRoleId();
+		default:
+			return server.getVmType();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.fit2cloud.sdk;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对冲请求策略, 仅作用于GET请求. 若首次请求耗时超过该接口分组已观测延迟的指定分位数, 则再发出一次相同请求,
+ * 取先返回者的结果. 额外请求量由预算限制, 默认不超过请求量的5%
+ */
+public class HedgingPolicy {
+
+	private double percentile = 0.95;
+	private long minDelayMillis = 10;
+	private int minSamples = 20;
+	private Set<String> groups;
+	private RetryBudget budget = new RetryBudget(0.05, 5);
+	private final AtomicLong hedgedRequests = new AtomicLong();
+	private final AtomicLong hedgeWins = new AtomicLong();
+
+	/**
+	 * @param groups
+	 *            启用对冲的接口分组, 如server, event, alerts
+	 * @return
+	 */
+	public static HedgingPolicy forGroups(String... groups) {
+		HedgingPolicy policy = new HedgingPolicy();
+		policy.setGroups(new HashSet<String>(Arrays.asList(groups)));
+		return policy;
+	}
+
+	boolean appliesTo(String group) {
+		return groups == null || groups.contains(group);
+	}
+
+	/**
+	 * @param histogram
+	 *            该接口分组已观测的延迟
+	 * @return 发出对冲请求前的等待时间, 样本不足时返回-1表示不对冲
+	 */
+	long getHedgeDelayMillis(LatencyHistogram histogram) {
+		if (histogram.getCount() < minSamples) {
+			return -1;
+		}
+		return Math.max(minDelayMillis, histogram.getPercentile(percentile));
+	}
+
+	void onHedge() {
+		hedgedRequests.incrementAndGet();
+	}
+
+	void onHedgeWin() {
+		hedgeWins.incrementAndGet();
+	}
+
+	/**
+	 * @return 已发出的对冲请求数
+	 */
+	public long getHedgedRequests() {
+		return hedgedRequests.get();
+	}
+
+	/**
+	 * @return 对冲请求先于首次请求返回的次数
+	 */
+	public long getHedgeWins() {
+		return hedgeWins.get();
+	}
+
+	public double getPercentile() {
+		return percentile;
+	}
+
+	/**
+	 * @param percentile
+	 *            触发对冲的延迟分位数, 取值(0, 1)
+	 */
+	public void setPercentile(double percentile) {
+		if (percentile <= 0 || percentile >= 1) {
+			throw new IllegalArgumentException("percentile must be in (0, 1)");
+		}
+		this.percentile = percentile;
+	}
+
+	public long getMinDelayMillis() {
+		return minDelayMillis;
+	}
+
+	public void setMinDelayMillis(long minDelayMillis) {
+		this.minDelayMillis = minDelayMillis;
+	}
+
+	public int getMinSamples() {
+		return minSamples;
+	}
+
+	/**
+	 * @param minSamples
+	 *            接口分组至少观测到多少次延迟后才开始对冲
+	 */
+	public void setMinSamples(int minSamples) {
+		this.minSamples = minSamples;
+	}
+
+	public Set<String> getGroups() {
+		return groups;
+	}
+
+	/**
+	 * @param groups
+	 *            启用对冲的接口分组, null表示所有GET请求
+	 */
+	public void setGroups(Set<String> groups) {
+		this.groups = groups;
+	}
+
+	public RetryBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * @param budget
+	 *            对冲请求的预算, 每个可对冲的请求存入令牌, 每次对冲消耗1个令牌
+	 */
+	public void setBudget(RetryBudget budget) {
+		this.budget = budget;
+	}
+}
@@ -0,0 +1,100 @@
+package com.fit2cloud.sdk;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延迟分布直方图. 桶宽按10%递增, 记录开销为常数且无对象分配; 样本数达到窗口大小后所有计数减半,
+ * 使分位数更多反映最近的样本
+ */
+public class LatencyHistogram {
+
+	private static final double GROWTH = 1.1;
+	private static final double LOG_GROWTH = Math.log(GROWTH);
+	private static final int BUCKETS = 200;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong total = new AtomicLong();
+	private final long window;
+
+	public LatencyHistogram() {
+		this(10000);
+	}
+
+	/**
+	 * @param window
+	 *            样本数达到此值后计数减半
+	 */
+	public LatencyHistogram(long window) {
+		this.window = window;
+	}
+
+	/**
+	 * @param value
+	 *            延迟, 单位由调用方决定(毫秒或微秒)
+	 */
+	public void record(long value) {
+		counts.incrementAndGet(bucketOf(value));
+		if (total.incrementAndGet() >= window) {
+			decay();
+		}
+	}
+
+	private synchronized void decay() {
+		if (total.get() < window) {
+			return;
+		}
+		long remaining = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			long halved = counts.get(i) / 2;
+			counts.set(i, halved);
+			remaining += halved;
+		}
+		total.set(remaining);
+	}
+
+	/**
+	 * @param percentile
+	 *            分位数, 取值(0, 1], 如0.95
+	 * @return 该分位数所在桶的上界, 无样本时返回-1
+	 */
+	public long getPercentile(double percentile) {
+		long count = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			count += snapshot[i];
+		}
+		if (count == 0) {
+			return -1;
+		}
+		long rank = (long) Math.ceil(percentile * count);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return upperBoundOf(i);
+			}
+		}
+		return upperBoundOf(BUCKETS - 1);
+	}
+
+	/**
+	 * @return 当前窗口内的样本数
+	 */
+	public long getCount() {
+		return total.get();
+	}
+
+	private static int bucketOf(long value) {
+		if (value <= 1) {
+			return 0;
+		}
+		int bucket = (int) (Math.log(value) / LOG_GROWTH) + 1;
+		return bucket >= BUCKETS ? BUCKETS - 1 : bucket;
+	}
+
+	private static long upperBoundOf(int bucket) {
+		return bucket == 0 ? 1 : (long) Math.ceil(Math.pow(GROWTH, bucket));
+	}
+}
@@ -0,0 +1,220 @@
+package com.fit2cloud.sdk;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fit2cloud.sdk.model.ApplicationDeploymentEventLog;
+import com.fit2cloud.sdk.model.Event;
+import com.fit2cloud.sdk.model.LazyText;
+import com.fit2cloud.sdk.model.Server;
+import com.fit2cloud.sdk.model.ServiceCatalogOrder;
+import com.fit2cloud.sdk.model.ViewScriptlog;
+import com.google.gson.Gson;
+
+/**
+ * 大文本字段的延迟解码. Gson解码前先扫描一遍响应, 把列表中每个对象(或单个对象)上登记过的大文本字段的字符串值替换为null,
+ * 只解码剩余部分; 解码后把原字符串在响应中的区间以{@link LazyText}设置到对象的transient字段lazyXxx上,
+ * 由模型的getter在首次访问时还原.
+ * <p>
+ * LazyText引用的是整个响应字符串, 一页中只要有一条记录的延迟字段未被读取, 整页响应就无法回收.
+ * 需要长期保存少量记录时, 应先读取其延迟字段(或关闭此选项), 只保留所需的内容
+ */
+class LazyTextFields {
+
+	private static final Map<Class<?>, Map<String, Field>> FIELDS = new HashMap<Class<?>, Map<String, Field>>();
+
+	static {
+		register(Event.class, "eventData");
+		register(ViewScriptlog.class, "eventData");
+		register(ApplicationDeploymentEventLog.class, "eventLog");
+		register(ServiceCatalogOrder.class, "orderContent");
+		register(Server.class, "customData");
+	}
+
+	private static void register(Class<?> type, String... names) {
+		Map<String, Field> fields = new HashMap<String, Field>();
+		for (String name : names) {
+			try {
+				Field field = type.getDeclaredField("lazy" + Character.toUpperCase(name.charAt(0))
+						+ name.substring(1));
+				field.setAccessible(true);
+				fields.put(name, field);
+			} catch (NoSuchFieldException e) {
+				throw new IllegalStateException(type.getName() + " has no lazy field for " + name, e);
+			}
+		}
+		FIELDS.put(type, Collections.unmodifiableMap(fields));
+	}
+
+	/**
+	 * @return type(或其List元素类型)登记的延迟字段, 没有时返回null
+	 */
+	static Map<String, Field> getFields(Type type) {
+		if (type instanceof ParameterizedType) {
+			Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+			if (arguments.length != 1 || !(((ParameterizedType) type).getRawType() instanceof Class<?>)
+					|| !List.class.isAssignableFrom((Class<?>) ((ParameterizedType) type).getRawType())) {
+				return null;
+			}
+			type = arguments[0];
+		}
+		return FIELDS.get(type);
+	}
+
+	static <T> T decode(Gson gson, String json, Type type, Map<String, Field> fields) {
+		Scan scan = new Scan(json, fields);
+		scan.run();
+		T result = gson.<T> fromJson(scan.output(), type);
+		if (result instanceof List<?>) {
+			List<?> list = (List<?>) result;
+			for (int i = 0; i < list.size() && i < scan.slices.size(); i++) {
+				apply(list.get(i), scan.slices.get(i));
+			}
+		} else if (result != null && !scan.slices.isEmpty()) {
+			apply(result, scan.slices.get(0));
+		}
+		return result;
+	}
+
+	private static void apply(Object target, Map<Field, LazyText> slices) {
+		if (target == null || slices == null) {
+			return;
+		}
+		for (Map.Entry<Field, LazyText> entry : slices.entrySet()) {
+			try {
+				entry.getKey().set(target, entry.getValue());
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	/**
+	 * 单遍扫描JSON文本, 只识别顶层对象或顶层数组中各对象的直接字段
+	 */
+	private static class Scan {
+		private final String json;
+		private final Map<String, Field> fields;
+		/** 每个顶层元素的延迟字段, 下标与数组元素一致, 没有延迟字段的元素为null */
+		private final List<Map<Field, LazyText>> slices = new ArrayList<Map<Field, LazyText>>();
+		private StringBuilder out;
+		private int copied;
+
+		Scan(String json, Map<String, Field> fields) {
+			this.json = json;
+			this.fields = fields;
+		}
+
+		String output() {
+			if (out == null) {
+				return json;
+			}
+			out.append(json, copied, json.length());
+			return out.toString();
+		}
+
+		void run() {
+			int length = json.length();
+			int depth = 0;
+			int fieldDepth = -1;
+			int element = -1;
+			// 顶层为数组时, 下一个非空白字符是否开始一个新元素. null等非对象元素也要计数, 使下标与解码后的列表一致
+			boolean expectElement = false;
+			for (int i = 0; i < length; i++) {
+				char c = json.charAt(i);
+				if (expectElement && depth == 1 && !Character.isWhitespace(c)) {
+					expectElement = false;
+					if (c != ']') {
+						element++;
+					}
+				}
+				if (c == '{' || c == '[') {
+					depth++;
+					if (fieldDepth < 0) {
+						// 顶层为数组时数组元素的字段在第2层, 顶层为对象时在第1层
+						fieldDepth = c == '[' ? 2 : 1;
+						if (c == '{') {
+							element = 0;
+						} else {
+							expectElement = true;
+						}
+					}
+				} else if (c == '}' || c == ']') {
+					depth--;
+				} else if (c == ',' && depth == 1 && fieldDepth == 2) {
+					expectElement = true;
+				} else if (c == '"') {
+					int end = skipString(i);
+					if (depth == fieldDepth) {
+						int colon = skipWhitespace(end + 1);
+						if (colon < length && json.charAt(colon) == ':') {
+							Field field = findField(i + 1, end);
+							int value = skipWhitespace(colon + 1);
+							if (field != null && value < length && json.charAt(value) == '"') {
+								int valueEnd = skipString(value);
+								slice(element, field, value, valueEnd);
+								end = valueEnd;
+							}
+						}
+					}
+					i = end;
+				}
+			}
+		}
+
+		private Field findField(int start, int end) {
+			for (Map.Entry<String, Field> entry : fields.entrySet()) {
+				String name = entry.getKey();
+				if (name.length() == end - start && json.regionMatches(start, name, 0, name.length())) {
+					return entry.getValue();
+				}
+			}
+			return null;
+		}
+
+		private void slice(int element, Field field, int start, int end) {
+			while (slices.size() <= element) {
+				slices.add(null);
+			}
+			Map<Field, LazyText> map = slices.get(element);
+			if (map == null) {
+				map = new HashMap<Field, LazyText>(4);
+				slices.set(element, map);
+			}
+			map.put(field, new LazyText(json, start + 1, end));
+			if (out == null) {
+				out = new StringBuilder(json.length() / 2);
+			}
+			out.append(json, copied, start).append("null");
+			copied = end + 1;
+		}
+
+		/**
+		 * @return 从start处的引号开始的字符串字面量的结束引号位置
+		 */
+		private int skipString(int start) {
+			for (int i = start + 1; i < json.length(); i++) {
+				char c = json.charAt(i);
+				if (c == '\\') {
+					i++;
+				} else if (c == '"') {
+					return i;
+				}
+			}
+			return json.length() - 1;
+		}
+
+		private int skipWhitespace(int i) {
+			while (i < json.length() && Character.isWhitespace(json.charAt(i))) {
+				i++;
+			}
+			return i;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.fit2cloud.sdk;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 列表返回类型的统一登记处. 每种元素类型只创建一个ArrayList&lt;元素类型&gt;的{@link ParameterizedType},
+ * 代替在每个方法中声明匿名TypeToken子类(每个都是需要单独加载的类, 且每次调用都会新建实例)
+ */
+final class ListTypes {
+
+	private static final ConcurrentMap<Class<?>, Type> TYPES = new ConcurrentHashMap<Class<?>, Type>();
+
+	private ListTypes() {
+	}
+
+	/**
+	 * @return ArrayList&lt;elementType&gt;
+	 */
+	static Type of(Class<?> elementType) {
+		Type type = TYPES.get(elementType);
+		if (type == null) {
+			type = new ListType(elementType);
+			Type existing = TYPES.putIfAbsent(elementType, type);
+			if (existing != null) {
+				type = existing;
+			}
+		}
+		return type;
+	}
+
+	/**
+	 * equals和hashCode与JDK反射得到的ParameterizedType一致, 可以与TypeToken得到的类型互换使用
+	 */
+	private static final class ListType implements ParameterizedType {
+		private final Class<?> elementType;
+
+		ListType(Class<?> elementType) {
+			this.elementType = elementType;
+		}
+
+		public Type[] getActualTypeArguments() {
+			return new Type[] { elementType };
+		}
+
+		public Type getRawType() {
+			return ArrayList.class;
+		}
+
+		public Type getOwnerType() {
+			return null;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof ParameterizedType)) {
+				return false;
+			}
+			ParameterizedType other = (ParameterizedType) o;
+			Type[] arguments = other.getActualTypeArguments();
+			return other.getRawType() == ArrayList.class && other.getOwnerType() == null && arguments.length == 1
+					&& elementType.equals(arguments[0]);
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 + elementType.hashCode()) ^ ArrayList.class.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return ArrayList.class.getName() + "<" + elementType.getName() + ">";
+		}
+	}
+}
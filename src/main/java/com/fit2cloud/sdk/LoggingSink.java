@@ -0,0 +1,22 @@
+package com.fit2cloud.sdk;
+
+import java.util.List;
+
+import com.fit2cloud.sdk.model.ViewScriptlog;
+
+/**
+ * 接收{@link LoggingSync}拉取到的脚本执行日志
+ */
+public interface LoggingSink {
+
+	/**
+	 * 处理一批按(createdTime, id)升序排列的新记录. 正常返回即视为这批记录已提交, 实现通常在这里把cursor与记录一起持久化;
+	 * 抛出异常时同步中止, 游标停留在上一批
+	 *
+	 * @param batch
+	 *            不为空的一批记录, 最多一页
+	 * @param cursor
+	 *            包含这批记录在内的新游标
+	 */
+	void accept(List<ViewScriptlog> batch, LoggingSync.Cursor cursor) throws Exception;
+}
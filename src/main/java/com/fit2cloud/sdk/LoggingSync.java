@@ -0,0 +1,232 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fit2cloud.sdk.model.ViewScriptlog;
+
+/**
+ * 脚本执行日志(getLoggings)的增量同步. 游标记录最后提交的记录的(createdTime, id)及其在升序列表中的位置,
+ * 每次同步按createdTime升序从游标所在的页开始向后翻页, 跳过游标及之前的记录, 每页的新记录作为一批交给{@link LoggingSink},
+ * 因此每次同步的请求数与新增记录数成正比, 而不是与历史总数成正比.
+ * <p>
+ * 早期记录被删除会使游标位置偏后, 此时向前回退到第一条记录不晚于游标的页. createdTime相同的记录依赖平台的次序与id一致.
+ * 游标可以用{@link Cursor#toString()}保存, 用{@link Cursor#parse(String)}恢复
+ */
+public class LoggingSync {
+
+	/**
+	 * 同步游标, 不可变
+	 */
+	public static class Cursor {
+		private final long createdTime;
+		private final long id;
+		private final long position;
+
+		/**
+		 * @param createdTime
+		 *            最后提交的记录的createdTime
+		 * @param id
+		 *            最后提交的记录的id
+		 * @param position
+		 *            包含最后提交的记录在内, 升序列表中到它为止的记录数
+		 */
+		public Cursor(long createdTime, long id, long position) {
+			this.createdTime = createdTime;
+			this.id = id;
+			this.position = position;
+		}
+
+		public long getCreatedTime() {
+			return createdTime;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public long getPosition() {
+			return position;
+		}
+
+		/**
+		 * 解析{@link #toString()}的结果
+		 *
+		 * @throws IllegalArgumentException
+		 *             格式不正确
+		 */
+		public static Cursor parse(String s) {
+			String[] parts = s.trim().split(":");
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("invalid cursor: " + s);
+			}
+			try {
+				return new Cursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("invalid cursor: " + s, e);
+			}
+		}
+
+		/**
+		 * @return createdTime:id:position
+		 */
+		@Override
+		public String toString() {
+			return createdTime + ":" + id + ":" + position;
+		}
+	}
+
+	private final Fit2CloudClient client;
+	private final LoggingSink sink;
+	private Long clusterId;
+	private Long clusterRoleId;
+	private Long serverId;
+	private Long scriptId;
+	private String status;
+	private int pageSize = 500;
+	private String sort = "createdTime";
+	private String order = "asc";
+	private Cursor cursor = new Cursor(0, 0, 0);
+
+	public LoggingSync(Fit2CloudClient client, LoggingSink sink) {
+		this.client = client;
+		this.sink = sink;
+	}
+
+	/**
+	 * @param clusterId
+	 *            只同步指定集群的日志, 默认null
+	 */
+	public void setClusterId(Long clusterId) {
+		this.clusterId = clusterId;
+	}
+
+	/**
+	 * @param clusterRoleId
+	 *            只同步指定虚机组的日志, 默认null
+	 */
+	public void setClusterRoleId(Long clusterRoleId) {
+		this.clusterRoleId = clusterRoleId;
+	}
+
+	/**
+	 * @param serverId
+	 *            只同步指定虚机的日志, 默认null
+	 */
+	public void setServerId(Long serverId) {
+		this.serverId = serverId;
+	}
+
+	/**
+	 * @param scriptId
+	 *            只同步指定脚本的日志, 默认null
+	 */
+	public void setScriptId(Long scriptId) {
+		this.scriptId = scriptId;
+	}
+
+	/**
+	 * @param status
+	 *            只同步指定状态(success | failed | expired)的日志, 默认null. 状态会变化的记录应不加此过滤
+	 */
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	/**
+	 * @param pageSize
+	 *            分页大小, 也是每批记录的最大条数, 默认500
+	 */
+	public void setPageSize(int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("pageSize must be positive");
+		}
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * @param sort
+	 *            按创建时间排序时传给平台的排序字段, 默认createdTime
+	 * @param order
+	 *            升序时传给平台的排序方式, 默认asc
+	 */
+	public void setSort(String sort, String order) {
+		this.sort = sort;
+		this.order = order;
+	}
+
+	public synchronized void setCursor(Cursor cursor) {
+		this.cursor = cursor;
+	}
+
+	/**
+	 * @return 最后提交的游标, 从未同步时为(0, 0, 0)
+	 */
+	public synchronized Cursor getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * 从游标开始同步到当前最新的记录
+	 *
+	 * @return 本次交给sink的记录数
+	 * @throws Fit2CloudException
+	 *             拉取失败, 或sink抛出异常(作为cause), 此前已提交的批次保留在游标中
+	 */
+	public synchronized int sync() throws Fit2CloudException {
+		int pageNum = (int) Math.max(1, cursor.getPosition() / pageSize + 1);
+		List<ViewScriptlog> page = fetch(pageNum);
+		// 早期记录被删除后游标位置偏后: 回退到第一条记录不晚于游标的页
+		while (pageNum > 1 && (page.isEmpty() || compare(page.get(0), cursor) > 0)) {
+			page = fetch(--pageNum);
+		}
+		int delivered = 0;
+		while (true) {
+			List<ViewScriptlog> batch = new ArrayList<ViewScriptlog>();
+			Cursor next = cursor;
+			for (int i = 0; i < page.size(); i++) {
+				ViewScriptlog log = page.get(i);
+				if (compare(log, next) > 0) {
+					batch.add(log);
+					next = new Cursor(time(log.getCreatedTime()), id(log), (long) (pageNum - 1) * pageSize + i + 1);
+				}
+			}
+			if (!batch.isEmpty()) {
+				try {
+					sink.accept(batch, next);
+				} catch (Exception e) {
+					throw new Fit2CloudException("logging sink failed at cursor " + cursor, e);
+				}
+				cursor = next;
+				delivered += batch.size();
+			}
+			if (page.size() < pageSize) {
+				return delivered;
+			}
+			page = fetch(++pageNum);
+		}
+	}
+
+	private List<ViewScriptlog> fetch(int pageNum) throws Fit2CloudException {
+		List<ViewScriptlog> page = client.getLoggings(clusterId, clusterRoleId, serverId, scriptId, status,
+				pageSize, pageNum, sort, order);
+		return page == null ? new ArrayList<ViewScriptlog>() : page;
+	}
+
+	private static int compare(ViewScriptlog log, Cursor cursor) {
+		long t = time(log.getCreatedTime());
+		if (t != cursor.getCreatedTime()) {
+			return t < cursor.getCreatedTime() ? -1 : 1;
+		}
+		long id = id(log);
+		return id == cursor.getId() ? 0 : (id < cursor.getId() ? -1 : 1);
+	}
+
+	private static long time(Long time) {
+		return time == null ? 0 : time;
+	}
+
+	private static long id(ViewScriptlog log) {
+		return log.getId() == null ? 0 : log.getId();
+	}
+}
@@ -0,0 +1,118 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.fit2cloud.sdk.model.MetricTop;
+import com.fit2cloud.sdk.model.Server;
+import com.fit2cloud.sdk.model.ServerMetric;
+
+/**
+ * 在本地计算任意时间范围和监控项的排行. 由{@link ServerSelector}选出虚机后并发调用getServerMetrics,
+ * 取回的样本归并到共享的{@link MetricTopK}后丢弃. 排行多个监控项时每台虚机只查询一次
+ */
+public class MetricRanking {
+
+	private static final Projection<Server> SERVER_FIELDS = new Projection<Server>(Server.class, "id", "name",
+			"clusterId", "clusterName", "clusterRoleId", "clusterRoleName");
+
+	private final Fit2CloudClient client;
+	private ServerSelector selector = new ServerSelector();
+	private int limit = 5;
+	private MetricTopK.Statistic statistic = MetricTopK.Statistic.AVG;
+	private int parallelism = 8;
+
+	public MetricRanking(Fit2CloudClient client) {
+		this.client = client;
+	}
+
+	/**
+	 * @param selector
+	 *            参与排行的虚机, 默认全部未销毁的虚机
+	 */
+	public void setSelector(ServerSelector selector) {
+		this.selector = selector;
+	}
+
+	/**
+	 * @param limit
+	 *            每个监控项的排行数量, 默认5
+	 */
+	public void setLimit(int limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be positive");
+		}
+		this.limit = limit;
+	}
+
+	/**
+	 * @param statistic
+	 *            一台虚机在时间范围内的样本归并为一个值的方式, 默认AVG
+	 */
+	public void setStatistic(MetricTopK.Statistic statistic) {
+		this.statistic = statistic;
+	}
+
+	/**
+	 * @param parallelism
+	 *            同时查询监控数据的虚机数, 默认8
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism must be positive");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * 单个监控项的排行
+	 *
+	 * @see #rank(Collection, Long, Long)
+	 */
+	public List<MetricTop> rank(String metricName, Long startTime, Long endTime) throws Fit2CloudException {
+		return rank(Collections.singletonList(metricName), startTime, endTime).get(metricName);
+	}
+
+	/**
+	 * 计算多个监控项的排行. 已不存在的虚机(404)被跳过, 其他失败使整个排行失败
+	 *
+	 * @param metricNames
+	 *            监控项, null表示虚机上报的全部监控项
+	 * @param startTime
+	 *            查询开始时间点(可选)
+	 * @param endTime
+	 *            查询结束时间点(可选)
+	 * @return 监控项名称到排行的映射, 每个排行按值从大到小排列; metricNames中没有数据的监控项对应空列表
+	 * @throws Fit2CloudException
+	 */
+	public Map<String, List<MetricTop>> rank(final Collection<String> metricNames, final Long startTime,
+			final Long endTime) throws Fit2CloudException {
+		List<Server> servers = selector.select(client, SERVER_FIELDS);
+		// 只有一个监控项时由平台过滤, 否则一次取回虚机的全部监控项
+		final String queryMetric = metricNames != null && metricNames.size() == 1 ? metricNames.iterator().next()
+				: null;
+		final MetricTopK topK = new MetricTopK(limit, statistic, metricNames);
+		Fit2CloudClient.ConcurrentTask<Server> task = new Fit2CloudClient.ConcurrentTask<Server>() {
+			public void run(Server server) throws Exception {
+				List<ServerMetric> metrics = client.getServerMetrics(server.getId(), queryMetric, startTime, endTime);
+				// 归并只遍历一次样本并更新有界堆, 持锁时间远小于请求耗时
+				synchronized (topK) {
+					topK.add(server, metrics);
+				}
+			}
+		};
+		Fit2CloudClient.awaitAll(client.fanOut(servers, parallelism, true, task));
+		Map<String, List<MetricTop>> results = topK.getResults();
+		if (metricNames != null) {
+			for (String metricName : metricNames) {
+				if (!results.containsKey(metricName)) {
+					results.put(metricName, new ArrayList<MetricTop>());
+				}
+			}
+		}
+		return results;
+	}
+}
@@ -0,0 +1,190 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.fit2cloud.sdk.model.MetricTop;
+import com.fit2cloud.sdk.model.Server;
+import com.fit2cloud.sdk.model.ServerMetric;
+
+/**
+ * 在本地按监控数据计算排行. 每次{@link #add(Server, List)}把一台虚机的样本按监控项归并为一个值(平均, 最大, 最小或最后一个),
+ * 再放入该监控项的有界堆; 每个监控项只保留limit台虚机, 堆的值和虚机ID存放在基本类型数组中, 样本不被保留.
+ * 结果与{@link Fit2CloudClient#getTopMetricData(String, Integer)}的格式相同, 可以用于任意时间范围和自定义监控项.
+ * <p>
+ * 非线程安全. 并发时每个线程使用各自的实例, 最后用{@link #addAll(MetricTopK)}合并
+ */
+public class MetricTopK {
+
+	/**
+	 * 一台虚机在时间范围内的多个样本归并为一个值的方式
+	 */
+	public enum Statistic {
+		AVG, MAX, MIN, LAST
+	}
+
+	private final int limit;
+	private final Statistic statistic;
+	private final Set<String> metricNames;
+	private final Map<String, TopKHeap> heaps = new HashMap<String, TopKHeap>();
+	/** 可能在堆中的虚机, 超过上限时按堆中的ID清理 */
+	private final Map<Long, Server> servers = new HashMap<Long, Server>();
+
+	/**
+	 * @param limit
+	 *            每个监控项的排行数量
+	 * @param statistic
+	 *            样本的归并方式
+	 * @param metricNames
+	 *            参与排行的监控项, null表示全部
+	 */
+	public MetricTopK(int limit, Statistic statistic, Collection<String> metricNames) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("limit must be positive");
+		}
+		this.limit = limit;
+		this.statistic = statistic;
+		this.metricNames = metricNames == null ? null : new HashSet<String>(metricNames);
+	}
+
+	/**
+	 * 加入一台虚机的样本. 样本的serverId被忽略, 以server.getId()为准
+	 */
+	public void add(Server server, List<ServerMetric> metrics) {
+		if (server == null || server.getId() == null || metrics == null || metrics.isEmpty()) {
+			return;
+		}
+		// 样本通常按监控项成组出现, 连续同名的样本直接累加
+		Map<String, double[]> values = new LinkedHashMap<String, double[]>();
+		String current = null;
+		double[] acc = null;
+		for (ServerMetric metric : metrics) {
+			String name = metric == null ? null : metric.getMetricName();
+			if (name == null || Double.isNaN(metric.getMetricValue())
+					|| (metricNames != null && !metricNames.contains(name))) {
+				continue;
+			}
+			if (acc == null || !name.equals(current)) {
+				current = name;
+				acc = values.get(name);
+				if (acc == null) {
+					acc = new double[] { 0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+							Double.NEGATIVE_INFINITY, 0 };
+					values.put(name, acc);
+				}
+			}
+			double value = metric.getMetricValue();
+			acc[0] += value;
+			acc[1]++;
+			acc[2] = Math.min(acc[2], value);
+			acc[3] = Math.max(acc[3], value);
+			long time = metric.getHeartbeatTimestamp() == null ? 0 : metric.getHeartbeatTimestamp();
+			if (time >= acc[4]) {
+				acc[4] = time;
+				acc[5] = value;
+			}
+		}
+		boolean kept = false;
+		for (Map.Entry<String, double[]> entry : values.entrySet()) {
+			kept |= heap(entry.getKey()).offer(reduce(entry.getValue()), server.getId());
+		}
+		if (kept) {
+			servers.put(server.getId(), server);
+			if (servers.size() > 2 * limit * heaps.size() + 64) {
+				compact();
+			}
+		}
+	}
+
+	/**
+	 * 合并另一个实例的排行, 两者的limit和归并方式应相同
+	 */
+	public void addAll(MetricTopK other) {
+		for (Map.Entry<String, TopKHeap> entry : other.heaps.entrySet()) {
+			heap(entry.getKey()).addAll(entry.getValue());
+		}
+		servers.putAll(other.servers);
+		compact();
+	}
+
+	/**
+	 * @return 监控项名称到排行的映射, 按名称排序, 每个排行按值从大到小排列
+	 */
+	public Map<String, List<MetricTop>> getResults() {
+		Map<String, List<MetricTop>> results = new TreeMap<String, List<MetricTop>>();
+		for (String metricName : heaps.keySet()) {
+			results.put(metricName, getResult(metricName));
+		}
+		return results;
+	}
+
+	/**
+	 * @return 指定监控项的排行, 按值从大到小排列; 没有数据时为空列表
+	 */
+	public List<MetricTop> getResult(String metricName) {
+		List<MetricTop> tops = new ArrayList<MetricTop>();
+		TopKHeap heap = heaps.get(metricName);
+		if (heap == null) {
+			return tops;
+		}
+		TopKHeap sorted = new TopKHeap(limit);
+		sorted.addAll(heap);
+		sorted.sortDescending();
+		for (int i = 0; i < sorted.size(); i++) {
+			Server server = servers.get(sorted.key(i));
+			MetricTop top = new MetricTop();
+			top.setServerId(sorted.key(i));
+			top.setServerName(server.getName());
+			top.setClusterId(server.getClusterId() == null ? 0 : server.getClusterId());
+			top.setClusterName(server.getClusterName());
+			top.setClusterRoleId(server.getClusterRoleId() == null ? 0 : server.getClusterRoleId());
+			top.setClusterRoleName(server.getClusterRoleName());
+			top.setMetricName(metricName);
+			top.setMetricValue(sorted.value(i));
+			tops.add(top);
+		}
+		return tops;
+	}
+
+	private TopKHeap heap(String metricName) {
+		TopKHeap heap = heaps.get(metricName);
+		if (heap == null) {
+			heap = new TopKHeap(limit);
+			heaps.put(metricName, heap);
+		}
+		return heap;
+	}
+
+	private double reduce(double[] acc) {
+		switch (statistic) {
+		case MAX:
+			return acc[3];
+		case MIN:
+			return acc[2];
+		case LAST:
+			return acc[5];
+		default:
+			return acc[0] / acc[1];
+		}
+	}
+
+	/**
+	 * 只保留仍在某个堆中的虚机
+	 */
+	private void compact() {
+		Set<Long> live = new HashSet<Long>();
+		for (TopKHeap heap : heaps.values()) {
+			for (int i = 0; i < heap.size(); i++) {
+				live.add(heap.key(i));
+			}
+		}
+		servers.keySet().retainAll(live);
+	}
+}
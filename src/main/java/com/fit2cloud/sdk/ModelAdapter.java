@@ -0,0 +1,76 @@
+package com.fit2cloud.sdk;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * 单个模型类的流式JSON解码器. 字段名在构造时登记为序号, 解码时按字段名查表得到序号, 由子类按序号直接调用setter赋值,
+ * 不使用反射. 未登记的字段和值为null的字段直接跳过, 与Gson的行为一致
+ */
+abstract class ModelAdapter<T> {
+
+	private final Class<T> type;
+	private final Map<String, Integer> fields;
+
+	ModelAdapter(Class<T> type, String... names) {
+		this.type = type;
+		this.fields = new HashMap<String, Integer>(names.length * 2);
+		for (int i = 0; i < names.length; i++) {
+			fields.put(names[i], i);
+		}
+	}
+
+	Class<T> getType() {
+		return type;
+	}
+
+	abstract T newInstance();
+
+	/**
+	 * 读取序号为field的字段的值(非null)并赋给target
+	 */
+	abstract void read(T target, int field, JsonReader in) throws IOException;
+
+	T read(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		T target = newInstance();
+		in.beginObject();
+		while (in.hasNext()) {
+			Integer field = fields.get(in.nextName());
+			if (field == null || in.peek() == JsonToken.NULL) {
+				in.skipValue();
+				continue;
+			}
+			read(target, field, in);
+		}
+		in.endObject();
+		return target;
+	}
+
+	List<T> readList(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		List<T> list = new ArrayList<T>();
+		in.beginArray();
+		while (in.hasNext()) {
+			list.add(read(in));
+		}
+		in.endArray();
+		return list;
+	}
+
+	static boolean nextBoolean(JsonReader in) throws IOException {
+		return in.peek() == JsonToken.STRING ? Boolean.parseBoolean(in.nextString()) : in.nextBoolean();
+	}
+}
@@ -0,0 +1,1923 @@
+package com.fit2cloud.sdk;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fit2cloud.sdk.model.Application;
+import com.fit2cloud.sdk.model.ApplicationDeployment;
+import com.fit2cloud.sdk.model.ApplicationDeploymentEventLog;
+import com.fit2cloud.sdk.model.ApplicationDeploymentLog;
+import com.fit2cloud.sdk.model.ApplicationRepo;
+import com.fit2cloud.sdk.model.ApplicationRevision;
+import com.fit2cloud.sdk.model.CloudCredential;
+import com.fit2cloud.sdk.model.Cluster;
+import com.fit2cloud.sdk.model.ClusterParam;
+import com.fit2cloud.sdk.model.ClusterRole;
+import com.fit2cloud.sdk.model.ClusterRoleAlertLogging;
+import com.fit2cloud.sdk.model.CmdbVm;
+import com.fit2cloud.sdk.model.ContactGroup;
+import com.fit2cloud.sdk.model.Event;
+import com.fit2cloud.sdk.model.FireEventRequest;
+import com.fit2cloud.sdk.model.GroupEnv;
+import com.fit2cloud.sdk.model.KeyPair;
+import com.fit2cloud.sdk.model.KeyPassword;
+import com.fit2cloud.sdk.model.LaunchConfiguration;
+import com.fit2cloud.sdk.model.Logging;
+import com.fit2cloud.sdk.model.Metric;
+import com.fit2cloud.sdk.model.MetricTop;
+import com.fit2cloud.sdk.model.PortMonitor;
+import com.fit2cloud.sdk.model.Script;
+import com.fit2cloud.sdk.model.Server;
+import com.fit2cloud.sdk.model.ServerMetric;
+import com.fit2cloud.sdk.model.ServiceCatalogOrder;
+import com.fit2cloud.sdk.model.SfServer;
+import com.fit2cloud.sdk.model.Tag;
+import com.fit2cloud.sdk.model.UserData;
+import com.fit2cloud.sdk.model.ViewScriptlog;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * model包中所有模型类的{@link ModelAdapter}. 每个模型一张字段表, 按表中的序号调用对应的setter, 不依赖反射.
+ * 模型类新增或修改字段时需同步修改对应的字段表和switch分支
+ */
+final class ModelAdapters {
+
+	static final ModelAdapter<Tag> TAG = new ModelAdapter<Tag>(Tag.class, "id", "name", "value", "serverId",
+			"clusterRoleId", "clusterId", "serverName", "clusterName", "clusterRoleName") {
+
+		Tag newInstance() {
+			return new Tag();
+		}
+
+		void read(Tag target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setName(in.nextString());
+				break;
+			case 2:
+				target.setValue(in.nextString());
+				break;
+			case 3:
+				target.setServerId(in.nextLong());
+				break;
+			case 4:
+				target.setClusterRoleId(in.nextLong());
+				break;
+			case 5:
+				target.setClusterId(in.nextLong());
+				break;
+			case 6:
+				target.setServerName(in.nextString());
+				break;
+			case 7:
+				target.setClusterName(in.nextString());
+				break;
+			case 8:
+				target.setClusterRoleName(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<Application> APPLICATION = new ModelAdapter<Application>(
+			Application.class, "id", "name", "created", "description") {
+
+		Application newInstance() {
+			return new Application();
+		}
+
+		void read(Application target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setName(in.nextString());
+				break;
+			case 2:
+				target.setCreated(in.nextLong());
+				break;
+			case 3:
+				target.setDescription(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ApplicationDeployment> APPLICATION_DEPLOYMENT = new ModelAdapter<ApplicationDeployment>(
+			ApplicationDeployment.class, "id", "revisionId", "clusterId", "clusterRoleId", "serverId", "deployPolicy",
+			"startTime", "endTime", "status", "description", "msg", "applicationId", "contactGroupId",
+			"gatedLaunchEnable", "gatedLaunchDeploymentId", "userId") {
+
+		ApplicationDeployment newInstance() {
+			return new ApplicationDeployment();
+		}
+
+		void read(ApplicationDeployment target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setRevisionId(in.nextLong());
+				break;
+			case 2:
+				target.setClusterId(in.nextLong());
+				break;
+			case 3:
+				target.setClusterRoleId(in.nextLong());
+				break;
+			case 4:
+				target.setServerId(in.nextLong());
+				break;
+			case 5:
+				target.setDeployPolicy(in.nextString());
+				break;
+			case 6:
+				target.setStartTime(in.nextLong());
+				break;
+			case 7:
+				target.setEndTime(in.nextLong());
+				break;
+			case 8:
+				target.setStatus(in.nextString());
+				break;
+			case 9:
+				target.setDescription(in.nextString());
+				break;
+			case 10:
+				target.setMsg(in.nextString());
+				break;
+			case 11:
+				target.setApplicationId(in.nextLong());
+				break;
+			case 12:
+				target.setContactGroupId(in.nextLong());
+				break;
+			case 13:
+				target.setGatedLaunchEnable(in.nextInt());
+				break;
+			case 14:
+				target.setGatedLaunchDeploymentId(in.nextLong());
+				break;
+			case 15:
+				target.setUserId(in.nextLong());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ApplicationDeploymentEventLog> APPLICATION_DEPLOYMENT_EVENT_LOG = new ModelAdapter<ApplicationDeploymentEventLog>(
+			ApplicationDeploymentEventLog.class, "id", "deploymentLogId", "eventName", "startTime", "endTime", "status",
+			"eventLog", "eventId", "responseCode", "msg", "serverId") {
+
+		ApplicationDeploymentEventLog newInstance() {
+			return new ApplicationDeploymentEventLog();
+		}
+
+		void read(ApplicationDeploymentEventLog target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setDeploymentLogId(in.nextLong());
+				break;
+			case 2:
+				target.setEventName(in.nextString());
+				break;
+			case 3:
+				target.setStartTime(in.nextLong());
+				break;
+			case 4:
+				target.setEndTime(in.nextLong());
+				break;
+			case 5:
+				target.setStatus(in.nextString());
+				break;
+			case 6:
+				target.setEventLog(in.nextString());
+				break;
+			case 7:
+				target.setEventId(in.nextInt());
+				break;
+			case 8:
+				target.setResponseCode(in.nextInt());
+				break;
+			case 9:
+				target.setMsg(in.nextString());
+				break;
+			case 10:
+				target.setServerId(in.nextLong());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ApplicationDeploymentLog> APPLICATION_DEPLOYMENT_LOG = new ModelAdapter<ApplicationDeploymentLog>(
+			ApplicationDeploymentLog.class, "id", "deploymentId", "serverId", "startTime", "endTime", "status",
+			"serverName", "eventId", "responseCode", "msg") {
+
+		ApplicationDeploymentLog newInstance() {
+			return new ApplicationDeploymentLog();
+		}
+
+		void read(ApplicationDeploymentLog target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setDeploymentId(in.nextLong());
+				break;
+			case 2:
+				target.setServerId(in.nextLong());
+				break;
+			case 3:
+				target.setStartTime(in.nextLong());
+				break;
+			case 4:
+				target.setEndTime(in.nextLong());
+				break;
+			case 5:
+				target.setStatus(in.nextString());
+				break;
+			case 6:
+				target.setServerName(in.nextString());
+				break;
+			case 7:
+				target.setEventId(in.nextInt());
+				break;
+			case 8:
+				target.setResponseCode(in.nextInt());
+				break;
+			case 9:
+				target.setMsg(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ApplicationRepo> APPLICATION_REPO = new ModelAdapter<ApplicationRepo>(
+			ApplicationRepo.class, "id", "name", "type", "repo", "accessId", "accessPassword", "status", "server") {
+
+		ApplicationRepo newInstance() {
+			return new ApplicationRepo();
+		}
+
+		void read(ApplicationRepo target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setName(in.nextString());
+				break;
+			case 2:
+				target.setType(in.nextString());
+				break;
+			case 3:
+				target.setRepo(in.nextString());
+				break;
+			case 4:
+				target.setAccessId(in.nextString());
+				break;
+			case 5:
+				target.setAccessPassword(in.nextString());
+				break;
+			case 6:
+				target.setStatus(in.nextString());
+				break;
+			case 7:
+				target.setServer(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ApplicationRevision> APPLICATION_REVISION = new ModelAdapter<ApplicationRevision>(
+			ApplicationRevision.class, "id", "name", "created", "description", "applicationId", "applicationName",
+			"location", "repoId", "repoType") {
+
+		ApplicationRevision newInstance() {
+			return new ApplicationRevision();
+		}
+
+		void read(ApplicationRevision target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setName(in.nextString());
+				break;
+			case 2:
+				target.setCreated(in.nextLong());
+				break;
+			case 3:
+				target.setDescription(in.nextString());
+				break;
+			case 4:
+				target.setApplicationId(in.nextLong());
+				break;
+			case 5:
+				target.setApplicationName(in.nextString());
+				break;
+			case 6:
+				target.setLocation(in.nextString());
+				break;
+			case 7:
+				target.setRepoId(in.nextLong());
+				break;
+			case 8:
+				target.setRepoType(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<CloudCredential> CLOUD_CREDENTIAL = new ModelAdapter<CloudCredential>(
+			CloudCredential.class, "id", "groupId", "name", "credential", "status", "created", "serverCount", "lbCount",
+			"rdsCount", "syncStatus", "lastUpdate", "cloudProvider", "customData", "description", "pluginDesc",
+			"pluginIcon", "imageCount") {
+
+		CloudCredential newInstance() {
+			return new CloudCredential();
+		}
+
+		void read(CloudCredential target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setGroupId(in.nextLong());
+				break;
+			case 2:
+				target.setName(in.nextString());
+				break;
+			case 3:
+				target.setCredential(in.nextString());
+				break;
+			case 4:
+				target.setStatus(in.nextString());
+				break;
+			case 5:
+				target.setCreated(in.nextLong());
+				break;
+			case 6:
+				target.setServerCount(in.nextLong());
+				break;
+			case 7:
+				target.setLbCount(in.nextInt());
+				break;
+			case 8:
+				target.setRdsCount(in.nextInt());
+				break;
+			case 9:
+				target.setSyncStatus(in.nextString());
+				break;
+			case 10:
+				target.setLastUpdate(in.nextLong());
+				break;
+			case 11:
+				target.setCloudProvider(in.nextString());
+				break;
+			case 12:
+				target.setCustomData(in.nextString());
+				break;
+			case 13:
+				target.setDescription(in.nextString());
+				break;
+			case 14:
+				target.setPluginDesc(in.nextString());
+				break;
+			case 15:
+				target.setPluginIcon(in.nextString());
+				break;
+			case 16:
+				target.setImageCount(in.nextLong());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<Cluster> CLUSTER = new ModelAdapter<Cluster>(Cluster.class, "id", "envType", "name",
+			"description", "rabbitmqExchange", "created", "serverNumber", "roleNumber", "onlineRunningServerNumber") {
+
+		Cluster newInstance() {
+			return new Cluster();
+		}
+
+		void read(Cluster target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setEnvType(in.nextString());
+				break;
+			case 2:
+				target.setName(in.nextString());
+				break;
+			case 3:
+				target.setDescription(in.nextString());
+				break;
+			case 4:
+				target.setRabbitmqExchange(in.nextString());
+				break;
+			case 5:
+				target.setCreated(in.nextLong());
+				break;
+			case 6:
+				target.setServerNumber(in.nextInt());
+				break;
+			case 7:
+				target.setRoleNumber(in.nextInt());
+				break;
+			case 8:
+				target.setOnlineRunningServerNumber(in.nextInt());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ClusterParam> CLUSTER_PARAM = new ModelAdapter<ClusterParam>(
+			ClusterParam.class, "id", "clusterId", "name", "value") {
+
+		ClusterParam newInstance() {
+			return new ClusterParam();
+		}
+
+		void read(ClusterParam target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setClusterId(in.nextLong());
+				break;
+			case 2:
+				target.setName(in.nextString());
+				break;
+			case 3:
+				target.setValue(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ClusterRole> CLUSTER_ROLE = new ModelAdapter<ClusterRole>(
+			ClusterRole.class, "id", "clusterId", "clusterName", "name", "description", "onlineRunningServerNumber",
+			"vmNumber") {
+
+		ClusterRole newInstance() {
+			return new ClusterRole();
+		}
+
+		void read(ClusterRole target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setClusterId(in.nextLong());
+				break;
+			case 2:
+				target.setClusterName(in.nextString());
+				break;
+			case 3:
+				target.setName(in.nextString());
+				break;
+			case 4:
+				target.setDescription(in.nextString());
+				break;
+			case 5:
+				target.setOnlineRunningServerNumber(in.nextInt());
+				break;
+			case 6:
+				target.setVmNumber(in.nextInt());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ClusterRoleAlertLogging> CLUSTER_ROLE_ALERT_LOGGING = new ModelAdapter<ClusterRoleAlertLogging>(
+			ClusterRoleAlertLogging.class, "id", "startTime", "endTime", "alertId", "alertType", "clusterId",
+			"clusterRoleId", "serverId", "serverName", "monitorData", "msg", "last", "clusterName", "vmStatus",
+			"serverOsType", "showStatusPolicy") {
+
+		ClusterRoleAlertLogging newInstance() {
+			return new ClusterRoleAlertLogging();
+		}
+
+		void read(ClusterRoleAlertLogging target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setStartTime(in.nextLong());
+				break;
+			case 2:
+				target.setEndTime(in.nextLong());
+				break;
+			case 3:
+				target.setAlertId(in.nextLong());
+				break;
+			case 4:
+				target.setAlertType(in.nextString());
+				break;
+			case 5:
+				target.setClusterId(in.nextLong());
+				break;
+			case 6:
+				target.setClusterRoleId(in.nextLong());
+				break;
+			case 7:
+				target.setServerId(in.nextLong());
+				break;
+			case 8:
+				target.setServerName(in.nextString());
+				break;
+			case 9:
+				target.setMonitorData(in.nextDouble());
+				break;
+			case 10:
+				target.setMsg(in.nextString());
+				break;
+			case 11:
+				target.setLast(in.nextString());
+				break;
+			case 12:
+				target.setClusterName(in.nextString());
+				break;
+			case 13:
+				target.setVmStatus(in.nextString());
+				break;
+			case 14:
+				target.setServerOsType(in.nextString());
+				break;
+			case 15:
+				target.setShowStatusPolicy(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<CmdbVm> CMDB_VM = new ModelAdapter<CmdbVm>(CmdbVm.class, "id", "instanceId", "imageId",
+			"instanceStatus", "credentialName", "hostname", "localIp", "os", "dataCenter", "cluster", "host", "cpu",
+			"memory", "disk", "exportIp", "accessExtranet", "cmdbAppRoleId", "cmdbIndieServerIp", "created",
+			"cloudServerId", "roleName", "clusterName", "envName", "systemName") {
+
+		CmdbVm newInstance() {
+			return new CmdbVm();
+		}
+
+		void read(CmdbVm target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setInstanceId(in.nextString());
+				break;
+			case 2:
+				target.setImageId(in.nextString());
+				break;
+			case 3:
+				target.setInstanceStatus(in.nextString());
+				break;
+			case 4:
+				target.setCredentialName(in.nextString());
+				break;
+			case 5:
+				target.setHostname(in.nextString());
+				break;
+			case 6:
+				target.setLocalIp(in.nextString());
+				break;
+			case 7:
+				target.setOs(in.nextString());
+				break;
+			case 8:
+				target.setDataCenter(in.nextString());
+				break;
+			case 9:
+				target.setCluster(in.nextString());
+				break;
+			case 10:
+				target.setHost(in.nextString());
+				break;
+			case 11:
+				target.setCpu(in.nextInt());
+				break;
+			case 12:
+				target.setMemory(in.nextInt());
+				break;
+			case 13:
+				target.setDisk(in.nextInt());
+				break;
+			case 14:
+				target.setExportIp(in.nextString());
+				break;
+			case 15:
+				target.setAccessExtranet(nextBoolean(in));
+				break;
+			case 16:
+				target.setCmdbAppRoleId(in.nextLong());
+				break;
+			case 17:
+				target.setCmdbIndieServerIp(in.nextString());
+				break;
+			case 18:
+				target.setCreated(in.nextInt());
+				break;
+			case 19:
+				target.setCloudServerId(in.nextLong());
+				break;
+			case 20:
+				target.setRoleName(in.nextString());
+				break;
+			case 21:
+				target.setClusterName(in.nextString());
+				break;
+			case 22:
+				target.setEnvName(in.nextString());
+				break;
+			case 23:
+				target.setSystemName(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ContactGroup> CONTACT_GROUP = new ModelAdapter<ContactGroup>(
+			ContactGroup.class, "id", "groupId", "name", "mailEnable", "phoneEnable", "weixinEnable",
+			"defaultContactGroup") {
+
+		ContactGroup newInstance() {
+			return new ContactGroup();
+		}
+
+		void read(ContactGroup target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setGroupId(in.nextLong());
+				break;
+			case 2:
+				target.setName(in.nextString());
+				break;
+			case 3:
+				target.setMailEnable(nextBoolean(in));
+				break;
+			case 4:
+				target.setPhoneEnable(nextBoolean(in));
+				break;
+			case 5:
+				target.setWeixinEnable(nextBoolean(in));
+				break;
+			case 6:
+				target.setDefaultContactGroup(nextBoolean(in));
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<Event> EVENT = new ModelAdapter<Event>(Event.class, "id", "accountId", "sourceClusterId",
+			"eventName", "eventUuid", "eventTimestamp", "correlationEventId", "sourceClusterroleId",
+			"sourceServerroleId", "sourceServerId", "targetClusterRoleIds", "targetServerIds", "eventData",
+			"eventSource", "eventSourceVersion", "createdTime", "handledEventServerId", "responseCode",
+			"handledEventId", "handledEventServerClusterRoleId", "handledEventServerServerRoleId", "schedulerTaskId",
+			"schedulerTimestamp", "schedulerExecuteResult", "scriptId", "scriptName", "scriptTrigger", "status",
+			"usedTime", "scriptPlatform", "scriptType") {
+
+		Event newInstance() {
+			return new Event();
+		}
+
+		void read(Event target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setAccountId(in.nextLong());
+				break;
+			case 2:
+				target.setSourceClusterId(in.nextLong());
+				break;
+			case 3:
+				target.setEventName(in.nextString());
+				break;
+			case 4:
+				target.setEventUuid(in.nextString());
+				break;
+			case 5:
+				target.setEventTimestamp(in.nextLong());
+				break;
+			case 6:
+				target.setCorrelationEventId(in.nextLong());
+				break;
+			case 7:
+				target.setSourceClusterroleId(in.nextLong());
+				break;
+			case 8:
+				target.setSourceServerroleId(in.nextLong());
+				break;
+			case 9:
+				target.setSourceServerId(in.nextLong());
+				break;
+			case 10:
+				target.setTargetClusterRoleIds(in.nextString());
+				break;
+			case 11:
+				target.setTargetServerIds(in.nextString());
+				break;
+			case 12:
+				target.setEventData(in.nextString());
+				break;
+			case 13:
+				target.setEventSource(in.nextString());
+				break;
+			case 14:
+				target.setEventSourceVersion(in.nextString());
+				break;
+			case 15:
+				target.setCreatedTime(in.nextLong());
+				break;
+			case 16:
+				target.setHandledEventServerId(in.nextLong());
+				break;
+			case 17:
+				target.setResponseCode(in.nextInt());
+				break;
+			case 18:
+				target.setHandledEventId(in.nextLong());
+				break;
+			case 19:
+				target.setHandledEventServerClusterRoleId(in.nextLong());
+				break;
+			case 20:
+				target.setHandledEventServerServerRoleId(in.nextLong());
+				break;
+			case 21:
+				target.setSchedulerTaskId(in.nextLong());
+				break;
+			case 22:
+				target.setSchedulerTimestamp(in.nextLong());
+				break;
+			case 23:
+				target.setSchedulerExecuteResult(in.nextString());
+				break;
+			case 24:
+				target.setScriptId(in.nextLong());
+				break;
+			case 25:
+				target.setScriptName(in.nextString());
+				break;
+			case 26:
+				target.setScriptTrigger(in.nextString());
+				break;
+			case 27:
+				target.setStatus(in.nextString());
+				break;
+			case 28:
+				target.setUsedTime(in.nextLong());
+				break;
+			case 29:
+				target.setScriptPlatform(in.nextString());
+				break;
+			case 30:
+				target.setScriptType(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<FireEventRequest> FIRE_EVENT_REQUEST = new ModelAdapter<FireEventRequest>(
+			FireEventRequest.class, "eventName", "sourceClusterId", "sourceClusterroleId", "sourceServerId",
+			"sourceServerroleId", "correlationEventId", "targetClusterroleIds", "targetServerIds", "eventData",
+			"scriptType") {
+
+		FireEventRequest newInstance() {
+			return new FireEventRequest();
+		}
+
+		void read(FireEventRequest target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setEventName(in.nextString());
+				break;
+			case 1:
+				target.setSourceClusterId(in.nextInt());
+				break;
+			case 2:
+				target.setSourceClusterroleId(in.nextInt());
+				break;
+			case 3:
+				target.setSourceServerId(in.nextInt());
+				break;
+			case 4:
+				target.setSourceServerroleId(in.nextInt());
+				break;
+			case 5:
+				target.setCorrelationEventId(in.nextInt());
+				break;
+			case 6:
+				target.setTargetClusterroleIds(in.nextString());
+				break;
+			case 7:
+				target.setTargetServerIds(in.nextString());
+				break;
+			case 8:
+				target.setEventData(in.nextString());
+				break;
+			case 9:
+				target.setScriptType(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<GroupEnv> GROUP_ENV = new ModelAdapter<GroupEnv>(GroupEnv.class, "id", "name",
+			"defaultContactGroupId", "portMonitorContactGroupId", "siteMonitorContactGroupId", "created",
+			"billingPlanId", "description") {
+
+		GroupEnv newInstance() {
+			return new GroupEnv();
+		}
+
+		void read(GroupEnv target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setName(in.nextString());
+				break;
+			case 2:
+				target.setDefaultContactGroupId(in.nextLong());
+				break;
+			case 3:
+				target.setPortMonitorContactGroupId(in.nextLong());
+				break;
+			case 4:
+				target.setSiteMonitorContactGroupId(in.nextLong());
+				break;
+			case 5:
+				target.setCreated(in.nextLong());
+				break;
+			case 6:
+				target.setBillingPlanId(in.nextLong());
+				break;
+			case 7:
+				target.setDescription(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<KeyPair> KEY_PAIR = new ModelAdapter<KeyPair>(KeyPair.class, "name", "value") {
+
+		KeyPair newInstance() {
+			return new KeyPair();
+		}
+
+		void read(KeyPair target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setName(in.nextString());
+				break;
+			case 1:
+				target.setValue(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<KeyPassword> KEY_PASSWORD = new ModelAdapter<KeyPassword>(
+			KeyPassword.class, "id", "groupId", "name", "description", "username", "privateKey", "password", "type",
+			"creator", "port", "remoteIp", "localIp") {
+
+		KeyPassword newInstance() {
+			return new KeyPassword();
+		}
+
+		void read(KeyPassword target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setGroupId(in.nextLong());
+				break;
+			case 2:
+				target.setName(in.nextString());
+				break;
+			case 3:
+				target.setDescription(in.nextString());
+				break;
+			case 4:
+				target.setUsername(in.nextString());
+				break;
+			case 5:
+				target.setPrivateKey(in.nextString());
+				break;
+			case 6:
+				target.setPassword(in.nextString());
+				break;
+			case 7:
+				target.setType(in.nextString());
+				break;
+			case 8:
+				target.setCreator(in.nextString());
+				break;
+			case 9:
+				target.setPort(in.nextLong());
+				break;
+			case 10:
+				target.setRemoteIp(in.nextString());
+				break;
+			case 11:
+				target.setLocalIp(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<LaunchConfiguration> LAUNCH_CONFIGURATION = new ModelAdapter<LaunchConfiguration>(
+			LaunchConfiguration.class, "id", "groupId", "name", "description", "credentialId", "credentialName",
+			"cloudProvider", "sshPort", "keyPasswordId", "launchConfiguration", "created", "agentInstallMethod",
+			"initScriptId", "keyPasswordName", "initScriptName", "status", "applicationRevisionId",
+			"applicationRevisionName", "pluginDesc", "pluginIcon") {
+
+		LaunchConfiguration newInstance() {
+			return new LaunchConfiguration();
+		}
+
+		void read(LaunchConfiguration target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setGroupId(in.nextLong());
+				break;
+			case 2:
+				target.setName(in.nextString());
+				break;
+			case 3:
+				target.setDescription(in.nextString());
+				break;
+			case 4:
+				target.setCredentialId(in.nextLong());
+				break;
+			case 5:
+				target.setCredentialName(in.nextString());
+				break;
+			case 6:
+				target.setCloudProvider(in.nextString());
+				break;
+			case 7:
+				target.setSshPort(in.nextInt());
+				break;
+			case 8:
+				target.setKeyPasswordId(in.nextLong());
+				break;
+			case 9:
+				target.setLaunchConfiguration(in.nextString());
+				break;
+			case 10:
+				target.setCreated(in.nextLong());
+				break;
+			case 11:
+				target.setAgentInstallMethod(in.nextString());
+				break;
+			case 12:
+				target.setInitScriptId(in.nextLong());
+				break;
+			case 13:
+				target.setKeyPasswordName(in.nextString());
+				break;
+			case 14:
+				target.setInitScriptName(in.nextString());
+				break;
+			case 15:
+				target.setStatus(in.nextString());
+				break;
+			case 16:
+				target.setApplicationRevisionId(in.nextLong());
+				break;
+			case 17:
+				target.setApplicationRevisionName(in.nextString());
+				break;
+			case 18:
+				target.setPluginDesc(in.nextString());
+				break;
+			case 19:
+				target.setPluginIcon(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<Logging> LOGGING = new ModelAdapter<Logging>(Logging.class, "id", "clusterId",
+			"clusterName", "clusterroleId", "clusterroleName", "serverId", "serverName", "source", "loggingTimestamp",
+			"level", "msg", "logClass", "logThread", "eventId", "eventName") {
+
+		Logging newInstance() {
+			return new Logging();
+		}
+
+		void read(Logging target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setClusterId(in.nextLong());
+				break;
+			case 2:
+				target.setClusterName(in.nextString());
+				break;
+			case 3:
+				target.setClusterroleId(in.nextLong());
+				break;
+			case 4:
+				target.setClusterroleName(in.nextString());
+				break;
+			case 5:
+				target.setServerId(in.nextLong());
+				break;
+			case 6:
+				target.setServerName(in.nextString());
+				break;
+			case 7:
+				target.setSource(in.nextString());
+				break;
+			case 8:
+				target.setLoggingTimestamp(in.nextLong());
+				break;
+			case 9:
+				target.setLevel(in.nextString());
+				break;
+			case 10:
+				target.setMsg(in.nextString());
+				break;
+			case 11:
+				target.setLogClass(in.nextString());
+				break;
+			case 12:
+				target.setLogThread(in.nextString());
+				break;
+			case 13:
+				target.setEventId(in.nextLong());
+				break;
+			case 14:
+				target.setEventName(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<Metric> METRIC = new ModelAdapter<Metric>(Metric.class, "metricName", "comment", "unit") {
+
+		Metric newInstance() {
+			return new Metric();
+		}
+
+		void read(Metric target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setMetricName(in.nextString());
+				break;
+			case 1:
+				target.setComment(in.nextString());
+				break;
+			case 2:
+				target.setUnit(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<MetricTop> METRIC_TOP = new ModelAdapter<MetricTop>(MetricTop.class, "serverId",
+			"serverName", "clusterId", "clusterName", "clusterRoleId", "clusterRoleName", "metricName", "metricValue") {
+
+		MetricTop newInstance() {
+			return new MetricTop();
+		}
+
+		void read(MetricTop target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setServerId(in.nextLong());
+				break;
+			case 1:
+				target.setServerName(in.nextString());
+				break;
+			case 2:
+				target.setClusterId(in.nextLong());
+				break;
+			case 3:
+				target.setClusterName(in.nextString());
+				break;
+			case 4:
+				target.setClusterRoleId(in.nextLong());
+				break;
+			case 5:
+				target.setClusterRoleName(in.nextString());
+				break;
+			case 6:
+				target.setMetricName(in.nextString());
+				break;
+			case 7:
+				target.setMetricValue(in.nextDouble());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<PortMonitor> PORT_MONITOR = new ModelAdapter<PortMonitor>(
+			PortMonitor.class, "id", "groupId", "clusterId", "clusterName", "clusterRoleId", "clusterRoleName",
+			"serverId", "serverName", "ip", "port", "ipType", "frequency", "status", "lastCheckTime",
+			"lastSuccessTime") {
+
+		PortMonitor newInstance() {
+			return new PortMonitor();
+		}
+
+		void read(PortMonitor target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setGroupId(in.nextLong());
+				break;
+			case 2:
+				target.setClusterId(in.nextLong());
+				break;
+			case 3:
+				target.setClusterName(in.nextString());
+				break;
+			case 4:
+				target.setClusterRoleId(in.nextLong());
+				break;
+			case 5:
+				target.setClusterRoleName(in.nextString());
+				break;
+			case 6:
+				target.setServerId(in.nextLong());
+				break;
+			case 7:
+				target.setServerName(in.nextString());
+				break;
+			case 8:
+				target.setIp(in.nextString());
+				break;
+			case 9:
+				target.setPort(in.nextInt());
+				break;
+			case 10:
+				target.setIpType(in.nextString());
+				break;
+			case 11:
+				target.setFrequency(in.nextInt());
+				break;
+			case 12:
+				target.setStatus(in.nextString());
+				break;
+			case 13:
+				target.setLastCheckTime(in.nextLong());
+				break;
+			case 14:
+				target.setLastSuccessTime(in.nextLong());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<Script> SCRIPT = new ModelAdapter<Script>(Script.class, "id", "groupId", "name",
+			"description", "scriptText", "created", "platform", "scriptType") {
+
+		Script newInstance() {
+			return new Script();
+		}
+
+		void read(Script target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setGroupId(in.nextLong());
+				break;
+			case 2:
+				target.setName(in.nextString());
+				break;
+			case 3:
+				target.setDescription(in.nextString());
+				break;
+			case 4:
+				target.setScriptText(in.nextString());
+				break;
+			case 5:
+				target.setCreated(in.nextLong());
+				break;
+			case 6:
+				target.setPlatform(in.nextString());
+				break;
+			case 7:
+				target.setScriptType(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<Server> SERVER = new ModelAdapter<Server>(Server.class, "id", "description", "clusterId",
+			"clusterName", "clusterRoleId", "clusterRoleName", "imageId", "vmId", "vmStatus", "vmType",
+			"vmTypeDescription", "status", "region", "remoteIP", "localIP", "created", "heartbeatStatus", "name",
+			"alertType", "zone", "hostname", "keyPasswordId", "rabbitmqQueue", "sshPort", "customData", "credentialId",
+			"launchConfigurationId", "machineId", "os", "agentVersion", "tags") {
+
+		Server newInstance() {
+			return new Server();
+		}
+
+		void read(Server target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setDescription(in.nextString());
+				break;
+			case 2:
+				target.setClusterId(in.nextLong());
+				break;
+			case 3:
+				target.setClusterName(in.nextString());
+				break;
+			case 4:
+				target.setClusterRoleId(in.nextLong());
+				break;
+			case 5:
+				target.setClusterRoleName(in.nextString());
+				break;
+			case 6:
+				target.setImageId(in.nextString());
+				break;
+			case 7:
+				target.setVmId(in.nextString());
+				break;
+			case 8:
+				target.setVmStatus(in.nextString());
+				break;
+			case 9:
+				target.setVmType(in.nextString());
+				break;
+			case 10:
+				target.setVmTypeDescription(in.nextString());
+				break;
+			case 11:
+				target.setStatus(in.nextString());
+				break;
+			case 12:
+				target.setRegion(in.nextString());
+				break;
+			case 13:
+				target.setRemoteIP(in.nextString());
+				break;
+			case 14:
+				target.setLocalIP(in.nextString());
+				break;
+			case 15:
+				target.setCreated(in.nextLong());
+				break;
+			case 16:
+				target.setHeartbeatStatus(in.nextString());
+				break;
+			case 17:
+				target.setName(in.nextString());
+				break;
+			case 18:
+				target.setAlertType(in.nextString());
+				break;
+			case 19:
+				target.setZone(in.nextString());
+				break;
+			case 20:
+				target.setHostname(in.nextString());
+				break;
+			case 21:
+				target.setKeyPasswordId(in.nextLong());
+				break;
+			case 22:
+				target.setRabbitmqQueue(in.nextString());
+				break;
+			case 23:
+				target.setSshPort(in.nextLong());
+				break;
+			case 24:
+				target.setCustomData(in.nextString());
+				break;
+			case 25:
+				target.setCredentialId(in.nextLong());
+				break;
+			case 26:
+				target.setLaunchConfigurationId(in.nextLong());
+				break;
+			case 27:
+				target.setMachineId(in.nextString());
+				break;
+			case 28:
+				target.setOs(in.nextString());
+				break;
+			case 29:
+				target.setAgentVersion(in.nextString());
+				break;
+			case 30:
+				target.setTags(TAG.readList(in));
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ServerMetric> SERVER_METRIC = new ModelAdapter<ServerMetric>(
+			ServerMetric.class, "serverId", "heartbeatTimestamp", "metricName", "metricValue", "metricUnit") {
+
+		ServerMetric newInstance() {
+			return new ServerMetric();
+		}
+
+		void read(ServerMetric target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setServerId(in.nextLong());
+				break;
+			case 1:
+				target.setHeartbeatTimestamp(in.nextLong());
+				break;
+			case 2:
+				target.setMetricName(in.nextString());
+				break;
+			case 3:
+				target.setMetricValue(in.nextDouble());
+				break;
+			case 4:
+				target.setMetricUnit(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ServiceCatalogOrder> SERVICE_CATALOG_ORDER = new ModelAdapter<ServiceCatalogOrder>(
+			ServiceCatalogOrder.class, "id", "name", "created", "description", "expireDate", "approverId",
+			"applicantId", "orderStatus", "productId", "orderContent", "rejectReason", "clusterId", "clusterRoleId",
+			"failedCause", "department") {
+
+		ServiceCatalogOrder newInstance() {
+			return new ServiceCatalogOrder();
+		}
+
+		void read(ServiceCatalogOrder target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setName(in.nextString());
+				break;
+			case 2:
+				target.setCreated(in.nextLong());
+				break;
+			case 3:
+				target.setDescription(in.nextString());
+				break;
+			case 4:
+				target.setExpireDate(in.nextLong());
+				break;
+			case 5:
+				target.setApproverId(in.nextLong());
+				break;
+			case 6:
+				target.setApplicantId(in.nextLong());
+				break;
+			case 7:
+				target.setOrderStatus(in.nextString());
+				break;
+			case 8:
+				target.setProductId(in.nextLong());
+				break;
+			case 9:
+				target.setOrderContent(in.nextString());
+				break;
+			case 10:
+				target.setRejectReason(in.nextString());
+				break;
+			case 11:
+				target.setClusterId(in.nextLong());
+				break;
+			case 12:
+				target.setClusterRoleId(in.nextLong());
+				break;
+			case 13:
+				target.setFailedCause(in.nextString());
+				break;
+			case 14:
+				target.setDepartment(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<SfServer> SF_SERVER = new ModelAdapter<SfServer>(SfServer.class, "id", "groupId",
+			"sfProductsId", "instanceName", "instanceId", "imageId", "instanceStatus", "instanceType", "region", "zone",
+			"hostname", "remoteIp", "localIp", "ipArray", "createTime", "os", "dataCenter", "cluster", "host", "cpu",
+			"memory", "disk", "instanceUuid", "osVersion", "orderItemId", "expiresTime", "sshPort", "sshPwd",
+			"recycledTime", "keyPairId", "keyPairName", "serverId", "clusterId", "clusterName", "clusterRoleId",
+			"clusterRoleName") {
+
+		SfServer newInstance() {
+			return new SfServer();
+		}
+
+		void read(SfServer target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextString());
+				break;
+			case 1:
+				target.setGroupId(in.nextLong());
+				break;
+			case 2:
+				target.setSfProductsId(in.nextString());
+				break;
+			case 3:
+				target.setInstanceName(in.nextString());
+				break;
+			case 4:
+				target.setInstanceId(in.nextString());
+				break;
+			case 5:
+				target.setImageId(in.nextString());
+				break;
+			case 6:
+				target.setInstanceStatus(in.nextString());
+				break;
+			case 7:
+				target.setInstanceType(in.nextString());
+				break;
+			case 8:
+				target.setRegion(in.nextString());
+				break;
+			case 9:
+				target.setZone(in.nextString());
+				break;
+			case 10:
+				target.setHostname(in.nextString());
+				break;
+			case 11:
+				target.setRemoteIp(in.nextString());
+				break;
+			case 12:
+				target.setLocalIp(in.nextString());
+				break;
+			case 13:
+				target.setIpArray(in.nextString());
+				break;
+			case 14:
+				target.setCreateTime(in.nextLong());
+				break;
+			case 15:
+				target.setOs(in.nextString());
+				break;
+			case 16:
+				target.setDataCenter(in.nextString());
+				break;
+			case 17:
+				target.setCluster(in.nextString());
+				break;
+			case 18:
+				target.setHost(in.nextString());
+				break;
+			case 19:
+				target.setCpu(in.nextInt());
+				break;
+			case 20:
+				target.setMemory(in.nextInt());
+				break;
+			case 21:
+				target.setDisk(in.nextLong());
+				break;
+			case 22:
+				target.setInstanceUuid(in.nextString());
+				break;
+			case 23:
+				target.setOsVersion(in.nextString());
+				break;
+			case 24:
+				target.setOrderItemId(in.nextString());
+				break;
+			case 25:
+				target.setExpiresTime(in.nextLong());
+				break;
+			case 26:
+				target.setSshPort(in.nextLong());
+				break;
+			case 27:
+				target.setSshPwd(in.nextString());
+				break;
+			case 28:
+				target.setRecycledTime(in.nextLong());
+				break;
+			case 29:
+				target.setKeyPairId(in.nextLong());
+				break;
+			case 30:
+				target.setKeyPairName(in.nextString());
+				break;
+			case 31:
+				target.setServerId(in.nextLong());
+				break;
+			case 32:
+				target.setClusterId(in.nextLong());
+				break;
+			case 33:
+				target.setClusterName(in.nextString());
+				break;
+			case 34:
+				target.setClusterRoleId(in.nextLong());
+				break;
+			case 35:
+				target.setClusterRoleName(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<UserData> USER_DATA = new ModelAdapter<UserData>(UserData.class, "account_id", "cloud_id",
+			"cluster_id", "serverrole_id", "cluster_serverrole_id", "server_id", "platform", "region", "consumer_key",
+			"secret_key", "rabbitmq_host", "rabbitmq_port", "rabbitmq_ssl", "rabbitmq_down_exchange",
+			"rabbitmq_down_queue", "rabbitmq_up_exchange", "rabbitmq_vhost", "restapi_endpoint", "hasDisk", "diskType",
+			"diskRaidType", "diskFileSystem", "diskMountPoint", "hostname_type", "hostname", "cluster_name",
+			"cluster_role_name", "server_name", "cluster_type", "enterprise_internal_ip", "enterprise_external_ip",
+			"master_repo", "backup_repo") {
+
+		UserData newInstance() {
+			return new UserData();
+		}
+
+		void read(UserData target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setAccount_id(in.nextLong());
+				break;
+			case 1:
+				target.setCloud_id(in.nextLong());
+				break;
+			case 2:
+				target.setCluster_id(in.nextLong());
+				break;
+			case 3:
+				target.setServerrole_id(in.nextLong());
+				break;
+			case 4:
+				target.setCluster_serverrole_id(in.nextLong());
+				break;
+			case 5:
+				target.setServer_id(in.nextLong());
+				break;
+			case 6:
+				target.setPlatform(in.nextString());
+				break;
+			case 7:
+				target.setRegion(in.nextString());
+				break;
+			case 8:
+				target.setConsumer_key(in.nextString());
+				break;
+			case 9:
+				target.setSecret_key(in.nextString());
+				break;
+			case 10:
+				target.setRabbitmq_host(in.nextString());
+				break;
+			case 11:
+				target.setRabbitmq_port(in.nextInt());
+				break;
+			case 12:
+				target.setRabbitmq_ssl(nextBoolean(in));
+				break;
+			case 13:
+				target.setRabbitmq_down_exchange(in.nextString());
+				break;
+			case 14:
+				target.setRabbitmq_down_queue(in.nextString());
+				break;
+			case 15:
+				target.setRabbitmq_up_exchange(in.nextString());
+				break;
+			case 16:
+				target.setRabbitmq_vhost(in.nextString());
+				break;
+			case 17:
+				target.setRestapi_endpoint(in.nextString());
+				break;
+			case 18:
+				target.setHasDisk(nextBoolean(in));
+				break;
+			case 19:
+				target.setDiskType(in.nextString());
+				break;
+			case 20:
+				target.setDiskRaidType(in.nextString());
+				break;
+			case 21:
+				target.setDiskFileSystem(in.nextString());
+				break;
+			case 22:
+				target.setDiskMountPoint(in.nextString());
+				break;
+			case 23:
+				target.setHostname_type(in.nextInt());
+				break;
+			case 24:
+				target.setHostname(in.nextString());
+				break;
+			case 25:
+				target.setCluster_name(in.nextString());
+				break;
+			case 26:
+				target.setCluster_role_name(in.nextString());
+				break;
+			case 27:
+				target.setServer_name(in.nextString());
+				break;
+			case 28:
+				target.setCluster_type(in.nextString());
+				break;
+			case 29:
+				target.setEnterprise_internal_ip(in.nextString());
+				break;
+			case 30:
+				target.setEnterprise_external_ip(in.nextString());
+				break;
+			case 31:
+				target.setMaster_repo(in.nextString());
+				break;
+			case 32:
+				target.setBackup_repo(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	static final ModelAdapter<ViewScriptlog> VIEW_SCRIPTLOG = new ModelAdapter<ViewScriptlog>(
+			ViewScriptlog.class, "id", "accountId", "clusterId", "clusterName", "targetRole", "clusterroleName",
+			"targetServer", "serverName", "eventSource", "createdTime", "eventName", "eventUuid", "eventData",
+			"correlationEventId", "eventTimestamp", "scriptId", "scriptName", "scriptTrigger", "status", "usedTime",
+			"schedulerTaskId", "scriptPlatform", "scriptType") {
+
+		ViewScriptlog newInstance() {
+			return new ViewScriptlog();
+		}
+
+		void read(ViewScriptlog target, int field, JsonReader in) throws IOException {
+			switch (field) {
+			case 0:
+				target.setId(in.nextLong());
+				break;
+			case 1:
+				target.setAccountId(in.nextLong());
+				break;
+			case 2:
+				target.setClusterId(in.nextLong());
+				break;
+			case 3:
+				target.setClusterName(in.nextString());
+				break;
+			case 4:
+				target.setTargetRole(in.nextLong());
+				break;
+			case 5:
+				target.setClusterroleName(in.nextString());
+				break;
+			case 6:
+				target.setTargetServer(in.nextLong());
+				break;
+			case 7:
+				target.setServerName(in.nextString());
+				break;
+			case 8:
+				target.setEventSource(in.nextString());
+				break;
+			case 9:
+				target.setCreatedTime(in.nextLong());
+				break;
+			case 10:
+				target.setEventName(in.nextString());
+				break;
+			case 11:
+				target.setEventUuid(in.nextString());
+				break;
+			case 12:
+				target.setEventData(in.nextString());
+				break;
+			case 13:
+				target.setCorrelationEventId(in.nextLong());
+				break;
+			case 14:
+				target.setEventTimestamp(in.nextLong());
+				break;
+			case 15:
+				target.setScriptId(in.nextLong());
+				break;
+			case 16:
+				target.setScriptName(in.nextString());
+				break;
+			case 17:
+				target.setScriptTrigger(in.nextString());
+				break;
+			case 18:
+				target.setStatus(in.nextString());
+				break;
+			case 19:
+				target.setUsedTime(in.nextLong());
+				break;
+			case 20:
+				target.setSchedulerTaskId(in.nextLong());
+				break;
+			case 21:
+				target.setScriptPlatform(in.nextString());
+				break;
+			case 22:
+				target.setScriptType(in.nextString());
+				break;
+			default:
+				in.skipValue();
+			}
+		}
+	};
+
+	private static final Map<Class<?>, ModelAdapter<?>> ADAPTERS = new HashMap<Class<?>, ModelAdapter<?>>();
+
+	static {
+		register(APPLICATION);
+		register(APPLICATION_DEPLOYMENT);
+		register(APPLICATION_DEPLOYMENT_EVENT_LOG);
+		register(APPLICATION_DEPLOYMENT_LOG);
+		register(APPLICATION_REPO);
+		register(APPLICATION_REVISION);
+		register(CLOUD_CREDENTIAL);
+		register(CLUSTER);
+		register(CLUSTER_PARAM);
+		register(CLUSTER_ROLE);
+		register(CLUSTER_ROLE_ALERT_LOGGING);
+		register(CMDB_VM);
+		register(CONTACT_GROUP);
+		register(EVENT);
+		register(FIRE_EVENT_REQUEST);
+		register(GROUP_ENV);
+		register(KEY_PAIR);
+		register(KEY_PASSWORD);
+		register(LAUNCH_CONFIGURATION);
+		register(LOGGING);
+		register(METRIC);
+		register(METRIC_TOP);
+		register(PORT_MONITOR);
+		register(SCRIPT);
+		register(SERVER);
+		register(SERVER_METRIC);
+		register(SERVICE_CATALOG_ORDER);
+		register(SF_SERVER);
+		register(TAG);
+		register(USER_DATA);
+		register(VIEW_SCRIPTLOG);
+	}
+
+	private static void register(ModelAdapter<?> adapter) {
+		ADAPTERS.put(adapter.getType(), adapter);
+	}
+
+	private ModelAdapters() {
+	}
+
+	/**
+	 * @return 是否支持解码为type, type为模型类或元素为模型类的List/ArrayList
+	 */
+	static boolean supports(Type type) {
+		return getAdapter(type) != null;
+	}
+
+	/**
+	 * 按type解码JSON文本, type须为{@link #supports(Type)}返回true的类型
+	 *
+	 * @throws JsonSyntaxException
+	 *             不是合法的JSON, 或字段值与字段类型不符
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T decode(String json, Type type) {
+		ModelAdapter<?> adapter = getAdapter(type);
+		if (adapter == null) {
+			throw new IllegalArgumentException("no adapter for " + type);
+		}
+		JsonReader in = new JsonReader(new StringReader(json));
+		try {
+			return (T) (type instanceof Class<?> ? adapter.read(in) : adapter.readList(in));
+		} catch (IOException e) {
+			throw new JsonSyntaxException(e);
+		} catch (IllegalStateException e) {
+			throw new JsonSyntaxException(e);
+		} catch (NumberFormatException e) {
+			throw new JsonSyntaxException(e);
+		}
+	}
+
+	private static ModelAdapter<?> getAdapter(Type type) {
+		if (type instanceof ParameterizedType) {
+			ParameterizedType parameterized = (ParameterizedType) type;
+			Type raw = parameterized.getRawType();
+			if (raw != List.class && raw != ArrayList.class) {
+				return null;
+			}
+			type = parameterized.getActualTypeArguments()[0];
+		}
+		return ADAPTERS.get(type);
+	}
+}
@@ -0,0 +1,15 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 端口状态变化回调. 在探测线程中执行, 实现应尽量轻量, 耗时操作应转交其他线程
+ */
+public interface PortProbeListener {
+
+	/**
+	 * 端口状态发生变化, 包括从UNKNOWN到UP或DOWN的首次判定
+	 *
+	 * @param previous
+	 *            变化前的状态
+	 */
+	void onStatusChanged(PortProber.Target target, PortProber.Status previous);
+}
@@ -0,0 +1,451 @@
+package com.fit2cloud.sdk;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import com.fit2cloud.sdk.model.PortMonitor;
+
+/**
+ * 本地TCP端口探测. 平台的端口监控每5分钟检查一次, 本类在本地以亚秒级的间隔对端口发起TCP连接, 连接建立即为成功.
+ * 所有探测由一个线程通过一个Selector以非阻塞方式完成, 可同时探测数千个端口; 每个端口记录连接延迟的直方图(微秒),
+ * 并按连续成功/失败次数判定UP/DOWN状态, 状态变化时通知{@link PortProbeListener}.
+ * <p>
+ * 探测目标可以直接添加, 也可以从平台的端口监控定义(ip, port)加载
+ */
+public class PortProber {
+
+	public enum Status {
+		UNKNOWN, UP, DOWN
+	}
+
+	/**
+	 * 一个探测目标及其统计. 统计只由探测线程更新, 其他线程可随时读取
+	 */
+	public static class Target {
+		private final String ip;
+		private final int port;
+		private final long intervalMillis;
+		private final PortMonitor monitor;
+		private final InetSocketAddress address;
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private volatile Status status = Status.UNKNOWN;
+		private volatile long lastLatencyMicros = -1;
+		private volatile long lastCheckTime;
+		private volatile String lastError;
+		private volatile long probes;
+		private volatile long failures;
+		private int consecutiveSuccesses;
+		private int consecutiveFailures;
+		private long nextProbeNanos;
+		private volatile boolean removed;
+
+		Target(String ip, int port, long intervalMillis, PortMonitor monitor) {
+			this.ip = ip;
+			this.port = port;
+			this.intervalMillis = intervalMillis;
+			this.monitor = monitor;
+			this.address = new InetSocketAddress(ip, port);
+		}
+
+		public String getIp() {
+			return ip;
+		}
+
+		public int getPort() {
+			return port;
+		}
+
+		public long getIntervalMillis() {
+			return intervalMillis;
+		}
+
+		/**
+		 * @return 目标来源的平台端口监控定义, 直接添加的目标为null
+		 */
+		public PortMonitor getMonitor() {
+			return monitor;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+
+		/**
+		 * @return 成功连接的延迟分布, 单位微秒
+		 */
+		public LatencyHistogram getLatencies() {
+			return latencies;
+		}
+
+		/**
+		 * @return 最近一次成功连接的延迟(微秒), 从未成功时为-1
+		 */
+		public long getLastLatencyMicros() {
+			return lastLatencyMicros;
+		}
+
+		/**
+		 * @return 最近一次探测完成的时间(毫秒时间戳)
+		 */
+		public long getLastCheckTime() {
+			return lastCheckTime;
+		}
+
+		/**
+		 * @return 最近一次失败的原因
+		 */
+		public String getLastError() {
+			return lastError;
+		}
+
+		public long getProbes() {
+			return probes;
+		}
+
+		public long getFailures() {
+			return failures;
+		}
+
+		@Override
+		public String toString() {
+			return ip + ":" + port + " " + status;
+		}
+	}
+
+	/**
+	 * 一次进行中的连接
+	 */
+	private static class Probe {
+		final Target target;
+		final SocketChannel channel;
+		final long startNanos;
+		boolean registered;
+		boolean done;
+
+		Probe(Target target, SocketChannel channel, long startNanos) {
+			this.target = target;
+			this.channel = channel;
+			this.startNanos = startNanos;
+		}
+	}
+
+	private final List<Target> targets = new CopyOnWriteArrayList<Target>();
+	private final List<PortProbeListener> listeners = new CopyOnWriteArrayList<PortProbeListener>();
+	/** 其他线程新增的目标, 由探测线程取出加入调度 */
+	private final Queue<Target> added = new ConcurrentLinkedQueue<Target>();
+	private long connectTimeoutMillis = 1000;
+	private int failureThreshold = 2;
+	private int successThreshold = 1;
+	private int maxInFlight = 1024;
+	private Selector selector;
+	private Thread thread;
+	private volatile boolean running;
+	/** 已注册到Selector且未结束的连接数, 只由探测线程访问 */
+	private int active;
+
+	/**
+	 * @param connectTimeoutMillis
+	 *            连接超时, 默认1秒, 超时即为一次失败
+	 */
+	public void setConnectTimeoutMillis(long connectTimeoutMillis) {
+		this.connectTimeoutMillis = connectTimeoutMillis;
+	}
+
+	/**
+	 * @param failureThreshold
+	 *            连续失败多少次判定为DOWN, 默认2
+	 * @param successThreshold
+	 *            连续成功多少次判定为UP, 默认1
+	 */
+	public void setThresholds(int failureThreshold, int successThreshold) {
+		if (failureThreshold <= 0 || successThreshold <= 0) {
+			throw new IllegalArgumentException("thresholds must be positive");
+		}
+		this.failureThreshold = failureThreshold;
+		this.successThreshold = successThreshold;
+	}
+
+	/**
+	 * @param maxInFlight
+	 *            同时进行中的连接数上限, 默认1024, 超出时到期的探测顺延
+	 */
+	public void setMaxInFlight(int maxInFlight) {
+		this.maxInFlight = maxInFlight;
+	}
+
+	public void addListener(PortProbeListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(PortProbeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * 添加一个探测目标, 可在启动前后调用
+	 *
+	 * @param ip
+	 *            IP地址, 使用主机名时在此处解析一次
+	 * @param intervalMillis
+	 *            探测间隔
+	 */
+	public Target addTarget(String ip, int port, long intervalMillis) {
+		return add(new Target(ip, port, intervalMillis, null));
+	}
+
+	/**
+	 * 按平台端口监控定义的ip和port添加探测目标. 平台的frequency是平台侧的检查周期, 本地以intervalMillis探测
+	 */
+	public Target addPortMonitor(PortMonitor monitor, long intervalMillis) {
+		return add(new Target(monitor.getIp(), monitor.getPort(), intervalMillis, monitor));
+	}
+
+	/**
+	 * 分页拉取平台上所有的端口监控定义并添加为探测目标
+	 *
+	 * @return 新添加的目标
+	 */
+	public List<Target> loadPortMonitors(Fit2CloudClient client, long intervalMillis) throws Fit2CloudException {
+		int pageSize = 500;
+		List<Target> loaded = new ArrayList<Target>();
+		for (int pageNum = 1;; pageNum++) {
+			List<PortMonitor> page = client.getPortMonitors(pageSize, pageNum);
+			if (page == null) {
+				break;
+			}
+			for (PortMonitor monitor : page) {
+				if (monitor != null && monitor.getIp() != null && monitor.getPort() > 0) {
+					loaded.add(addPortMonitor(monitor, intervalMillis));
+				}
+			}
+			if (page.size() < pageSize) {
+				break;
+			}
+		}
+		return loaded;
+	}
+
+	private Target add(Target target) {
+		targets.add(target);
+		added.add(target);
+		Selector s = selector;
+		if (s != null) {
+			s.wakeup();
+		}
+		return target;
+	}
+
+	/**
+	 * 停止探测并移除目标
+	 */
+	public void removeTarget(Target target) {
+		target.removed = true;
+		targets.remove(target);
+	}
+
+	public List<Target> getTargets() {
+		return Collections.unmodifiableList(targets);
+	}
+
+	/**
+	 * 启动探测线程
+	 */
+	public synchronized void start() throws IOException {
+		if (running) {
+			return;
+		}
+		selector = Selector.open();
+		// 重新启动时所有目标重新进入调度
+		added.clear();
+		added.addAll(targets);
+		running = true;
+		thread = new DaemonThreadFactory("fit2cloud-port-prober").newThread(new Runnable() {
+			public void run() {
+				loop();
+			}
+		});
+		thread.start();
+	}
+
+	/**
+	 * 停止探测线程并关闭所有进行中的连接
+	 */
+	public synchronized void close() throws InterruptedException {
+		if (!running) {
+			return;
+		}
+		running = false;
+		selector.wakeup();
+		thread.join();
+	}
+
+	private void loop() {
+		PriorityQueue<Target> schedule = new PriorityQueue<Target>(64, new Comparator<Target>() {
+			public int compare(Target a, Target b) {
+				return a.nextProbeNanos < b.nextProbeNanos ? -1 : (a.nextProbeNanos == b.nextProbeNanos ? 0 : 1);
+			}
+		});
+		// 所有探测的超时相同, 按开始时间排列即按超时时间排列
+		LinkedList<Probe> inFlight = new LinkedList<Probe>();
+		long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(connectTimeoutMillis);
+		try {
+			while (running) {
+				long now = System.nanoTime();
+				for (Target target; (target = added.poll()) != null;) {
+					target.nextProbeNanos = now;
+					schedule.add(target);
+				}
+				while (!schedule.isEmpty() && schedule.peek().nextProbeNanos <= now && active < maxInFlight) {
+					Target target = schedule.poll();
+					if (target.removed) {
+						continue;
+					}
+					target.nextProbeNanos = now + TimeUnit.MILLISECONDS.toNanos(target.intervalMillis);
+					schedule.add(target);
+					Probe probe = connect(target, now);
+					if (probe != null) {
+						inFlight.add(probe);
+					}
+				}
+				while (!inFlight.isEmpty()) {
+					Probe probe = inFlight.peek();
+					if (!probe.done && now - probe.startNanos < timeoutNanos) {
+						break;
+					}
+					inFlight.poll();
+					if (!probe.done) {
+						finish(probe, now, "connect timed out");
+					}
+				}
+
+				long wait = Long.MAX_VALUE;
+				if (!schedule.isEmpty() && active < maxInFlight) {
+					wait = schedule.peek().nextProbeNanos - now;
+				}
+				if (!inFlight.isEmpty()) {
+					wait = Math.min(wait, inFlight.peek().startNanos + timeoutNanos - now);
+				}
+				long waitMillis = wait == Long.MAX_VALUE ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+				selector.select(waitMillis);
+
+				now = System.nanoTime();
+				for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext();) {
+					SelectionKey key = it.next();
+					it.remove();
+					Probe probe = (Probe) key.attachment();
+					try {
+						if (probe.channel.finishConnect()) {
+							finish(probe, now, null);
+						}
+					} catch (IOException e) {
+						finish(probe, now, e.toString());
+					}
+				}
+			}
+		} catch (IOException e) {
+			// Selector不可用, 探测线程退出
+			running = false;
+		} finally {
+			for (Probe probe : inFlight) {
+				close(probe.channel);
+			}
+			active = 0;
+			try {
+				selector.close();
+			} catch (IOException e) {
+				// 忽略
+			}
+		}
+	}
+
+	private Probe connect(Target target, long now) {
+		SocketChannel channel = null;
+		Probe probe;
+		try {
+			channel = SocketChannel.open();
+			channel.configureBlocking(false);
+			probe = new Probe(target, channel, now);
+			if (!channel.connect(target.address)) {
+				channel.register(selector, SelectionKey.OP_CONNECT, probe);
+				probe.registered = true;
+				active++;
+				return probe;
+			}
+		} catch (IOException e) {
+			close(channel);
+			finish(new Probe(target, null, now), now, e.toString());
+			return null;
+		} catch (RuntimeException e) {
+			// 如地址无法解析(UnresolvedAddressException)
+			close(channel);
+			finish(new Probe(target, null, now), now, e.toString());
+			return null;
+		}
+		// 立即连接成功, 在try之外结束探测, 避免结束过程中的异常被当作连接失败再计一次
+		finish(probe, now, null);
+		return null;
+	}
+
+	private void finish(Probe probe, long now, String error) {
+		probe.done = true;
+		if (probe.registered) {
+			active--;
+		}
+		close(probe.channel);
+		Target target = probe.target;
+		target.lastCheckTime = System.currentTimeMillis();
+		target.probes++;
+		Status previous = target.status;
+		Status next = previous;
+		if (error == null) {
+			long micros = TimeUnit.NANOSECONDS.toMicros(now - probe.startNanos);
+			target.lastLatencyMicros = micros;
+			target.latencies.record(micros);
+			target.consecutiveFailures = 0;
+			if (++target.consecutiveSuccesses >= successThreshold) {
+				next = Status.UP;
+			}
+		} else {
+			target.lastError = error;
+			target.failures++;
+			target.consecutiveSuccesses = 0;
+			if (++target.consecutiveFailures >= failureThreshold) {
+				next = Status.DOWN;
+			}
+		}
+		if (next != previous && !target.removed) {
+			target.status = next;
+			for (PortProbeListener listener : listeners) {
+				try {
+					listener.onStatusChanged(target, previous);
+				} catch (RuntimeException e) {
+					// 监听器异常不影响探测线程
+				}
+			}
+		}
+	}
+
+	private static void close(SocketChannel channel) {
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// 忽略
+			}
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.fit2cloud.sdk;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * 列表接口的字段投影. 解码时以流的方式读取响应, 只为指定的字段赋值, 其余字段(包括嵌套对象和数组)直接跳过不生成对象,
+ * 未指定的字段在结果中为null. 平台接口不支持按字段返回, 响应大小不变, 节省的是解码时间和内存.
+ * <p>
+ * 例如只需要虚机的id, name, status, remoteIP和clusterRoleId时:
+ *
+ * <pre>
+ * Projection&lt;Server&gt; projection = new Projection&lt;Server&gt;(Server.class, &quot;id&quot;, &quot;name&quot;, &quot;status&quot;,
+ * 		&quot;remoteIP&quot;, &quot;clusterRoleId&quot;);
+ * List&lt;Server&gt; servers = client.getServers(null, null, null, null, null, null, false, projection);
+ * </pre>
+ *
+ * 实例创建后不可变, 可在多个线程间共享
+ */
+public class Projection<T> {
+
+	private static final int STRING = 0;
+	private static final int LONG = 1;
+	private static final int INTEGER = 2;
+	private static final int DOUBLE = 3;
+	private static final int BOOLEAN = 4;
+	/** 其他类型(如List&lt;Tag&gt;)交给Gson解码 */
+	private static final int OTHER = 5;
+
+	private final Class<T> type;
+	private final Map<String, Field> fields = new LinkedHashMap<String, Field>();
+	private final Map<String, Integer> kinds = new LinkedHashMap<String, Integer>();
+	private final Gson gson = new Gson();
+
+	/**
+	 * @param type
+	 *            模型类, 需要有无参构造函数
+	 * @param fieldNames
+	 *            需要解码的字段名, 与模型的属性名一致
+	 * @throws IllegalArgumentException
+	 *             字段不存在或为transient字段
+	 */
+	public Projection(Class<T> type, String... fieldNames) {
+		this.type = type;
+		try {
+			type.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException(type.getName() + " has no default constructor");
+		}
+		for (String name : fieldNames) {
+			Field field = findField(type, name);
+			if (field == null || Modifier.isStatic(field.getModifiers())
+					|| Modifier.isTransient(field.getModifiers())) {
+				throw new IllegalArgumentException(type.getName() + " has no field " + name);
+			}
+			field.setAccessible(true);
+			fields.put(name, field);
+			kinds.put(name, kindOf(field.getType()));
+		}
+	}
+
+	public Class<T> getType() {
+		return type;
+	}
+
+	/**
+	 * @return 需要解码的字段名, 按构造时的顺序
+	 */
+	public Set<String> getFields() {
+		return Collections.unmodifiableSet(fields.keySet());
+	}
+
+	/**
+	 * 解码JSON数组, 响应为null时返回null
+	 *
+	 * @throws JsonSyntaxException
+	 *             响应不是合法的JSON数组, 或字段值与字段类型不符
+	 */
+	List<T> decodeList(String json) {
+		JsonReader in = new JsonReader(new StringReader(json));
+		try {
+			if (in.peek() == JsonToken.NULL) {
+				return null;
+			}
+			List<T> list = new ArrayList<T>();
+			in.beginArray();
+			while (in.hasNext()) {
+				list.add(decode(in));
+			}
+			in.endArray();
+			return list;
+		} catch (IOException e) {
+			throw new JsonSyntaxException(e);
+		} catch (IllegalStateException e) {
+			throw new JsonSyntaxException(e);
+		} catch (NumberFormatException e) {
+			throw new JsonSyntaxException(e);
+		}
+	}
+
+	private T decode(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		T target = newInstance();
+		in.beginObject();
+		while (in.hasNext()) {
+			String name = in.nextName();
+			Field field = fields.get(name);
+			if (field == null) {
+				in.skipValue();
+				continue;
+			}
+			Object value = read(in, kinds.get(name), field);
+			if (value != null || !field.getType().isPrimitive()) {
+				try {
+					field.set(target, value);
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+		in.endObject();
+		return target;
+	}
+
+	private Object read(JsonReader in, int kind, Field field) throws IOException {
+		if (kind == OTHER) {
+			return gson.fromJson(in, field.getGenericType());
+		}
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		switch (kind) {
+		case STRING:
+			return in.nextString();
+		case LONG:
+			return in.nextLong();
+		case INTEGER:
+			return in.nextInt();
+		case DOUBLE:
+			return in.nextDouble();
+		default:
+			return in.peek() == JsonToken.STRING ? Boolean.valueOf(in.nextString()) : in.nextBoolean();
+		}
+	}
+
+	private T newInstance() {
+		try {
+			return type.newInstance();
+		} catch (InstantiationException e) {
+			throw new IllegalStateException(e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Field findField(Class<?> type, String name) {
+		for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+			try {
+				return c.getDeclaredField(name);
+			} catch (NoSuchFieldException e) {
+				// 继续查找父类
+			}
+		}
+		return null;
+	}
+
+	private static int kindOf(Class<?> c) {
+		if (c == String.class) {
+			return STRING;
+		} else if (c == Long.class || c == long.class) {
+			return LONG;
+		} else if (c == Integer.class || c == int.class) {
+			return INTEGER;
+		} else if (c == Double.class || c == double.class) {
+			return DOUBLE;
+		} else if (c == Boolean.class || c == boolean.class) {
+			return BOOLEAN;
+		}
+		return OTHER;
+	}
+
+	@Override
+	public String toString() {
+		return type.getSimpleName() + fields.keySet();
+	}
+}
@@ -0,0 +1,119 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 预先编译的查询参数描述: 一个REST路径及其按顺序排列的可选查询参数, 各列表接口以静态常量持有.
+ * build时一次遍历拼出完整URL并按RFC 3986对参数值做UTF-8百分号编码.
+ * 取值为null, 不大于0的数字, 空白字符串或false的参数视为未设置, 不出现在URL中; 字符串取值会去掉首尾空白
+ */
+class QuerySpec {
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private final String path;
+	private final String[] names;
+	/** "?name=" 形式的参数前缀, 用于第一个出现的参数 */
+	private final String[] firstPrefixes;
+	/** "&name=" 形式的参数前缀 */
+	private final String[] prefixes;
+	private final int estimatedLength;
+
+	QuerySpec(String path, String... names) {
+		this.path = path;
+		this.names = names;
+		this.firstPrefixes = new String[names.length];
+		this.prefixes = new String[names.length];
+		int length = path.length();
+		for (int i = 0; i < names.length; i++) {
+			firstPrefixes[i] = "?" + names[i] + "=";
+			prefixes[i] = "&" + names[i] + "=";
+			length += prefixes[i].length() + 8;
+		}
+		this.estimatedLength = length;
+	}
+
+	/**
+	 * @param baseUrl
+	 *            REST API根地址
+	 * @param values
+	 *            与构造时参数名一一对应的取值
+	 * @return 完整的请求URL
+	 */
+	String build(String baseUrl, Object... values) {
+		if (values.length != names.length) {
+			throw new IllegalArgumentException(path + " expects " + names.length + " query values, got "
+					+ values.length);
+		}
+		StringBuilder sb = new StringBuilder(baseUrl.length() + estimatedLength);
+		sb.append(baseUrl).append(path);
+		boolean first = true;
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			if (value == null) {
+				continue;
+			}
+			if (value instanceof Number) {
+				if (((Number) value).longValue() <= 0) {
+					continue;
+				}
+				sb.append(first ? firstPrefixes[i] : prefixes[i]).append(((Number) value).longValue());
+			} else if (value instanceof Boolean) {
+				if (!((Boolean) value).booleanValue()) {
+					continue;
+				}
+				sb.append(first ? firstPrefixes[i] : prefixes[i]).append("true");
+			} else {
+				String s = value.toString();
+				int start = 0;
+				int end = s.length();
+				while (start < end && s.charAt(start) <= ' ') {
+					start++;
+				}
+				while (end > start && s.charAt(end - 1) <= ' ') {
+					end--;
+				}
+				if (start == end) {
+					continue;
+				}
+				sb.append(first ? firstPrefixes[i] : prefixes[i]);
+				encode(s, start, end, sb);
+			}
+			first = false;
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 按RFC 3986编码: 非保留字符原样输出, 其余字符按UTF-8字节输出为%XX
+	 */
+	static void encode(String s, int start, int end, StringBuilder sb) {
+		for (int i = start; i < end; i++) {
+			char c = s.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '.'
+					|| c == '_' || c == '~') {
+				sb.append(c);
+			} else if (c < 0x80) {
+				appendByte(sb, c);
+			} else if (c < 0x800) {
+				appendByte(sb, 0xC0 | (c >> 6));
+				appendByte(sb, 0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, s.charAt(++i));
+				appendByte(sb, 0xF0 | (cp >> 18));
+				appendByte(sb, 0x80 | ((cp >> 12) & 0x3F));
+				appendByte(sb, 0x80 | ((cp >> 6) & 0x3F));
+				appendByte(sb, 0x80 | (cp & 0x3F));
+			} else if (c >= '\uD800' && c <= '\uDFFF') {
+				// 不成对的代理字符, 与String.getBytes("UTF-8")一致替换为'?'
+				appendByte(sb, '?');
+			} else {
+				appendByte(sb, 0xE0 | (c >> 12));
+				appendByte(sb, 0x80 | ((c >> 6) & 0x3F));
+				appendByte(sb, 0x80 | (c & 0x3F));
+			}
+		}
+	}
+
+	private static void appendByte(StringBuilder sb, int b) {
+		sb.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+	}
+}
@@ -0,0 +1,87 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 重试预算, 用于防止平台故障时客户端的重试风暴. 每个首次请求存入ratio个令牌, 每次重试消耗1个令牌,
+ * 令牌数上限为maxTokens; 令牌不足时不再重试, 直接把失败返回给调用方
+ */
+public class RetryBudget {
+
+	private final double ratio;
+	private final double maxTokens;
+	private double tokens;
+	private long requests;
+	private long retries;
+	private long rejectedRetries;
+
+	/**
+	 * 默认允许重试量为请求量的10%, 最多积累10次重试
+	 */
+	public RetryBudget() {
+		this(0.1, 10);
+	}
+
+	/**
+	 * @param ratio
+	 *            每个首次请求存入的令牌数, 即允许的重试/请求比例
+	 * @param maxTokens
+	 *            令牌上限, 即短时间内最多允许的突发重试数
+	 */
+	public RetryBudget(double ratio, double maxTokens) {
+		if (ratio < 0 || maxTokens < 0) {
+			throw new IllegalArgumentException("ratio and maxTokens must be >= 0");
+		}
+		this.ratio = ratio;
+		this.maxTokens = maxTokens;
+		this.tokens = maxTokens;
+	}
+
+	/**
+	 * 记录一次首次请求
+	 */
+	public synchronized void onRequest() {
+		requests++;
+		tokens = Math.min(maxTokens, tokens + ratio);
+	}
+
+	/**
+	 * 申请一次重试
+	 *
+	 * @return 预算是否允许本次重试
+	 */
+	public synchronized boolean tryAcquireRetry() {
+		if (tokens >= 1) {
+			tokens -= 1;
+			retries++;
+			return true;
+		}
+		rejectedRetries++;
+		return false;
+	}
+
+	public synchronized double getAvailableTokens() {
+		return tokens;
+	}
+
+	public synchronized long getRequests() {
+		return requests;
+	}
+
+	public synchronized long getRetries() {
+		return retries;
+	}
+
+	/**
+	 * @return 因预算不足而放弃的重试次数
+	 */
+	public synchronized long getRejectedRetries() {
+		return rejectedRetries;
+	}
+
+	public double getRatio() {
+		return ratio;
+	}
+
+	public double getMaxTokens() {
+		return maxTokens;
+	}
+}
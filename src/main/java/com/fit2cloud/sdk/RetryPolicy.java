@@ -0,0 +1,115 @@
+package com.fit2cloud.sdk;
+
+import java.util.Random;
+
+/**
+ * 请求重试策略. 仅对幂等请求在网络超时/连接中断以及408,429,500,502,503,504等临时性错误时重试;
+ * 非幂等请求只在连接被拒绝(请求未发出)时重试. 两次重试之间按指数退避并加入随机抖动(full jitter)
+ */
+public class RetryPolicy {
+
+	private static final int[] DEFAULT_RETRYABLE_STATUS_CODES = { 408, 429, 500, 502, 503, 504 };
+
+	private int maxAttempts = 3;
+	private long baseDelayMillis = 100;
+	private long maxDelayMillis = 2000;
+	private long maxRetryAfterMillis = 10000;
+	private int[] retryableStatusCodes = DEFAULT_RETRYABLE_STATUS_CODES;
+
+	/**
+	 * 不做任何重试的策略
+	 */
+	public static RetryPolicy noRetry() {
+		RetryPolicy policy = new RetryPolicy();
+		policy.setMaxAttempts(1);
+		return policy;
+	}
+
+	/**
+	 * @param code
+	 *            HTTP状态码
+	 * @return 该状态码是否属于可重试的临时性错误
+	 */
+	public boolean isRetryableStatus(int code) {
+		for (int retryable : retryableStatusCodes) {
+			if (retryable == code) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 计算第retry次重试前的等待时间: random(0, min(maxDelay, baseDelay * 2^(retry-1)))
+	 *
+	 * @param retry
+	 *            重试序号, 从1开始
+	 * @param random
+	 *            随机数来源
+	 * @return 等待毫秒数
+	 */
+	public long getBackoffMillis(int retry, Random random) {
+		long ceiling = baseDelayMillis;
+		for (int i = 1; i < retry && ceiling < maxDelayMillis; i++) {
+			ceiling <<= 1;
+		}
+		if (ceiling > maxDelayMillis) {
+			ceiling = maxDelayMillis;
+		}
+		if (ceiling <= 0) {
+			return 0;
+		}
+		return (long) (random.nextDouble() * ceiling);
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * @param maxAttempts
+	 *            最大尝试次数(包含首次请求), 1表示不重试
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("maxAttempts must be >= 1");
+		}
+		this.maxAttempts = maxAttempts;
+	}
+
+	public long getBaseDelayMillis() {
+		return baseDelayMillis;
+	}
+
+	public void setBaseDelayMillis(long baseDelayMillis) {
+		this.baseDelayMillis = baseDelayMillis;
+	}
+
+	public long getMaxDelayMillis() {
+		return maxDelayMillis;
+	}
+
+	public void setMaxDelayMillis(long maxDelayMillis) {
+		this.maxDelayMillis = maxDelayMillis;
+	}
+
+	public long getMaxRetryAfterMillis() {
+		return maxRetryAfterMillis;
+	}
+
+	/**
+	 * @param maxRetryAfterMillis
+	 *            服务端Retry-After要求的等待时间超过此值时放弃重试
+	 */
+	public void setMaxRetryAfterMillis(long maxRetryAfterMillis) {
+		this.maxRetryAfterMillis = maxRetryAfterMillis;
+	}
+
+	public int[] getRetryableStatusCodes() {
+		return retryableStatusCodes.clone();
+	}
+
+	public void setRetryableStatusCodes(int[] retryableStatusCodes) {
+		this.retryableStatusCodes = retryableStatusCodes.clone();
+	}
+}
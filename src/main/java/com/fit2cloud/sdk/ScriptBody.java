@@ -0,0 +1,60 @@
+package com.fit2cloud.sdk;
+
+import java.io.UnsupportedEncodingException;
+
+/**
+ * 预先编码好的脚本内容. 构造时一次性完成表单编码和OAuth签名所需的二次编码, 之后可以在多次executeScript间复用,
+ * 向大量虚机下发同一个大脚本时不再为每个请求重复编码
+ */
+public class ScriptBody {
+
+	private final int contentLength;
+	/** 按application/x-www-form-urlencoded编码后的UTF-8字节 */
+	private final byte[] formEncoded;
+	/** 在表单编码基础上再编码一次, 即出现在OAuth签名基串中的形式 */
+	private final String signatureEncoded;
+
+	/**
+	 * @param scriptContent
+	 *            脚本内容
+	 */
+	public ScriptBody(String scriptContent) {
+		if (scriptContent == null) {
+			throw new IllegalArgumentException("scriptContent must not be null");
+		}
+		contentLength = scriptContent.length();
+		StringBuilder sb = new StringBuilder(scriptContent.length() + (scriptContent.length() >> 2) + 16);
+		QuerySpec.encode(scriptContent, 0, scriptContent.length(), sb);
+		String encoded = sb.toString();
+		try {
+			formEncoded = encoded.getBytes("US-ASCII");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+		sb.setLength(0);
+		QuerySpec.encode(encoded, 0, encoded.length(), sb);
+		signatureEncoded = sb.toString();
+	}
+
+	/**
+	 * @return 原始脚本内容的字符数
+	 */
+	public int getContentLength() {
+		return contentLength;
+	}
+
+	/**
+	 * @return 编码后在请求体中占用的字节数
+	 */
+	public int getEncodedLength() {
+		return formEncoded.length;
+	}
+
+	byte[] getFormEncoded() {
+		return formEncoded;
+	}
+
+	String getSignatureEncoded() {
+		return signatureEncoded;
+	}
+}
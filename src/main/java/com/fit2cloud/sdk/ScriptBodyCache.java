@@ -0,0 +1,127 @@
+package com.fit2cloud.sdk;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 按脚本内容缓存编码结果, 按最近使用淘汰, 总占用(脚本内容和编码结果)不超过maxBytes. 编码在锁外进行,
+ * 同一内容并发请求时只编码一次, 其他线程等待结果
+ */
+class ScriptBodyCache {
+
+	private static class Entry {
+		final FutureTask<ScriptBody> task;
+		/** 编码完成前为0 */
+		long bytes;
+
+		Entry(FutureTask<ScriptBody> task) {
+			this.task = task;
+		}
+	}
+
+	private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(8, 0.75f, true);
+	private long bytes;
+	private volatile long maxBytes;
+
+	ScriptBodyCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	ScriptBody get(final String scriptContent) {
+		// 编码前按脚本内容本身的大小估计, 放不下的脚本不进入缓存
+		if (2L * scriptContent.length() > maxBytes) {
+			return new ScriptBody(scriptContent);
+		}
+		Entry entry;
+		boolean owner = false;
+		synchronized (this) {
+			entry = entries.get(scriptContent);
+			if (entry == null) {
+				entry = new Entry(new FutureTask<ScriptBody>(new Callable<ScriptBody>() {
+					public ScriptBody call() {
+						return new ScriptBody(scriptContent);
+					}
+				}));
+				entries.put(scriptContent, entry);
+				owner = true;
+			}
+		}
+		if (owner) {
+			entry.task.run();
+		}
+		ScriptBody body;
+		try {
+			body = entry.task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new ScriptBody(scriptContent);
+		} catch (ExecutionException e) {
+			synchronized (this) {
+				if (entries.get(scriptContent) == entry) {
+					entries.remove(scriptContent);
+				}
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		if (owner) {
+			synchronized (this) {
+				if (entries.get(scriptContent) == entry) {
+					entry.bytes = sizeOf(scriptContent, body);
+					bytes += entry.bytes;
+					evict(maxBytes);
+				}
+			}
+		}
+		return body;
+	}
+
+	/**
+	 * @param maxBytes
+	 *            缓存的最大占用字节数, 0表示不缓存
+	 */
+	synchronized void setMaxBytes(long maxBytes) {
+		this.maxBytes = maxBytes;
+		evict(maxBytes);
+	}
+
+	synchronized void clear() {
+		evict(0);
+	}
+
+	/**
+	 * @return 已编码完成的缓存项的估计占用字节数
+	 */
+	synchronized long getBytes() {
+		return bytes;
+	}
+
+	synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * 从最久未使用的缓存项开始淘汰直到总占用不超过limit. 正在编码的项不计入总占用, limit为0时也一并移除,
+	 * 等待它们的线程仍能取得结果
+	 */
+	private void evict(long limit) {
+		for (Iterator<Entry> it = entries.values().iterator(); it.hasNext() && (bytes > limit || limit == 0);) {
+			Entry entry = it.next();
+			bytes -= entry.bytes;
+			it.remove();
+		}
+	}
+
+	/**
+	 * 脚本内容的字符, 表单编码的字节和签名编码的字符
+	 */
+	private static long sizeOf(String scriptContent, ScriptBody body) {
+		return 2L * scriptContent.length() + body.getEncodedLength() + 2L * body.getSignatureEncoded().length();
+	}
+}
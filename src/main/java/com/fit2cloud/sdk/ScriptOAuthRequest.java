@@ -0,0 +1,55 @@
+package com.fit2cloud.sdk;
+
+import java.io.UnsupportedEncodingException;
+
+import org.scribe.model.OAuthRequest;
+import org.scribe.model.Verb;
+import org.scribe.utils.OAuthEncoder;
+
+/**
+ * 携带预编码脚本内容的OAuth请求. 请求体直接使用{@link ScriptBody}中已编码的字节, 签名由
+ * {@link Fit2CloudBaseStringExtractor}使用其中缓存的二次编码结果, 不再对脚本内容重复编码
+ */
+class ScriptOAuthRequest extends OAuthRequest {
+
+	private final String scriptParameterName;
+	private final ScriptBody scriptBody;
+
+	ScriptOAuthRequest(Verb verb, String url, String scriptParameterName, ScriptBody scriptBody) {
+		super(verb, url);
+		this.scriptParameterName = scriptParameterName;
+		this.scriptBody = scriptBody;
+	}
+
+	/**
+	 * 在其余body参数添加完成后调用, 将它们与脚本内容拼成最终的请求体
+	 */
+	void preparePayload() {
+		byte[] parameters;
+		byte[] name;
+		try {
+			parameters = getBodyParams().asFormUrlEncodedString().getBytes("US-ASCII");
+			name = (OAuthEncoder.encode(scriptParameterName) + "=").getBytes("US-ASCII");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+		byte[] script = scriptBody.getFormEncoded();
+		int separator = parameters.length > 0 ? 1 : 0;
+		byte[] payload = new byte[parameters.length + separator + name.length + script.length];
+		System.arraycopy(parameters, 0, payload, 0, parameters.length);
+		if (separator > 0) {
+			payload[parameters.length] = '&';
+		}
+		System.arraycopy(name, 0, payload, parameters.length + separator, name.length);
+		System.arraycopy(script, 0, payload, parameters.length + separator + name.length, script.length);
+		addPayload(payload);
+	}
+
+	String getScriptParameterName() {
+		return scriptParameterName;
+	}
+
+	ScriptBody getScriptBody() {
+		return scriptBody;
+	}
+}
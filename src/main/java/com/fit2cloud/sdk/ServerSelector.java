@@ -0,0 +1,180 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fit2cloud.sdk.model.Server;
+
+/**
+ * 按集群, 虚机组, 标签或ID集合选择一组虚机, 供批量操作使用. 未设置任何条件时选择全部未销毁的虚机;
+ * 指定了ID集合时忽略其他条件
+ */
+public class ServerSelector {
+
+	private Long clusterId;
+	private Long clusterRoleId;
+	private String tagName;
+	private String tagValue;
+	private Collection<Long> serverIds;
+	private int pageSize = 1000;
+
+	public ServerSelector() {
+	}
+
+	/**
+	 * @return 选择指定虚机组的选择器
+	 */
+	public static ServerSelector clusterRole(Long clusterRoleId) {
+		ServerSelector selector = new ServerSelector();
+		selector.setClusterRoleId(clusterRoleId);
+		return selector;
+	}
+
+	/**
+	 * @return 选择指定ID的选择器
+	 */
+	public static ServerSelector ids(Collection<Long> serverIds) {
+		ServerSelector selector = new ServerSelector();
+		selector.setServerIds(serverIds);
+		return selector;
+	}
+
+	public Long getClusterId() {
+		return clusterId;
+	}
+
+	/**
+	 * @param clusterId
+	 *            只选择指定集群的虚机, 默认null
+	 */
+	public void setClusterId(Long clusterId) {
+		this.clusterId = clusterId;
+	}
+
+	public Long getClusterRoleId() {
+		return clusterRoleId;
+	}
+
+	/**
+	 * @param clusterRoleId
+	 *            只选择指定虚机组的虚机, 默认null
+	 */
+	public void setClusterRoleId(Long clusterRoleId) {
+		this.clusterRoleId = clusterRoleId;
+	}
+
+	public String getTagName() {
+		return tagName;
+	}
+
+	public String getTagValue() {
+		return tagValue;
+	}
+
+	/**
+	 * 只选择带有指定标签的虚机, 可与clusterId, clusterRoleId同时使用
+	 *
+	 * @param tagValue
+	 *            标签值, null表示不限
+	 */
+	public void setTag(String tagName, String tagValue) {
+		this.tagName = tagName;
+		this.tagValue = tagValue;
+	}
+
+	public Collection<Long> getServerIds() {
+		return serverIds;
+	}
+
+	/**
+	 * @param serverIds
+	 *            直接指定虚机ID, 设置后忽略集群, 虚机组和标签条件, 默认null
+	 */
+	public void setServerIds(Collection<Long> serverIds) {
+		this.serverIds = serverIds;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * @param pageSize
+	 *            拉取虚机列表的分页大小, 默认1000
+	 */
+	public void setPageSize(int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("pageSize must be positive");
+		}
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * 只取得选中虚机的ID. 指定了ID集合时不访问平台
+	 *
+	 * @return 去重后的虚机ID, 按首次出现的顺序排列
+	 * @throws Fit2CloudException
+	 */
+	public Set<Long> selectIds(Fit2CloudClient client) throws Fit2CloudException {
+		Set<Long> ids = new LinkedHashSet<Long>();
+		if (serverIds != null) {
+			for (Long id : serverIds) {
+				if (id != null && id.longValue() > 0) {
+					ids.add(id);
+				}
+			}
+			return ids;
+		}
+		for (Server server : list(client, new Projection<Server>(Server.class, "id"))) {
+			ids.add(server.getId());
+		}
+		return ids;
+	}
+
+	/**
+	 * 取得选中的虚机. 指定了ID集合时按ID批量查询, 不存在的虚机不包含在内
+	 *
+	 * @param projection
+	 *            列表查询时只解析的字段, null表示解析全部字段; 按标签和按ID查询时不使用
+	 * @return 去重后的虚机, 按首次出现的顺序排列
+	 * @throws Fit2CloudException
+	 */
+	public List<Server> select(Fit2CloudClient client, Projection<Server> projection) throws Fit2CloudException {
+		if (serverIds != null) {
+			return new ArrayList<Server>(client.getServers(serverIds, new BatchLookupOptions()).values());
+		}
+		return list(client, projection);
+	}
+
+	private List<Server> list(Fit2CloudClient client, Projection<Server> projection) throws Fit2CloudException {
+		Map<Long, Server> servers = new LinkedHashMap<Long, Server>();
+		for (int pageNum = 1;; pageNum++) {
+			List<Server> page;
+			if (tagName != null) {
+				page = client.getServersByTag(clusterId, clusterRoleId, tagName, tagValue, pageSize, pageNum);
+			} else if (projection != null) {
+				page = client.getServers(clusterId, clusterRoleId, null, null, pageSize, pageNum, false, projection);
+			} else {
+				page = client.getServers(clusterId, clusterRoleId, null, null, pageSize, pageNum, false);
+			}
+			if (page == null) {
+				break;
+			}
+			for (Server server : page) {
+				// 翻页期间虚机列表变化时, 相邻两页可能有重复
+				if (server != null && server.getId() != null && !servers.containsKey(server.getId())) {
+					servers.put(server.getId(), server);
+				}
+			}
+			if (page.size() < pageSize) {
+				break;
+			}
+		}
+		return new ArrayList<Server>(servers.values());
+	}
+}
@@ -0,0 +1,101 @@
+package com.fit2cloud.sdk;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 合并并发的相同请求: 同一key同时只有一个调用真正执行, 期间到达的其他调用等待并共享其结果(或异常)
+ */
+public class SingleFlight<V> {
+
+	public interface Loader<V> {
+		V load() throws Fit2CloudException;
+	}
+
+	private static class Call<V> {
+		private final CountDownLatch done = new CountDownLatch(1);
+		private V value;
+		private Throwable failure;
+
+		void complete(V value, Throwable failure) {
+			this.value = value;
+			this.failure = failure;
+			done.countDown();
+		}
+	}
+
+	private final ConcurrentMap<String, Call<V>> calls = new ConcurrentHashMap<String, Call<V>>();
+	private final AtomicLong executions = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+
+	public V execute(String key, Loader<V> loader) throws Fit2CloudException {
+		Call<V> call = new Call<V>();
+		Call<V> inFlight = calls.putIfAbsent(key, call);
+		if (inFlight != null) {
+			coalesced.incrementAndGet();
+			return await(inFlight);
+		}
+		executions.incrementAndGet();
+		Throwable failure = null;
+		V value = null;
+		try {
+			value = loader.load();
+			return value;
+		} catch (Fit2CloudException e) {
+			failure = e;
+			throw e;
+		} catch (RuntimeException e) {
+			failure = e;
+			throw e;
+		} catch (Error e) {
+			failure = e;
+			throw e;
+		} finally {
+			calls.remove(key, call);
+			call.complete(value, failure);
+		}
+	}
+
+	private V await(Call<V> call) throws Fit2CloudException {
+		try {
+			call.done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new Fit2CloudException("interrupted while waiting for in-flight request", e);
+		}
+		Throwable failure = call.failure;
+		if (failure == null) {
+			return call.value;
+		}
+		if (failure instanceof Fit2CloudException) {
+			throw (Fit2CloudException) failure;
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		throw (Error) failure;
+	}
+
+	/**
+	 * @return 实际执行的调用次数
+	 */
+	public long getExecutions() {
+		return executions.get();
+	}
+
+	/**
+	 * @return 被合并而未实际执行的调用次数, 即节省的请求数
+	 */
+	public long getCoalesced() {
+		return coalesced.get();
+	}
+
+	/**
+	 * @return 当前正在执行的key数量
+	 */
+	public int getInFlight() {
+		return calls.size();
+	}
+}
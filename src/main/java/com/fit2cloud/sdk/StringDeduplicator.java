@@ -0,0 +1,162 @@
+package com.fit2cloud.sdk;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fit2cloud.sdk.model.Logging;
+import com.fit2cloud.sdk.model.Server;
+import com.fit2cloud.sdk.model.ViewScriptlog;
+
+/**
+ * 解码结果的字符串去重. 虚机, 日志和脚本执行记录列表中集群名, 区域, 状态, 日志级别等取值很少的字段在每条记录中都是一个独立的String,
+ * 去重后相同的值共享同一个实例, 以减少长期持有这些列表时的堆占用.
+ * <p>
+ * 去重表的大小有上限, 表满后不再加入新值, 之后未登记的值原样保留. 取值少的字段通常在最初的几次查询中就已登记.
+ * 登记过的字符串在去重器被丢弃前一直保留, 因此只登记取值个数有限的字段
+ */
+public class StringDeduplicator {
+
+	private static final Map<Class<?>, Field[]> FIELDS = new HashMap<Class<?>, Field[]>();
+
+	static {
+		// 只登记取值个数与虚机数和记录数无关的字段; 虚机名, 脚本名, 线程名等每条记录不同的值会占满去重表
+		register(Server.class, "clusterName", "clusterRoleName", "vmStatus", "vmType", "vmTypeDescription", "status",
+				"region", "heartbeatStatus", "alertType", "zone", "os");
+		register(Logging.class, "clusterName", "clusterroleName", "source", "level");
+		register(ViewScriptlog.class, "clusterName", "clusterroleName", "eventSource", "scriptTrigger", "status",
+				"scriptPlatform", "scriptType");
+	}
+
+	private static void register(Class<?> type, String... names) {
+		Field[] fields = new Field[names.length];
+		for (int i = 0; i < names.length; i++) {
+			try {
+				fields[i] = type.getDeclaredField(names[i]);
+				fields[i].setAccessible(true);
+			} catch (NoSuchFieldException e) {
+				throw new IllegalStateException(type.getName() + " has no field " + names[i], e);
+			}
+		}
+		FIELDS.put(type, fields);
+	}
+
+	private final ConcurrentMap<String, String> table = new ConcurrentHashMap<String, String>();
+	private final int maxSize;
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * @param maxSize
+	 *            去重表最多保存的不同字符串数
+	 */
+	public StringDeduplicator(int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be positive");
+		}
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return 与value相等的共享实例; 表已满且value未登记时返回value本身
+	 */
+	public String deduplicate(String value) {
+		if (value == null) {
+			return null;
+		}
+		String shared = table.get(value);
+		if (shared != null) {
+			hits.incrementAndGet();
+			return shared;
+		}
+		misses.incrementAndGet();
+		if (size.get() >= maxSize) {
+			return value;
+		}
+		shared = table.putIfAbsent(value, value);
+		if (shared != null) {
+			return shared;
+		}
+		size.incrementAndGet();
+		return value;
+	}
+
+	/**
+	 * 对解码结果(单个对象或列表)中登记过的字段去重, 其他类型的结果不做处理
+	 */
+	void apply(Object decoded) {
+		if (decoded instanceof List<?>) {
+			List<?> list = (List<?>) decoded;
+			Field[] fields = null;
+			Class<?> type = null;
+			for (Object element : list) {
+				if (element == null) {
+					continue;
+				}
+				if (element.getClass() != type) {
+					type = element.getClass();
+					fields = FIELDS.get(type);
+				}
+				if (fields == null) {
+					return;
+				}
+				apply(element, fields);
+			}
+		} else if (decoded != null) {
+			Field[] fields = FIELDS.get(decoded.getClass());
+			if (fields != null) {
+				apply(decoded, fields);
+			}
+		}
+	}
+
+	private void apply(Object target, Field[] fields) {
+		try {
+			for (Field field : fields) {
+				String value = (String) field.get(target);
+				if (value != null) {
+					field.set(target, deduplicate(value));
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return 去重表中的字符串数
+	 */
+	public int getSize() {
+		return size.get();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return 命中去重表(被替换为共享实例)的次数
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return 未命中去重表的次数, 包括新登记和因表满未登记的值
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public String toString() {
+		return "StringDeduplicator [size=" + size.get() + ", maxSize=" + maxSize + ", hits=" + hits.get()
+				+ ", misses=" + misses.get() + "]";
+	}
+}
@@ -0,0 +1,164 @@
+package com.fit2cloud.sdk;
+
+/**
+ * 保留最大的k个值的最小堆, 值和键存放在基本类型数组中, 插入不分配对象. 值相同时键较小的视为较大, 使结果与插入顺序无关.
+ * 数组从较小的长度开始按需加倍, 直到容量上限, 元素较少时不占用整个容量
+ */
+class TopKHeap {
+
+	private static final int INITIAL_SIZE = 16;
+
+	private final int capacity;
+	private double[] values;
+	/** 不需要键时为null, 此时所有键视为0 */
+	private long[] keys;
+	private int size;
+
+	TopKHeap(int capacity) {
+		this(capacity, true);
+	}
+
+	/**
+	 * @param withKeys
+	 *            是否保存键, 只需要值时传false以节省内存
+	 */
+	TopKHeap(int capacity, boolean withKeys) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+		this.capacity = capacity;
+		int initial = Math.min(capacity, INITIAL_SIZE);
+		values = new double[initial];
+		keys = withKeys ? new long[initial] : null;
+	}
+
+	int capacity() {
+		return capacity;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return 是否保留了这个值
+	 */
+	boolean offer(double value, long key) {
+		if (Double.isNaN(value)) {
+			return false;
+		}
+		if (size < capacity) {
+			if (size == values.length) {
+				grow();
+			}
+			int i = size++;
+			values[i] = value;
+			if (keys != null) {
+				keys[i] = key;
+			}
+			siftUp(i);
+			return true;
+		}
+		if (!greater(value, key, values[0], key(0))) {
+			return false;
+		}
+		values[0] = value;
+		if (keys != null) {
+			keys[0] = key;
+		}
+		siftDown(0, size);
+		return true;
+	}
+
+	/**
+	 * 把另一个堆的所有元素加入本堆
+	 */
+	void addAll(TopKHeap other) {
+		for (int i = 0; i < other.size; i++) {
+			offer(other.values[i], other.key(i));
+		}
+	}
+
+	/**
+	 * 堆中最小的值, 堆满时即第k大的值
+	 */
+	double min() {
+		if (size == 0) {
+			throw new IllegalStateException("empty heap");
+		}
+		return values[0];
+	}
+
+	/**
+	 * 原地排为从大到小, 之后可以用{@link #value(int)}和{@link #key(int)}按名次读取, 但不能再调用offer
+	 */
+	void sortDescending() {
+		for (int end = size - 1; end > 0; end--) {
+			swap(0, end);
+			siftDown(0, end);
+		}
+	}
+
+	double value(int i) {
+		return values[i];
+	}
+
+	long key(int i) {
+		return keys == null ? 0 : keys[i];
+	}
+
+	private void grow() {
+		int length = (int) Math.min(capacity, 2L * values.length);
+		double[] v = new double[length];
+		System.arraycopy(values, 0, v, 0, size);
+		values = v;
+		if (keys != null) {
+			long[] k = new long[length];
+			System.arraycopy(keys, 0, k, 0, size);
+			keys = k;
+		}
+	}
+
+	private void siftUp(int i) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!greater(values[parent], key(parent), values[i], key(i))) {
+				break;
+			}
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void siftDown(int i, int end) {
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= end) {
+				break;
+			}
+			if (child + 1 < end && greater(values[child], key(child), values[child + 1], key(child + 1))) {
+				child++;
+			}
+			if (!greater(values[i], key(i), values[child], key(child))) {
+				break;
+			}
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	private void swap(int a, int b) {
+		double v = values[a];
+		values[a] = values[b];
+		values[b] = v;
+		if (keys != null) {
+			long k = keys[a];
+			keys[a] = keys[b];
+			keys[b] = k;
+		}
+	}
+
+	private static boolean greater(double v1, long k1, double v2, long k2) {
+		return v1 > v2 || (v1 == v2 && k1 < k2);
+	}
+}
@@ -1,7 +1,5 @@
 package com.fit2cloud.sdk.model;
 
-import java.awt.*;
-
 /**
  * Created by linjinbo on 2017/9/3.
  */
@@ -12,7 +10,8 @@ public class ApplicationDeploymentEventLog {
     private Long startTime;
     private Long endTime;
     private String status;
-    private TextArea eventLog;
+    private String eventLog;
+    private transient volatile LazyText lazyEventLog;
     private Integer eventId;
     private Integer responseCode;
     private String msg;
@@ -66,12 +65,18 @@ public class ApplicationDeploymentEventLog {
         this.status = status;
     }
 
-    public TextArea getEventLog() {
+    public String getEventLog() {
+        LazyText lazy = lazyEventLog;
+        if (eventLog == null && lazy != null) {
+            eventLog = lazy.toString();
+            lazyEventLog = null;
+        }
         return eventLog;
     }
 
-    public void setEventLog(TextArea eventLog) {
+    public void setEventLog(String eventLog) {
         this.eventLog = eventLog;
+        this.lazyEventLog = null;
     }
 
     public Integer getEventId() {
@@ -15,6 +15,7 @@ public class Event {
 	private String targetClusterRoleIds;
 	private String targetServerIds;
 	private String eventData;
+	private transient volatile LazyText lazyEventData;
 	private String eventSource;
 	private String eventSourceVersion;
 	private Long createdTime;
@@ -107,10 +108,16 @@ public class Event {
 		this.targetServerIds = targetServerIds;
 	}
 	public String getEventData() {
+		LazyText lazy = lazyEventData;
+		if (eventData == null && lazy != null) {
+			eventData = lazy.toString();
+			lazyEventData = null;
+		}
 		return eventData;
 	}
 	public void setEventData(String eventData) {
 		this.eventData = eventData;
+		this.lazyEventData = null;
 	}
 	public String getEventSource() {
 		return eventSource;
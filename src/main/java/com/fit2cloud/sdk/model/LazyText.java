@@ -0,0 +1,68 @@
+package com.fit2cloud.sdk.model;
+
+/**
+ * 延迟解码的文本字段: 引用原始响应中JSON字符串字面量(不含引号, 仍带转义)的区间, 首次toString时才还原为String.
+ * 持有期间会使整个响应字符串无法回收, 字段被读取后即释放引用
+ */
+public final class LazyText {
+
+	private final String source;
+	private final int start;
+	private final int end;
+
+	public LazyText(String source, int start, int end) {
+		this.source = source;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * @return 转义前的长度, 即在响应中占用的字符数
+	 */
+	public int getRawLength() {
+		return end - start;
+	}
+
+	@Override
+	public String toString() {
+		int escape = source.indexOf('\\', start);
+		if (escape < 0 || escape >= end) {
+			return source.substring(start, end);
+		}
+		StringBuilder sb = new StringBuilder(end - start);
+		sb.append(source, start, escape);
+		for (int i = escape; i < end; i++) {
+			char c = source.charAt(i);
+			if (c != '\\') {
+				sb.append(c);
+				continue;
+			}
+			c = source.charAt(++i);
+			switch (c) {
+			case 'b':
+				sb.append('\b');
+				break;
+			case 'f':
+				sb.append('\f');
+				break;
+			case 'n':
+				sb.append('\n');
+				break;
+			case 'r':
+				sb.append('\r');
+				break;
+			case 't':
+				sb.append('\t');
+				break;
+			case 'u':
+				sb.append((char) Integer.parseInt(source.substring(i + 1, i + 5), 16));
+				i += 4;
+				break;
+			default:
+				// \" \\ \/ 以及其他字符原样保留
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+}
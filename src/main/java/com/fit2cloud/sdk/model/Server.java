@@ -30,6 +30,7 @@ public class Server {
 	private String rabbitmqQueue;
 	private Long sshPort;
 	private String customData;
+	private transient volatile LazyText lazyCustomData;
 	private Long credentialId;
 	private Long launchConfigurationId;
 	private String machineId;
@@ -175,10 +176,16 @@ public class Server {
 		this.sshPort = sshPort;
 	}
 	public String getCustomData() {
+		LazyText lazy = lazyCustomData;
+		if (customData == null && lazy != null) {
+			customData = lazy.toString();
+			lazyCustomData = null;
+		}
 		return customData;
 	}
 	public void setCustomData(String customData) {
 		this.customData = customData;
+		this.lazyCustomData = null;
 	}
 	public Long getCredentialId() {
 		return credentialId;
@@ -236,7 +243,7 @@ public class Server {
 				+ ", alertType=" + alertType + ", zone=" + zone + ", hostname="
 				+ hostname + ", keyPasswordId=" + keyPasswordId
 				+ ", rabbitmqQueue=" + rabbitmqQueue + ", sshPort=" + sshPort
-				+ ", customData=" + customData + ", credentialId="
+				+ ", customData=" + getCustomData() + ", credentialId="
 				+ credentialId + ", launchConfigurationId="
 				+ launchConfigurationId + ", machineId=" + machineId + ", os="
 				+ os + ", agentVersion=" + agentVersion + "]";
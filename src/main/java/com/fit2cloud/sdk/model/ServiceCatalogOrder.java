@@ -10,6 +10,7 @@ public class ServiceCatalogOrder {
     private String orderStatus;
     private Long productId;
     private String orderContent;
+    private transient volatile LazyText lazyOrderContent;
     private String rejectReason;
     private Long clusterId;
     private Long clusterRoleId;
@@ -70,10 +71,16 @@ public class ServiceCatalogOrder {
 		this.productId = productId;
 	}
 	public String getOrderContent() {
+		LazyText lazy = lazyOrderContent;
+		if (orderContent == null && lazy != null) {
+			orderContent = lazy.toString();
+			lazyOrderContent = null;
+		}
 		return orderContent;
 	}
 	public void setOrderContent(String orderContent) {
 		this.orderContent = orderContent;
+		this.lazyOrderContent = null;
 	}
 	public String getRejectReason() {
 		return rejectReason;
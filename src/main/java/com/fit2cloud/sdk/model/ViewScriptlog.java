@@ -16,6 +16,7 @@ public class ViewScriptlog {
 	private String eventName;
 	private String eventUuid;
 	private String eventData;
+	private transient volatile LazyText lazyEventData;
 	private Long correlationEventId;
 	private Long eventTimestamp;
 	private Long scriptId;
@@ -102,10 +103,16 @@ public class ViewScriptlog {
 		this.eventUuid = eventUuid;
 	}
 	public String getEventData() {
+		LazyText lazy = lazyEventData;
+		if (eventData == null && lazy != null) {
+			eventData = lazy.toString();
+			lazyEventData = null;
+		}
 		return eventData;
 	}
 	public void setEventData(String eventData) {
 		this.eventData = eventData;
+		this.lazyEventData = null;
 	}
 	public Long getCorrelationEventId() {
 		return correlationEventId;
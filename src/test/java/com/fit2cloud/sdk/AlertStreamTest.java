@@ -0,0 +1,146 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+public class AlertStreamTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	/** 按开始时间倒序排列的告警JSON */
+	private final List<String> alerts = new ArrayList<String>();
+	private final AtomicInteger requests = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				requests.incrementAndGet();
+				int pageSize = Integer.parseInt(BatchLookupTest.queryParam(path, "pageSize"));
+				int pageNum = Integer.parseInt(BatchLookupTest.queryParam(path, "pageNum"));
+				StringBuilder sb = new StringBuilder("[");
+				synchronized (alerts) {
+					for (int i = (pageNum - 1) * pageSize; i < Math.min(alerts.size(), pageNum * pageSize); i++) {
+						sb.append(sb.length() > 1 ? "," : "").append(alerts.get(i));
+					}
+				}
+				return new StubResponse(200, sb.append(']').toString());
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	private void raise(long id, long startTime, Long endTime) {
+		String json = "{\"id\":" + id + ",\"startTime\":" + startTime + ",\"endTime\":" + endTime
+				+ ",\"alertType\":\"WARN\"}";
+		synchronized (alerts) {
+			for (int i = 0; i < alerts.size(); i++) {
+				if (alerts.get(i).startsWith("{\"id\":" + id + ",")) {
+					alerts.set(i, json);
+					return;
+				}
+			}
+			alerts.add(0, json);
+		}
+	}
+
+	@Test
+	public void testRaisedAndResolvedAfterWatermark() throws Exception {
+		for (long id = 1; id <= 10; id++) {
+			raise(id, id * 100, null);
+		}
+		AlertStream stream = new AlertStream(client);
+		stream.setPageSize(3);
+		stream.setWatermark(800, 8);
+		assertEquals("[RAISED alert 9 at 900, RAISED alert 10 at 1000]", stream.poll().toString());
+		assertEquals(1000, stream.getWatermarkStartTime());
+		assertEquals(2, stream.getOpenAlertCount());
+
+		// 新告警把旧告警推到后面的页, 已跟踪的告警9解除
+		raise(9, 900, 1150L);
+		raise(11, 1100, null);
+		raise(12, 1200, 1250L);
+		requests.set(0);
+		assertEquals("[RAISED alert 11 at 1100, RESOLVED alert 9 at 1150, RAISED alert 12 at 1200, "
+				+ "RESOLVED alert 12 at 1250]", stream.poll().toString());
+		assertEquals(2, requests.get());
+		assertEquals(2, stream.getOpenAlertCount());
+
+		requests.set(0);
+		assertEquals(0, stream.poll().size());
+		assertEquals(2, requests.get());
+	}
+
+	@Test
+	public void testOverflowIsCaughtUpByNextPoll() throws Exception {
+		for (long id = 1; id <= 12; id++) {
+			raise(id, id * 100, null);
+		}
+		AlertStream stream = new AlertStream(client);
+		stream.setPageSize(3);
+		stream.setMaxPages(3);
+		// 只能翻到告警4, 水位停在缺口下沿
+		assertEquals(9, stream.poll().size());
+		assertTrue(stream.hasGap());
+		assertEquals(0, stream.getWatermarkStartTime());
+
+		// 翻过新告警后直接跳到告警4所在的页
+		raise(13, 1300, null);
+		requests.set(0);
+		assertEquals("[RAISED alert 1 at 100, RAISED alert 2 at 200, RAISED alert 3 at 300, RAISED alert 13 at 1300]",
+				stream.poll().toString());
+		assertEquals(3, requests.get());
+		assertFalse(stream.hasGap());
+		assertEquals(0, stream.getSkippedGaps());
+		assertEquals(1300, stream.getWatermarkStartTime());
+		assertEquals(13, stream.getOpenAlertCount());
+	}
+
+	@Test
+	public void testGapIsCountedWhenOverflowingAgain() throws Exception {
+		for (long id = 1; id <= 12; id++) {
+			raise(id, id * 100, null);
+		}
+		AlertStream stream = new AlertStream(client);
+		stream.setPageSize(3);
+		stream.setMaxPages(3);
+		stream.poll();
+		for (long id = 13; id <= 22; id++) {
+			raise(id, id * 100, null);
+		}
+		assertEquals(9, stream.poll().size());
+		assertTrue(stream.hasGap());
+		assertEquals(1, stream.getSkippedGaps());
+		assertEquals(1200, stream.getWatermarkStartTime());
+	}
+
+	@Test
+	public void testUnsortedPageIsRejected() throws Exception {
+		raise(2, 200, null);
+		raise(1, 100, null);
+		AlertStream stream = new AlertStream(client);
+		try {
+			stream.poll();
+			fail();
+		} catch (Fit2CloudException e) {
+			assertEquals(0, stream.getWatermarkStartTime());
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.MetricTop;
+
+public class AllTopMetricsTest {
+
+	private static final long DATA_DELAY = 150;
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	private final AtomicInteger metricListRequests = new AtomicInteger();
+	private final AtomicInteger dataRequests = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	private volatile String metricList = "[{\"metricName\":\"cpu\",\"unit\":\"%\"},"
+			+ "{\"metricName\":\"memory\",\"unit\":\"%\"},{\"metricName\":\"disk\",\"unit\":\"%\"}]";
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				if (path.startsWith("/rest/top/metrics")) {
+					metricListRequests.incrementAndGet();
+					return new StubResponse(200, metricList);
+				}
+				if (path.startsWith("/rest/top/metric/data")) {
+					dataRequests.incrementAndGet();
+					int current = inFlight.incrementAndGet();
+					for (int max = maxInFlight.get(); current > max && !maxInFlight.compareAndSet(max, current);) {
+						max = maxInFlight.get();
+					}
+					try {
+						Thread.sleep(DATA_DELAY);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						inFlight.decrementAndGet();
+					}
+					String metric = BatchLookupTest.queryParam(path, "metric");
+					int limit = Integer.parseInt(BatchLookupTest.queryParam(path, "limit"));
+					StringBuilder sb = new StringBuilder("[");
+					for (int i = 0; i < limit; i++) {
+						sb.append(sb.length() > 1 ? "," : "").append("{\"serverId\":").append(i + 1)
+								.append(",\"metricName\":\"").append(metric).append("\",\"metricValue\":")
+								.append(100 - i).append('}');
+					}
+					return new StubResponse(200, sb.append(']').toString());
+				}
+				return new StubResponse(404, "unknown path " + path);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testFetchesAllMetricsConcurrently() throws Exception {
+		long start = System.currentTimeMillis();
+		Map<String, List<MetricTop>> tops = client.getAllTopMetricData(3);
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertEquals(Arrays.asList("cpu", "memory", "disk"), new ArrayList<String>(tops.keySet()));
+		for (Map.Entry<String, List<MetricTop>> entry : tops.entrySet()) {
+			assertEquals(3, entry.getValue().size());
+			assertEquals(entry.getKey(), entry.getValue().get(0).getMetricName());
+			assertEquals(100, entry.getValue().get(0).getMetricValue(), 0);
+		}
+		assertEquals(3, dataRequests.get());
+		assertTrue("metrics were fetched sequentially: " + elapsed + "ms", elapsed < 3 * DATA_DELAY);
+	}
+
+	@Test
+	public void testConcurrentCallersShareOneFetchAndCache() throws Exception {
+		ExecutorService viewers = Executors.newFixedThreadPool(10);
+		try {
+			final CountDownLatch go = new CountDownLatch(1);
+			List<Future<Map<String, List<MetricTop>>>> futures = new ArrayList<Future<Map<String, List<MetricTop>>>>();
+			for (int i = 0; i < 10; i++) {
+				futures.add(viewers.submit(new Callable<Map<String, List<MetricTop>>>() {
+					public Map<String, List<MetricTop>> call() throws Exception {
+						go.await();
+						return client.getAllTopMetricData(5);
+					}
+				}));
+			}
+			go.countDown();
+			Map<String, List<MetricTop>> first = futures.get(0).get();
+			for (Future<Map<String, List<MetricTop>>> future : futures) {
+				assertSame(first, future.get());
+			}
+			assertEquals(1, metricListRequests.get());
+			assertEquals(3, dataRequests.get());
+
+			// 缓存期内不再访问平台, 不同的limit单独缓存
+			assertSame(first, client.getAllTopMetricData(5));
+			assertEquals(3, dataRequests.get());
+			assertEquals(2, client.getAllTopMetricData(2).get("cpu").size());
+			assertEquals(6, dataRequests.get());
+		} finally {
+			viewers.shutdown();
+		}
+	}
+
+	@Test
+	public void testCacheExpires() throws Exception {
+		client.setTopMetricsCacheMillis(50);
+		Map<String, List<MetricTop>> first = client.getAllTopMetricData(1);
+		Thread.sleep(80);
+		Map<String, List<MetricTop>> second = client.getAllTopMetricData(1);
+		assertTrue(first != second);
+		assertEquals(2, metricListRequests.get());
+		assertEquals(6, dataRequests.get());
+	}
+
+	@Test
+	public void testEmptyMetricListResponse() throws Exception {
+		metricList = "";
+		assertTrue(client.getAllTopMetricData(3).isEmpty());
+		assertEquals(0, dataRequests.get());
+	}
+
+	@Test
+	public void testParallelismIsBounded() throws Exception {
+		StringBuilder sb = new StringBuilder("[");
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < 6; i++) {
+			names.add("metric" + i);
+			sb.append(i > 0 ? "," : "").append("{\"metricName\":\"metric").append(i).append("\"}");
+		}
+		metricList = sb.append(']').toString();
+		client.setTopMetricsParallelism(2);
+
+		Map<String, List<MetricTop>> tops = client.getAllTopMetricData(1);
+		assertEquals(names, new ArrayList<String>(tops.keySet()));
+		assertEquals("metric5", tops.get("metric5").get(0).getMetricName());
+		assertEquals(6, dataRequests.get());
+		assertEquals(2, maxInFlight.get());
+	}
+}
@@ -0,0 +1,54 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量按ID查询虚机的基准测试, 针对本地桩服务(每个请求5ms延迟)比较逐个查询与不同并发度/分块大小下的批量查询.
+ * 运行: java -cp ... com.fit2cloud.sdk.BatchLookupBenchmark [ids] [fleetSize]
+ */
+public class BatchLookupBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int idCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int fleetSize = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+		StubFit2CloudServer server = new StubFit2CloudServer(BatchLookupTest.fleet(fleetSize, 5));
+		try {
+			Fit2CloudClient client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+			List<Long> ids = new ArrayList<Long>(idCount);
+			for (int i = 0; i < idCount; i++) {
+				ids.add((long) (i * 7 % fleetSize) + 1);
+			}
+
+			long start = System.currentTimeMillis();
+			for (Long id : ids.subList(0, Math.min(200, ids.size()))) {
+				client.getServer(id);
+			}
+			long sequential = System.currentTimeMillis() - start;
+			System.out.printf("sequential getServer: %d ms per 200 ids (~%d ms for %d ids)%n", sequential,
+					sequential * idCount / 200, idCount);
+
+			int[][] configs = { { 4, 50 }, { 8, 50 }, { 16, 50 }, { 16, 10 }, { 32, 50 } };
+			for (int[] config : configs) {
+				BatchLookupOptions options = new BatchLookupOptions();
+				options.setParallelism(config[0]);
+				options.setChunkSize(config[1]);
+				options.setListThreshold(Integer.MAX_VALUE);
+				report(client, ids, options, "parallel=" + config[0] + " chunk=" + config[1]);
+			}
+			BatchLookupOptions listScan = new BatchLookupOptions();
+			listScan.setListThreshold(0);
+			report(client, ids, listScan, "list scan pageSize=" + listScan.getListPageSize());
+		} finally {
+			server.close();
+		}
+	}
+
+	private static void report(Fit2CloudClient client, List<Long> ids, BatchLookupOptions options, String label)
+			throws Fit2CloudException {
+		long start = System.currentTimeMillis();
+		int found = client.getServers(ids, options).size();
+		long elapsed = System.currentTimeMillis() - start;
+		System.out.printf("%-28s %6d ms, %d servers%n", label, elapsed, found);
+	}
+}
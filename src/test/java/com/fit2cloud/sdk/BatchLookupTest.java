@@ -0,0 +1,103 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.Server;
+
+public class BatchLookupTest {
+
+	/**
+	 * 模拟一个有fleetSize台虚机的平台, 单查接口带固定延迟, ID大于fleetSize的虚机不存在
+	 */
+	static StubFit2CloudServer.Handler fleet(final int fleetSize, final long latencyMillis) {
+		return new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				if (path.startsWith("/rest/server/")) {
+					long id = Long.parseLong(path.substring("/rest/server/".length()));
+					if (id > fleetSize) {
+						return new StubResponse(404, "server not found", latencyMillis);
+					}
+					return new StubResponse(200, serverJson(id), latencyMillis);
+				}
+				if (path.startsWith("/rest/servers")) {
+					int pageSize = Integer.parseInt(queryParam(path, "pageSize"));
+					int pageNum = Integer.parseInt(queryParam(path, "pageNum"));
+					StringBuilder sb = new StringBuilder("[");
+					for (long id = (long) (pageNum - 1) * pageSize + 1; id <= Math.min(fleetSize, (long) pageNum
+							* pageSize); id++) {
+						if (sb.length() > 1) {
+							sb.append(',');
+						}
+						sb.append(serverJson(id));
+					}
+					return new StubResponse(200, sb.append(']').toString(), latencyMillis);
+				}
+				return new StubResponse(404, "unknown path " + path);
+			}
+		};
+	}
+
+	static String serverJson(long id) {
+		return "{\"id\":" + id + ",\"name\":\"server-" + id + "\",\"status\":\"running\",\"clusterRoleId\":"
+				+ (id % 10) + "}";
+	}
+
+	static String queryParam(String path, String name) {
+		for (String pair : path.substring(path.indexOf('?') + 1).split("&")) {
+			if (pair.startsWith(name + "=")) {
+				return pair.substring(name.length() + 1);
+			}
+		}
+		return null;
+	}
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(fleet(100, 0));
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testParallelLookupDeduplicatesAndSkipsMissing() throws Exception {
+		BatchLookupOptions options = new BatchLookupOptions();
+		options.setChunkSize(3);
+		options.setParallelism(4);
+		Map<Long, Server> servers = client.getServers(Arrays.asList(5L, 7L, 5L, 500L, 9L, 7L, 1L), options);
+		assertEquals(Arrays.asList(5L, 7L, 9L, 1L), new ArrayList<Long>(servers.keySet()));
+		assertEquals("server-9", servers.get(9L).getName());
+		assertEquals(5, server.getRequestCount());
+	}
+
+	@Test
+	public void testLargeLookupScansList() throws Exception {
+		List<Long> ids = new ArrayList<Long>();
+		for (long id = 1; id <= 120; id += 2) {
+			ids.add(id);
+		}
+		BatchLookupOptions options = new BatchLookupOptions();
+		options.setListThreshold(50);
+		options.setListPageSize(40);
+		Map<Long, Server> servers = client.getServers(ids, options);
+		assertEquals(50, servers.size());
+		assertEquals("server-99", servers.get(99L).getName());
+		assertEquals(3, server.getRequestCount());
+	}
+}
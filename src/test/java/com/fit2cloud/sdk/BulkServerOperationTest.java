@@ -0,0 +1,245 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+public class BulkServerOperationTest {
+
+	private static final long REQUEST_DELAY = 30;
+	private static final long TRANSITION_MILLIS = 150;
+	private static final long REJECTED = 5;
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	/** 虚机id -> vmStatus, 操作后的状态在TRANSITION_MILLIS后生效 */
+	private final Map<Long, String> vmStatus = new ConcurrentHashMap<Long, String>();
+	private final Map<Long, Long> transitionAt = new ConcurrentHashMap<Long, Long>();
+	private final Map<Long, String> transitionTo = new ConcurrentHashMap<Long, String>();
+	private final AtomicInteger operations = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) throws Exception {
+				for (String action : new String[] { "stopserver", "terminateserver" }) {
+					String prefix = "/rest/" + action + "/server/";
+					if (path.startsWith(prefix)) {
+						return operate(Long.parseLong(path.substring(prefix.length())),
+								action.equals("stopserver") ? "Stopped" : null);
+					}
+				}
+				if (path.startsWith("/rest/server/")) {
+					long id = Long.parseLong(path.substring("/rest/server/".length()));
+					String status = status(id);
+					if (status == null) {
+						return new StubResponse(404, "server not found");
+					}
+					return new StubResponse(200, "{\"id\":" + id + ",\"vmStatus\":\"" + status + "\"}");
+				}
+				return new StubResponse(404, "unknown path " + path);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+		for (long id = 1; id <= 20; id++) {
+			vmStatus.put(id, "Running");
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	private StubResponse operate(long id, String target) throws InterruptedException {
+		operations.incrementAndGet();
+		int current = inFlight.incrementAndGet();
+		while (true) {
+			int max = maxInFlight.get();
+			if (current <= max || maxInFlight.compareAndSet(max, current)) {
+				break;
+			}
+		}
+		try {
+			Thread.sleep(REQUEST_DELAY);
+			if (id == REJECTED) {
+				return new StubResponse(400, "operation rejected");
+			}
+			vmStatus.put(id, "Pending");
+			transitionTo.put(id, target == null ? "" : target);
+			transitionAt.put(id, System.currentTimeMillis() + TRANSITION_MILLIS);
+			return new StubResponse(200, "true");
+		} finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return 当前vmStatus, 已删除的虚机返回null
+	 */
+	private String status(long id) {
+		Long at = transitionAt.get(id);
+		if (at != null && System.currentTimeMillis() >= at) {
+			String target = transitionTo.get(id);
+			if (target.length() == 0) {
+				vmStatus.remove(id);
+			} else {
+				vmStatus.put(id, target);
+			}
+			transitionAt.remove(id);
+		}
+		return vmStatus.get(id);
+	}
+
+	private static List<Long> ids(long from, long to) {
+		List<Long> ids = new ArrayList<Long>();
+		for (long id = from; id <= to; id++) {
+			ids.add(id);
+		}
+		return ids;
+	}
+
+	@Test
+	public void testStopAndWaitWithBoundedConcurrency() throws Exception {
+		BulkServerOperation operation = new BulkServerOperation(client, BulkServerOperation.Action.STOP);
+		operation.setSelector(ServerSelector.ids(ids(1, 20)));
+		operation.setParallelism(4);
+		operation.setWaitForStatus(true);
+		operation.setPollIntervalMillis(50);
+		BulkServerOperation.Report report = operation.run();
+
+		assertEquals(20, operations.get());
+		assertTrue("max in flight " + maxInFlight.get(), maxInFlight.get() <= 4);
+		assertEquals(19, report.getResults(BulkServerOperation.Status.SUCCEEDED).size());
+		List<BulkServerOperation.Result> failed = report.getResults(BulkServerOperation.Status.FAILED);
+		assertEquals(1, failed.size());
+		assertEquals(REJECTED, failed.get(0).getServerId());
+		for (BulkServerOperation.Result result : report.getResults(BulkServerOperation.Status.SUCCEEDED)) {
+			assertEquals("Stopped", result.getServer().getVmStatus());
+			assertTrue(result.getDurationMillis() >= TRANSITION_MILLIS);
+		}
+		assertTrue(report.getRequestPercentile(0.5) >= REQUEST_DELAY);
+		assertTrue(report.getDurationPercentile(0.95) >= report.getDurationPercentile(0.5));
+		assertTrue(report.getDurationPercentile(0.5) >= TRANSITION_MILLIS);
+	}
+
+	@Test
+	public void testRateLimitAndSkip() throws Exception {
+		for (long id = 1; id <= 10; id++) {
+			vmStatus.put(id, "Stopped");
+		}
+		BulkServerOperation operation = new BulkServerOperation(client, BulkServerOperation.Action.STOP);
+		operation.setSelector(ServerSelector.ids(ids(1, 20)));
+		operation.setParallelism(10);
+		operation.setMaxRequestsPerSecond(50);
+		operation.setSkipInTargetStatus(true);
+		long start = System.currentTimeMillis();
+		BulkServerOperation.Report report = operation.run();
+		long elapsed = System.currentTimeMillis() - start;
+
+		assertEquals(10, report.getResults(BulkServerOperation.Status.SKIPPED).size());
+		assertEquals(10, operations.get());
+		// 10个请求按每秒50个发出, 首尾间隔至少180ms
+		assertTrue("finished in " + elapsed + "ms", elapsed >= 180);
+	}
+
+	@Test
+	public void testTerminateWaitsUntilServersDisappear() throws Exception {
+		BulkServerOperation operation = new BulkServerOperation(client, BulkServerOperation.Action.TERMINATE);
+		operation.setSelector(ServerSelector.ids(ids(11, 15)));
+		operation.setWaitForStatus(true);
+		operation.setPollIntervalMillis(50);
+		BulkServerOperation.Report report = operation.run();
+
+		assertTrue(report.toString(), report.isSucceeded());
+		assertEquals(5, report.getResults(BulkServerOperation.Status.SUCCEEDED).size());
+		for (long id = 11; id <= 15; id++) {
+			assertTrue(!vmStatus.containsKey(id));
+		}
+	}
+
+	@Test
+	public void testWaitTimeout() throws Exception {
+		BulkServerOperation operation = new BulkServerOperation(client, BulkServerOperation.Action.STOP);
+		operation.setSelector(ServerSelector.ids(ids(1, 3)));
+		operation.setWaitForStatus(true);
+		operation.setTargetStatuses("Hibernated");
+		operation.setPollIntervalMillis(20);
+		operation.setWaitTimeoutMillis(100);
+		BulkServerOperation.Report report = operation.run();
+
+		assertEquals(3, report.getResults(BulkServerOperation.Status.FAILED).size());
+		assertTrue(report.getResults().get(0).getMessage().contains("did not reach"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testSelectorIsRequired() throws Exception {
+		new BulkServerOperation(client, BulkServerOperation.Action.TERMINATE).run();
+	}
+
+	@Test
+	public void testMissingIdsAreReportedWhenSkipping() throws Exception {
+		BulkServerOperation operation = new BulkServerOperation(client, BulkServerOperation.Action.STOP);
+		List<Long> ids = ids(1, 2);
+		ids.add(99L);
+		operation.setSelector(ServerSelector.ids(ids));
+		operation.setSkipInTargetStatus(true);
+		BulkServerOperation.Report report = operation.run();
+
+		assertEquals(3, report.getResults().size());
+		List<BulkServerOperation.Result> failed = report.getResults(BulkServerOperation.Status.FAILED);
+		assertEquals(1, failed.size());
+		assertEquals(99, failed.get(0).getServerId());
+		assertTrue(failed.get(0).getMessage().contains("not found"));
+		assertEquals(2, report.getResults(BulkServerOperation.Status.SUCCEEDED).size());
+	}
+
+	@Test
+	public void testInterruptReturnsPartialReport() throws Exception {
+		final BulkServerOperation operation = new BulkServerOperation(client, BulkServerOperation.Action.STOP);
+		operation.setSelector(ServerSelector.ids(ids(1, 20)));
+		operation.setParallelism(2);
+		operation.setMaxRequestsPerSecond(10);
+		operation.setWaitForStatus(true);
+		operation.setPollIntervalMillis(50);
+		final BulkServerOperation.Report[] report = new BulkServerOperation.Report[1];
+		final boolean[] interrupted = new boolean[1];
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				try {
+					report[0] = operation.run();
+					interrupted[0] = Thread.currentThread().isInterrupted();
+				} catch (Fit2CloudException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+		thread.start();
+		Thread.sleep(350);
+		thread.interrupt();
+		thread.join(5000);
+
+		assertTrue(interrupted[0]);
+		assertTrue(report[0].isInterrupted());
+		assertTrue(!report[0].isSucceeded());
+		assertEquals(20, report[0].getResults().size());
+		int skipped = report[0].getResults(BulkServerOperation.Status.SKIPPED).size();
+		assertTrue("skipped " + skipped, skipped > 0 && skipped < 20);
+		for (BulkServerOperation.Result result : report[0].getResults()) {
+			assertTrue(result.toString(), result.getStatus() != BulkServerOperation.Status.PENDING);
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+public class CircuitBreakerTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	private volatile int status;
+	private volatile long delayMillis;
+	private final List<String> transitions = new ArrayList<String>();
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(status, status == 200 ? "{\"id\":1}" : "unavailable", delayMillis);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+		client.setRetryPolicy(RetryPolicy.noRetry());
+		CircuitBreakerPolicy policy = new CircuitBreakerPolicy();
+		policy.setFailureThreshold(2);
+		policy.setOpenDurationMillis(50);
+		client.setCircuitBreakerPolicy(policy);
+		client.addCircuitBreakerListener(new CircuitBreakerListener() {
+			public void onStateChange(String endpoint, String group, CircuitBreaker.State from, CircuitBreaker.State to) {
+				synchronized (transitions) {
+					transitions.add(group + ":" + from + "->" + to);
+				}
+			}
+		});
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testOpenFastFailsAndHalfOpenProbeCloses() throws Exception {
+		status = 503;
+		for (int i = 0; i < 2; i++) {
+			try {
+				client.getServer(1);
+				fail();
+			} catch (CircuitBreakerOpenException e) {
+				fail();
+			} catch (Fit2CloudException e) {
+				assertEquals("unavailable", e.getMessage());
+			}
+		}
+		assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker("server").getState());
+		try {
+			client.getServer(1);
+			fail();
+		} catch (CircuitBreakerOpenException e) {
+			assertEquals("server", e.getGroup());
+		}
+		assertEquals(2, server.getRequestCount());
+
+		// 其他接口分组不受影响
+		status = 200;
+		client.getCluster(1);
+		assertEquals(3, server.getRequestCount());
+
+		Thread.sleep(60);
+		client.getServer(1);
+		assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreaker("server").getState());
+		assertEquals("[server:CLOSED->OPEN, server:OPEN->HALF_OPEN, server:HALF_OPEN->CLOSED]",
+				transitions.toString());
+	}
+
+	@Test
+	public void testFailedProbeReopens() throws Exception {
+		status = 500;
+		for (int i = 0; i < 2; i++) {
+			try {
+				client.getServer(1);
+			} catch (Fit2CloudException e) {
+				// expected
+			}
+		}
+		Thread.sleep(60);
+		try {
+			client.getServer(1);
+			fail();
+		} catch (CircuitBreakerOpenException e) {
+			fail();
+		} catch (Fit2CloudException e) {
+			// 探测请求失败
+		}
+		assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker("server").getState());
+	}
+
+	@Test
+	public void testClientErrorsDoNotTrip() throws Exception {
+		status = 404;
+		for (int i = 0; i < 5; i++) {
+			try {
+				client.getServer(1);
+			} catch (Fit2CloudException e) {
+				// expected
+			}
+		}
+		assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreaker("server").getState());
+	}
+
+	@Test
+	public void testStalledServerTimesOutAndOpensBreaker() throws Exception {
+		status = 200;
+		delayMillis = 3000;
+		client.setReadTimeoutMillis(100);
+		for (int i = 0; i < 2; i++) {
+			long start = System.currentTimeMillis();
+			try {
+				client.getServer(1);
+				fail();
+			} catch (Fit2CloudTimeoutException e) {
+				assertTrue(System.currentTimeMillis() - start < 2000);
+			}
+		}
+		assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker("server").getState());
+		try {
+			client.getServer(1);
+			fail();
+		} catch (CircuitBreakerOpenException e) {
+			assertEquals("server", e.getGroup());
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+public class DeploymentEventLogWatcherTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	private volatile String deploymentLogs;
+	private volatile String eventLogs;
+	private volatile int eventLogsStatus = 200;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				if (path.equals("/rest/deploymentlog/9/list")) {
+					return new StubResponse(200, deploymentLogs);
+				}
+				if (path.equals("/rest/deploymentEventlog/9/list")) {
+					return new StubResponse(eventLogsStatus, eventLogs);
+				}
+				return new StubResponse(404, "unknown path " + path);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testOnlyNewAndChangedRecordsAreEmitted() throws Exception {
+		DeploymentEventLogWatcher watcher = new DeploymentEventLogWatcher(client, 9L);
+		deploymentLogs = "[{\"id\":1,\"status\":\"executing\"}]";
+		eventLogs = "[{\"id\":11,\"eventName\":\"download\",\"status\":\"executing\"}]";
+		List<DeploymentEventLogWatcher.Change> changes = watcher.poll();
+		assertEquals(1, changes.size());
+		assertTrue(changes.get(0).isAdded());
+		assertNull(changes.get(0).getPreviousStatus());
+
+		// 部署日志没有变化, 不下载事件日志
+		assertTrue(watcher.poll().isEmpty());
+		assertEquals(1, watcher.getFetches());
+		assertEquals(1, watcher.getSkippedFetches());
+
+		deploymentLogs = "[{\"id\":1,\"status\":\"success\",\"endTime\":100}]";
+		eventLogs = "[{\"id\":11,\"eventName\":\"download\",\"status\":\"success\",\"endTime\":90},"
+				+ "{\"id\":12,\"eventName\":\"start\",\"status\":\"success\",\"eventLog\":\"line1\\nline2\"}]";
+		changes = watcher.poll();
+		assertEquals(2, changes.size());
+		assertFalse(changes.get(0).isAdded());
+		assertEquals("executing", changes.get(0).getPreviousStatus());
+		assertEquals("line1\nline2", changes.get(1).getEventLog().getEventLog());
+
+		watcher.setSkipUnchanged(false);
+		assertTrue(watcher.poll().isEmpty());
+		assertEquals(3, watcher.getFetches());
+	}
+
+	@Test
+	public void testFailedFetchIsRetriedWhenLogsUnchanged() throws Exception {
+		DeploymentEventLogWatcher watcher = new DeploymentEventLogWatcher(client, 9L);
+		deploymentLogs = "[{\"id\":1,\"status\":\"success\",\"endTime\":100}]";
+		eventLogs = "[{\"id\":11,\"eventName\":\"download\",\"status\":\"success\"}]";
+		eventLogsStatus = 500;
+		try {
+			watcher.poll();
+			fail("event log fetch should fail");
+		} catch (Fit2CloudException e) {
+			// 预期
+		}
+
+		// 部署日志没有变化, 但上次没有成功下载事件日志, 不能跳过
+		eventLogsStatus = 200;
+		List<DeploymentEventLogWatcher.Change> changes = watcher.poll();
+		assertEquals(1, changes.size());
+		assertEquals(0, watcher.getSkippedFetches());
+		assertTrue(watcher.poll().isEmpty());
+		assertEquals(1, watcher.getSkippedFetches());
+	}
+}
@@ -0,0 +1,152 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+public class DeploymentRolloutTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	private final AtomicLong deploymentIds = new AtomicLong();
+	private final Map<Long, String> clusters = new ConcurrentHashMap<Long, String>();
+	private final Map<Long, AtomicInteger> polls = new ConcurrentHashMap<Long, AtomicInteger>();
+	private final AtomicInteger running = new AtomicInteger();
+	private final AtomicInteger maxRunning = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		// 每个部署查询两次后结束, 名称以bad开头的集群部署失败
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				if (path.endsWith("/deployment/add.json")) {
+					long id = deploymentIds.incrementAndGet();
+					String cluster = BatchLookupTest.queryParam("?" + body, "clusterName");
+					clusters.put(id, cluster);
+					polls.put(id, new AtomicInteger());
+					int now = running.incrementAndGet();
+					synchronized (maxRunning) {
+						maxRunning.set(Math.max(maxRunning.get(), now));
+					}
+					return new StubResponse(200, "{\"id\":" + id + ",\"status\":\"pending\"}");
+				}
+				if (path.contains("/deployment/get.json")) {
+					long id = Long.parseLong(BatchLookupTest.queryParam(path, "deploymentId"));
+					if (polls.get(id).incrementAndGet() < 2) {
+						return new StubResponse(200, "{\"id\":" + id + ",\"status\":\"executing\"}");
+					}
+					running.decrementAndGet();
+					String status = clusters.get(id).startsWith("bad") ? "fail" : "success";
+					return new StubResponse(200, "{\"id\":" + id + ",\"status\":\"" + status
+							+ "\",\"msg\":\"done\",\"endTime\":1}");
+				}
+				if (path.contains("/deploymentEventlog/")) {
+					return new StubResponse(200, "[{\"id\":1,\"eventName\":\"start\",\"status\":\"failed\","
+							+ "\"msg\":\"exit 1\"}]");
+				}
+				return new StubResponse(404, "unknown path " + path);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	private DeploymentRollout newRollout(String... clusterNames) {
+		DeploymentRollout rollout = new DeploymentRollout(client, "app", "v2");
+		rollout.setPollIntervalMillis(10);
+		for (String clusterName : clusterNames) {
+			rollout.addTarget(clusterName);
+		}
+		return rollout;
+	}
+
+	@Test
+	public void testRolloutInWaves() throws Exception {
+		DeploymentRollout rollout = newRollout("c1", "c2", "c3", "c4", "c5");
+		rollout.setFirstWaveSize(1);
+		rollout.setWaveSize(2);
+		final List<String> events = new CopyOnWriteArrayList<String>();
+		rollout.addListener(new DeploymentRolloutListener() {
+			public void onTargetFinished(DeploymentRollout.Target target) {
+				events.add(target.getClusterName());
+			}
+
+			public void onWaveFinished(DeploymentRollout.Wave wave) {
+				events.add("wave" + wave.getIndex());
+			}
+		});
+		DeploymentRollout.Report report = rollout.run();
+		assertTrue(report.isSucceeded());
+		assertFalse(report.isHalted());
+		assertEquals(3, report.getWaves().size());
+		assertEquals(8, events.size());
+		assertEquals("wave0", events.get(1));
+		assertEquals("wave2", events.get(7));
+		assertEquals(2, maxRunning.get());
+		for (DeploymentRollout.Wave wave : report.getWaves()) {
+			assertTrue(wave.getDurationMillis() >= 0);
+		}
+	}
+
+	@Test
+	public void testFailureHaltsRemainingWaves() throws Exception {
+		DeploymentRollout rollout = newRollout("c1", "bad2", "c3", "c4", "c5");
+		rollout.setWaveSize(2);
+		DeploymentRollout.Report report = rollout.run();
+		assertTrue(report.isHalted());
+		assertFalse(report.isSucceeded());
+		assertEquals(1, report.getTargets(DeploymentRollout.Status.SUCCEEDED).size());
+		assertEquals(3, report.getTargets(DeploymentRollout.Status.SKIPPED).size());
+		DeploymentRollout.Target failed = report.getTargets(DeploymentRollout.Status.FAILED).get(0);
+		assertEquals("bad2", failed.getClusterName());
+		assertEquals("deployment " + failed.getDeployment().getId() + " fail: done; start: exit 1",
+				failed.getMessage());
+		assertEquals(2, deploymentIds.get());
+	}
+
+	@Test
+	public void testThrowingListenerDoesNotAbortRollout() throws Exception {
+		DeploymentRollout rollout = newRollout("c1", "c2", "c3");
+		rollout.setWaveSize(2);
+		rollout.addListener(new DeploymentRolloutListener() {
+			public void onTargetFinished(DeploymentRollout.Target target) {
+				throw new IllegalStateException("listener failure");
+			}
+
+			public void onWaveFinished(DeploymentRollout.Wave wave) {
+				throw new IllegalStateException("listener failure");
+			}
+		});
+		final List<String> events = new CopyOnWriteArrayList<String>();
+		rollout.addListener(new DeploymentRolloutListener() {
+			public void onTargetFinished(DeploymentRollout.Target target) {
+				events.add(target.getClusterName());
+			}
+
+			public void onWaveFinished(DeploymentRollout.Wave wave) {
+				events.add("wave" + wave.getIndex());
+			}
+		});
+		DeploymentRollout.Report report = rollout.run();
+		assertTrue(report.isSucceeded());
+		assertEquals(3, report.getTargets(DeploymentRollout.Status.SUCCEEDED).size());
+		assertEquals(5, events.size());
+	}
+}
@@ -0,0 +1,219 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.Server;
+
+public class FleetWatcherTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	/** 虚机id -> vmStatus */
+	private final Map<Long, String> fleet = new TreeMap<Long, String>();
+	/** 返回第1页后执行一次, 模拟分页期间的增删 */
+	private volatile Runnable afterFirstPage;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				int pageSize = Integer.parseInt(BatchLookupTest.queryParam(path, "pageSize"));
+				int pageNum = Integer.parseInt(BatchLookupTest.queryParam(path, "pageNum"));
+				assertEquals("id", BatchLookupTest.queryParam(path, "sort"));
+				Runnable hook = afterFirstPage;
+				if (pageNum > 1 && hook != null) {
+					afterFirstPage = null;
+					hook.run();
+				}
+				List<String> servers = new ArrayList<String>();
+				synchronized (fleet) {
+					for (Map.Entry<Long, String> entry : fleet.entrySet()) {
+						servers.add("{\"id\":" + entry.getKey() + ",\"name\":\"s" + entry.getKey()
+								+ "\",\"vmStatus\":\"" + entry.getValue() + "\",\"created\":" + System.nanoTime()
+								+ "}");
+					}
+				}
+				StringBuilder sb = new StringBuilder("[");
+				for (int i = (pageNum - 1) * pageSize; i < Math.min(servers.size(), pageNum * pageSize); i++) {
+					sb.append(sb.length() > 1 ? "," : "").append(servers.get(i));
+				}
+				return new StubResponse(200, sb.append(']').toString());
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	private void put(long id, String vmStatus) {
+		synchronized (fleet) {
+			fleet.put(id, vmStatus);
+		}
+	}
+
+	@Test
+	public void testAddedChangedRemoved() throws Exception {
+		for (long id = 1; id <= 5; id++) {
+			put(id, "Running");
+		}
+		FleetWatcher watcher = new FleetWatcher(client);
+		watcher.setPageSize(2);
+		final List<String> events = new CopyOnWriteArrayList<String>();
+		watcher.addListener(new FleetListener() {
+			public void onServerAdded(Server server) {
+				events.add("added " + server.getId());
+			}
+
+			public void onServerRemoved(Server server) {
+				events.add("removed " + server.getId());
+			}
+
+			public void onServerChanged(FleetWatcher.Change change) {
+				events.add("changed " + change.getServer().getId() + " " + change.getChangedFields());
+			}
+		});
+		assertEquals(5, watcher.poll().size());
+		assertEquals(5, watcher.getSize());
+
+		// 未跟踪的字段(created)每次都变化, 不产生事件
+		assertTrue(watcher.poll().isEmpty());
+
+		put(3, "Stopped");
+		put(6, "Running");
+		synchronized (fleet) {
+			fleet.remove(1L);
+		}
+		events.clear();
+		List<FleetWatcher.Change> changes = watcher.poll();
+		assertEquals(2, changes.size());
+		assertEquals("[changed 3 [vmStatus], added 6]", events.toString());
+		FleetWatcher.Change change = changes.get(0);
+		assertEquals("Running", change.getPrevious().getVmStatus());
+		assertEquals("Stopped", change.getServer().getVmStatus());
+
+		// 连续两次未出现才按删除通知
+		events.clear();
+		assertEquals(1, watcher.poll().size());
+		assertEquals("[removed 1]", events.toString());
+		assertEquals(5, watcher.getSize());
+		assertEquals(4, watcher.getPolls());
+	}
+
+	@Test
+	public void testInconsistentPagingDefersRemovalAndListenersAreIsolated() throws Exception {
+		for (long id = 2; id <= 7; id++) {
+			put(id, "Running");
+		}
+		FleetWatcher watcher = new FleetWatcher(client);
+		watcher.setPageSize(2);
+		watcher.addListener(new FleetListener() {
+			public void onServerAdded(Server server) {
+				throw new IllegalStateException("listener failure");
+			}
+
+			public void onServerRemoved(Server server) {
+				throw new IllegalStateException("listener failure");
+			}
+
+			public void onServerChanged(FleetWatcher.Change change) {
+				throw new IllegalStateException("listener failure");
+			}
+		});
+		final List<String> events = new CopyOnWriteArrayList<String>();
+		watcher.addListener(new FleetListener() {
+			public void onServerAdded(Server server) {
+				events.add("added " + server.getId());
+			}
+
+			public void onServerRemoved(Server server) {
+				events.add("removed " + server.getId());
+			}
+
+			public void onServerChanged(FleetWatcher.Change change) {
+				events.add("changed " + change.getServer().getId());
+			}
+		});
+		assertEquals(6, watcher.poll().size());
+		assertEquals(6, events.size());
+
+		// 第1页之后插入id 1并删除id 7: 后续页错位, id 3重复出现
+		afterFirstPage = new Runnable() {
+			public void run() {
+				synchronized (fleet) {
+					fleet.put(1L, "Running");
+					fleet.remove(7L);
+				}
+			}
+		};
+		events.clear();
+		watcher.poll();
+		assertTrue(events.toString(), !events.contains("removed 7"));
+		assertEquals(6, watcher.getSize());
+
+		events.clear();
+		watcher.poll();
+		assertEquals("[added 1]", events.toString());
+		events.clear();
+		watcher.poll();
+		assertEquals("[removed 7]", events.toString());
+		assertEquals(6, watcher.getSize());
+	}
+
+	@Test
+	public void testDeletionDuringPagingIsNotReportedAsRemoval() throws Exception {
+		for (long id = 1; id <= 6; id++) {
+			put(id, "Running");
+		}
+		FleetWatcher watcher = new FleetWatcher(client);
+		watcher.setPageSize(2);
+		final List<String> events = new CopyOnWriteArrayList<String>();
+		watcher.addListener(new FleetListener() {
+			public void onServerAdded(Server server) {
+				events.add("added " + server.getId());
+			}
+
+			public void onServerRemoved(Server server) {
+				events.add("removed " + server.getId());
+			}
+
+			public void onServerChanged(FleetWatcher.Change change) {
+				events.add("changed " + change.getServer().getId());
+			}
+		});
+		watcher.poll();
+
+		// 第1页之后删除已取回的id 1: 后续各页左移一位, id 3被跳过但id仍然递增
+		afterFirstPage = new Runnable() {
+			public void run() {
+				synchronized (fleet) {
+					fleet.remove(1L);
+				}
+			}
+		};
+		events.clear();
+		assertTrue(watcher.poll().isEmpty());
+		assertEquals(6, watcher.getSize());
+
+		// id 3重新出现, id 1在之后连续两次未出现才被确认删除
+		watcher.poll();
+		assertTrue(events.toString(), events.isEmpty());
+		watcher.poll();
+		assertEquals("[removed 1]", events.toString());
+		assertEquals(5, watcher.getSize());
+	}
+}
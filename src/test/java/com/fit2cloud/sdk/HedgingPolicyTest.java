@@ -0,0 +1,74 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+public class HedgingPolicyTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	private final AtomicInteger calls = new AtomicInteger();
+	private volatile int slowCall = -1;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				long delay = calls.incrementAndGet() == slowCall ? 2000 : 5;
+				return new StubResponse(200, "{\"id\":1,\"name\":\"s1\"}", delay);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+		HedgingPolicy policy = HedgingPolicy.forGroups("server");
+		policy.setMinSamples(5);
+		policy.setBudget(new RetryBudget(1, 5));
+		client.setHedgingPolicy(policy);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testHedgeCutsTailLatency() throws Exception {
+		// 预热期间的首批请求受类加载影响可能触发对冲, 只统计预热之后的对冲次数
+		for (int i = 0; i < 10; i++) {
+			client.getServer(1);
+		}
+		long hedged = client.getHedgingPolicy().getHedgedRequests();
+		long wins = client.getHedgingPolicy().getHedgeWins();
+		for (int i = 0; i < 10; i++) {
+			client.getServer(1);
+		}
+		assertEquals(hedged, client.getHedgingPolicy().getHedgedRequests());
+		assertTrue(client.getLatencyHistogram("server").getCount() >= 20);
+
+		slowCall = calls.get() + 1;
+		long start = System.currentTimeMillis();
+		assertEquals("s1", client.getServer(1).getName());
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		assertEquals(hedged + 1, client.getHedgingPolicy().getHedgedRequests());
+		assertEquals(wins + 1, client.getHedgingPolicy().getHedgeWins());
+	}
+
+	@Test
+	public void testOtherGroupsNotHedged() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			client.getCluster(1);
+		}
+		slowCall = calls.get() + 1;
+		long start = System.currentTimeMillis();
+		client.getCluster(1);
+		assertTrue(System.currentTimeMillis() - start >= 2000);
+		assertEquals(0, client.getHedgingPolicy().getHedgedRequests());
+	}
+}
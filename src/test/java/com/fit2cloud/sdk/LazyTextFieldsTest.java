@@ -0,0 +1,60 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fit2cloud.sdk.model.Event;
+import com.fit2cloud.sdk.model.Server;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+public class LazyTextFieldsTest {
+
+	@Test
+	public void testListFieldsAreRestoredOnAccess() throws Exception {
+		String json = "[{\"id\":1,\"eventData\":\"a\\\"b\\\\c\\n\\u4e2d\",\"status\":\"ok\"},"
+				+ "{\"id\":2,\"extra\":{\"eventData\":\"nested\"},\"status\":\"fail\"},"
+				+ "{\"id\":3, \"eventData\" : \"{\\\"k\\\":[1,2]}\", \"scriptName\":\"eventData\"}]";
+		Type type = new TypeToken<List<Event>>() {
+		}.getType();
+		List<Event> events = LazyTextFields.decode(new Gson(), json, type, LazyTextFields.getFields(type));
+		assertEquals(3, events.size());
+		assertEquals("a\"b\\c\n中", events.get(0).getEventData());
+		assertEquals("ok", events.get(0).getStatus());
+		// 嵌套对象中的同名字段不在延迟解码范围内
+		assertNull(events.get(1).getEventData());
+		assertEquals("fail", events.get(1).getStatus());
+		assertEquals("{\"k\":[1,2]}", events.get(2).getEventData());
+		assertEquals("eventData", events.get(2).getScriptName());
+		events.get(2).setEventData("x");
+		assertEquals("x", events.get(2).getEventData());
+	}
+
+	@Test
+	public void testNullElementsKeepIndexes() throws Exception {
+		String json = "[ null, {\"id\":1,\"eventData\":\"x\"},null ,{\"id\":2},{\"id\":3,\"eventData\":\"y\"} ]";
+		Type type = new TypeToken<List<Event>>() {
+		}.getType();
+		List<Event> events = LazyTextFields.decode(new Gson(), json, type, LazyTextFields.getFields(type));
+		assertEquals(5, events.size());
+		assertNull(events.get(0));
+		assertEquals("x", events.get(1).getEventData());
+		assertNull(events.get(2));
+		assertNull(events.get(3).getEventData());
+		assertEquals("y", events.get(4).getEventData());
+	}
+
+	@Test
+	public void testSingleObject() throws Exception {
+		String json = "{\"id\":7,\"customData\":\"{\\\"role\\\":\\\"web\\\"}\",\"name\":\"s7\"}";
+		Server server = LazyTextFields.decode(new Gson(), json, Server.class, LazyTextFields.getFields(Server.class));
+		assertEquals("s7", server.getName());
+		assertEquals("{\"role\":\"web\"}", server.getCustomData());
+		assertNull(LazyTextFields.getFields(String.class));
+	}
+}
@@ -0,0 +1,111 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.ViewScriptlog;
+
+public class LoggingSyncTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	/** 按createdTime升序排列的日志id, createdTime为id * 10 */
+	private final List<Long> logs = new ArrayList<Long>();
+	private final AtomicInteger requests = new AtomicInteger();
+	private final List<Long> received = new ArrayList<Long>();
+	private volatile boolean failSink;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				requests.incrementAndGet();
+				assertEquals("createdTime", BatchLookupTest.queryParam(path, "sort"));
+				int pageSize = Integer.parseInt(BatchLookupTest.queryParam(path, "pageSize"));
+				int pageNum = Integer.parseInt(BatchLookupTest.queryParam(path, "pageNum"));
+				StringBuilder sb = new StringBuilder("[");
+				synchronized (logs) {
+					for (int i = (pageNum - 1) * pageSize; i < Math.min(logs.size(), pageNum * pageSize); i++) {
+						sb.append(sb.length() > 1 ? "," : "").append("{\"id\":").append(logs.get(i))
+								.append(",\"createdTime\":").append(logs.get(i) * 10).append("}");
+					}
+				}
+				return new StubResponse(200, sb.append(']').toString());
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	private void add(long from, long to) {
+		synchronized (logs) {
+			for (long id = from; id <= to; id++) {
+				logs.add(id);
+			}
+		}
+	}
+
+	private LoggingSync newSync() {
+		LoggingSync sync = new LoggingSync(client, new LoggingSink() {
+			public void accept(List<ViewScriptlog> batch, LoggingSync.Cursor cursor) throws Exception {
+				if (failSink) {
+					throw new IllegalStateException("disk full");
+				}
+				for (ViewScriptlog log : batch) {
+					received.add(log.getId());
+				}
+			}
+		});
+		sync.setPageSize(4);
+		return sync;
+	}
+
+	@Test
+	public void testIncrementalSync() throws Exception {
+		add(1, 10);
+		LoggingSync sync = newSync();
+		assertEquals(10, sync.sync());
+		assertEquals("100:10:10", sync.getCursor().toString());
+
+		// 从游标所在的第3页开始, 不重新拉取前两页
+		add(11, 13);
+		requests.set(0);
+		LoggingSync resumed = newSync();
+		resumed.setCursor(LoggingSync.Cursor.parse(sync.getCursor().toString()));
+		assertEquals(3, resumed.sync());
+		assertEquals(2, requests.get());
+		assertEquals(13, received.size());
+		assertEquals(Long.valueOf(13), received.get(12));
+
+		// 删除早期记录后游标位置偏后, 回退一页
+		synchronized (logs) {
+			logs.subList(0, 5).clear();
+		}
+		add(14, 14);
+		assertEquals(1, resumed.sync());
+		assertEquals("140:14:9", resumed.getCursor().toString());
+
+		failSink = true;
+		add(15, 16);
+		try {
+			resumed.sync();
+			fail();
+		} catch (Fit2CloudException e) {
+			assertEquals("disk full", e.getCause().getMessage());
+		}
+		assertEquals("140:14:9", resumed.getCursor().toString());
+	}
+}
@@ -0,0 +1,174 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+public class MetricAggregationTest {
+
+	private static final int FLEET = 40;
+	private static final long ROLE = 7;
+	private static final long MISSING = 13;
+	private static final long T0 = 1400000040000L;
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	private final AtomicInteger metricQueries = new AtomicInteger();
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				if (path.startsWith("/rest/servers")) {
+					if (!String.valueOf(ROLE).equals(BatchLookupTest.queryParam(path, "clusterRoleId"))) {
+						return new StubResponse(200, "[]");
+					}
+					int pageSize = Integer.parseInt(BatchLookupTest.queryParam(path, "pageSize"));
+					int pageNum = Integer.parseInt(BatchLookupTest.queryParam(path, "pageNum"));
+					StringBuilder sb = new StringBuilder("[");
+					for (long id = (long) (pageNum - 1) * pageSize + 1; id <= Math.min(FLEET, pageNum
+							* pageSize); id++) {
+						sb.append(sb.length() > 1 ? "," : "").append("{\"id\":").append(id).append('}');
+					}
+					return new StubResponse(200, sb.append(']').toString());
+				}
+				if (path.startsWith("/rest/server/metrics")) {
+					metricQueries.incrementAndGet();
+					long id = Long.parseLong(BatchLookupTest.queryParam(path, "serverId"));
+					if (id == MISSING) {
+						return new StubResponse(404, "server not found", 5);
+					}
+					StringBuilder sb = new StringBuilder("[");
+					for (int step = 0; step < 3; step++) {
+						// 心跳时间在时间片内错开, 第0个时间片每台虚机有两个样本
+						sb.append(sb.length() > 1 ? "," : "").append(metric(id, T0 + step * 60000 + id * 100,
+								value(id, step)));
+						if (step == 0) {
+							sb.append(',').append(metric(id, T0 + 30000 + id * 100, value(id, step) + 10));
+						}
+					}
+					sb.append(',').append("{\"serverId\":" + id + ",\"heartbeatTimestamp\":" + T0
+							+ ",\"metricName\":\"memory\",\"metricValue\":99}");
+					return new StubResponse(200, sb.append(']').toString(), 5);
+				}
+				return new StubResponse(404, "unknown path " + path);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	private static String metric(long id, long timestamp, double value) {
+		return "{\"serverId\":" + id + ",\"heartbeatTimestamp\":" + timestamp
+				+ ",\"metricName\":\"cpu\",\"metricValue\":" + value + ",\"metricUnit\":\"%\"}";
+	}
+
+	private static double value(long id, int step) {
+		return (id * 37 + step * 11) % 100;
+	}
+
+	@Test
+	public void testAggregateClusterRole() throws Exception {
+		MetricAggregation aggregation = new MetricAggregation(client, "cpu");
+		ServerSelector selector = ServerSelector.clusterRole(ROLE);
+		selector.setPageSize(15);
+		aggregation.setSelector(selector);
+		aggregation.setParallelism(4);
+		List<MetricAggregation.Point> points = aggregation.aggregate(T0, T0 + 180000);
+
+		assertEquals(FLEET, metricQueries.get());
+		assertEquals(3, points.size());
+		for (int step = 0; step < 3; step++) {
+			List<Double> values = new ArrayList<Double>();
+			for (long id = 1; id <= FLEET; id++) {
+				if (id != MISSING) {
+					values.add(step == 0 ? value(id, step) + 5 : value(id, step));
+				}
+			}
+			Collections.sort(values);
+			double sum = 0;
+			for (double v : values) {
+				sum += v;
+			}
+			int rank = (int) Math.ceil(values.size() * 0.95);
+			MetricAggregation.Point point = points.get(step);
+			assertEquals(T0 + step * 60000, point.getTimestamp());
+			assertEquals(FLEET - 1, point.getCount());
+			assertEquals(sum / values.size(), point.getAvg(), 1e-9);
+			assertEquals(values.get(0), point.getMin(), 0);
+			assertEquals(values.get(values.size() - 1), point.getMax(), 0);
+			assertEquals(values.get(rank - 1), point.getP95(), 0);
+		}
+	}
+
+	@Test
+	public void testP95MatchesSortedValues() {
+		Random random = new Random(42);
+		for (int n = 1; n <= 300; n++) {
+			double[] values = new double[n];
+			TopKHeap heap = new TopKHeap(MetricAggregation.tailSize(n));
+			for (int i = 0; i < n; i++) {
+				values[i] = Math.floor(random.nextDouble() * 50);
+				heap.offer(values[i], 0);
+			}
+			Arrays.sort(values);
+			heap.sortDescending();
+			int rank = (n * 95 + 99) / 100;
+			assertEquals(values[rank - 1], heap.value(n - rank), 0);
+			assertEquals(values[n - 1], heap.value(0), 0);
+		}
+	}
+
+	@Test
+	public void testEstimatedP95AboveExactLimit() throws Exception {
+		MetricAggregation aggregation = new MetricAggregation(client, "cpu");
+		aggregation.setSelector(ServerSelector.clusterRole(ROLE));
+		aggregation.setExactPercentileLimit(1);
+		List<MetricAggregation.Point> points = aggregation.aggregate(T0, T0 + 180000);
+
+		assertEquals(3, points.size());
+		for (int step = 0; step < 3; step++) {
+			List<Double> values = new ArrayList<Double>();
+			for (long id = 1; id <= FLEET; id++) {
+				if (id != MISSING) {
+					values.add(step == 0 ? value(id, step) + 5 : value(id, step));
+				}
+			}
+			Collections.sort(values);
+			double expected = values.get((int) Math.ceil(values.size() * 0.95) - 1);
+			assertEquals(expected, points.get(step).getP95(), expected * 0.01);
+		}
+	}
+
+	@Test
+	public void testLogSketchRelativeError() {
+		Random random = new Random(7);
+		for (int n = 1; n <= 300; n++) {
+			double[] values = new double[n];
+			MetricAggregation.LogSketch sketch = new MetricAggregation.LogSketch();
+			for (int i = 0; i < n; i++) {
+				values[i] = i % 10 == 0 ? 0 : (random.nextDouble() - 0.2) * Math.pow(10, random.nextInt(8) - 2);
+				sketch.add(values[i]);
+			}
+			Arrays.sort(values);
+			int rank = (n * 95 + 99) / 100;
+			double expected = values[rank - 1];
+			assertEquals(expected, sketch.valueAtRank(rank), Math.abs(expected) * 0.01);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.fit2cloud.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.MetricTop;
+import com.fit2cloud.sdk.model.Server;
+import com.fit2cloud.sdk.model.ServerMetric;
+
+/**
+ * 本地排行的基准测试. 先对内存中的样本比较有界堆与"逐台归并后整体排序"的耗时, 再针对本地桩服务(每个请求2ms延迟)
+ * 比较不同并发度下的端到端耗时. 运行: java -cp ... com.fit2cloud.sdk.MetricRankingBenchmark [servers] [samples]
+ */
+public class MetricRankingBenchmark {
+
+	private static final String[] METRICS = { "cpu", "memory" };
+
+	public static void main(String[] args) throws Exception {
+		final int fleetSize = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		final int samples = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+		engine(fleetSize, samples);
+
+		StubFit2CloudServer stub = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				if (path.startsWith("/rest/servers")) {
+					int pageSize = Integer.parseInt(BatchLookupTest.queryParam(path, "pageSize"));
+					int pageNum = Integer.parseInt(BatchLookupTest.queryParam(path, "pageNum"));
+					StringBuilder sb = new StringBuilder("[");
+					for (long id = (long) (pageNum - 1) * pageSize + 1; id <= Math.min(fleetSize, (long) pageNum
+							* pageSize); id++) {
+						sb.append(sb.length() > 1 ? "," : "").append(BatchLookupTest.serverJson(id));
+					}
+					return new StubResponse(200, sb.append(']').toString());
+				}
+				long id = Long.parseLong(BatchLookupTest.queryParam(path, "serverId"));
+				StringBuilder sb = new StringBuilder("[");
+				for (ServerMetric metric : metrics(id, samples)) {
+					sb.append(sb.length() > 1 ? "," : "").append("{\"serverId\":").append(id)
+							.append(",\"heartbeatTimestamp\":").append(metric.getHeartbeatTimestamp())
+							.append(",\"metricName\":\"").append(metric.getMetricName())
+							.append("\",\"metricValue\":").append(metric.getMetricValue()).append('}');
+				}
+				return new StubResponse(200, sb.append(']').toString(), 2);
+			}
+		});
+		try {
+			Fit2CloudClient client = new Fit2CloudClient("key", "secret", stub.getEndpoint());
+			for (int parallelism : new int[] { 1, 8, 32, 64 }) {
+				ServerSelector selector = new ServerSelector();
+				if (parallelism == 1) {
+					// 顺序查询太慢, 只测1000台后按比例估算
+					List<Long> ids = new ArrayList<Long>();
+					for (long id = 1; id <= Math.min(1000, fleetSize); id++) {
+						ids.add(id);
+					}
+					selector.setServerIds(ids);
+				}
+				MetricRanking ranking = new MetricRanking(client);
+				ranking.setSelector(selector);
+				ranking.setParallelism(parallelism);
+				ranking.setLimit(10);
+				long start = System.currentTimeMillis();
+				List<MetricTop> cpu = ranking.rank(java.util.Arrays.asList(METRICS), null, null).get("cpu");
+				long elapsed = System.currentTimeMillis() - start;
+				int servers = selector.getServerIds() == null ? fleetSize : selector.getServerIds().size();
+				System.out.printf("rank parallelism=%-3d %6d ms for %d servers (~%d ms for %d), top cpu=%s %.2f%n",
+						parallelism, elapsed, servers, elapsed * fleetSize / servers, fleetSize,
+						cpu.get(0).getServerName(), cpu.get(0).getMetricValue());
+			}
+		} finally {
+			stub.close();
+		}
+	}
+
+	private static List<ServerMetric> metrics(long id, int samples) {
+		List<ServerMetric> metrics = new ArrayList<ServerMetric>(samples * METRICS.length);
+		for (String name : METRICS) {
+			for (int i = 0; i < samples; i++) {
+				ServerMetric metric = new ServerMetric();
+				metric.setServerId(id);
+				metric.setHeartbeatTimestamp(1400000000000L + i * 60000L);
+				metric.setMetricName(name);
+				metric.setMetricValue(((id * 7919 + i * 31 + name.length()) % 10000) / 100.0);
+				metrics.add(metric);
+			}
+		}
+		return metrics;
+	}
+
+	/**
+	 * 样本已在内存中时, 比较有界堆与保留所有虚机的值后排序
+	 */
+	private static void engine(int fleetSize, int samples) {
+		List<Server> servers = new ArrayList<Server>(fleetSize);
+		List<List<ServerMetric>> data = new ArrayList<List<ServerMetric>>(fleetSize);
+		for (long id = 1; id <= fleetSize; id++) {
+			Server server = new Server();
+			server.setId(id);
+			server.setName("server-" + id);
+			servers.add(server);
+			data.add(metrics(id, samples));
+		}
+		for (int round = 0; round < 5; round++) {
+			long start = System.nanoTime();
+			MetricTopK topK = new MetricTopK(10, MetricTopK.Statistic.AVG, null);
+			for (int i = 0; i < fleetSize; i++) {
+				topK.add(servers.get(i), data.get(i));
+			}
+			double heapTop = topK.getResult("cpu").get(0).getMetricValue();
+			long heap = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			List<MetricTop> all = new ArrayList<MetricTop>();
+			for (int i = 0; i < fleetSize; i++) {
+				for (String name : METRICS) {
+					double sum = 0;
+					int count = 0;
+					for (ServerMetric metric : data.get(i)) {
+						if (name.equals(metric.getMetricName())) {
+							sum += metric.getMetricValue();
+							count++;
+						}
+					}
+					MetricTop top = new MetricTop();
+					top.setServerId(servers.get(i).getId());
+					top.setServerName(servers.get(i).getName());
+					top.setMetricName(name);
+					top.setMetricValue(sum / count);
+					all.add(top);
+				}
+			}
+			Collections.sort(all, new Comparator<MetricTop>() {
+				public int compare(MetricTop a, MetricTop b) {
+					return Double.compare(b.getMetricValue(), a.getMetricValue());
+				}
+			});
+			double sortTop = 0;
+			for (MetricTop top : all) {
+				if (top.getMetricName().equals("cpu")) {
+					sortTop = top.getMetricValue();
+					break;
+				}
+			}
+			long sort = System.nanoTime() - start;
+			System.out.printf("engine round %d: heap %.1f ms, collect+sort %.1f ms (%d values kept), top %.2f/%.2f%n",
+					round, heap / 1e6, sort / 1e6, all.size(), heapTop, sortTop);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.MetricTop;
+import com.fit2cloud.sdk.model.Server;
+import com.fit2cloud.sdk.model.ServerMetric;
+
+public class MetricRankingTest {
+
+	private static final int FLEET = 60;
+	private static final int SAMPLES = 5;
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				if (path.startsWith("/rest/servers")) {
+					int pageSize = Integer.parseInt(BatchLookupTest.queryParam(path, "pageSize"));
+					int pageNum = Integer.parseInt(BatchLookupTest.queryParam(path, "pageNum"));
+					StringBuilder sb = new StringBuilder("[");
+					for (long id = (long) (pageNum - 1) * pageSize + 1; id <= Math.min(FLEET, pageNum
+							* pageSize); id++) {
+						sb.append(sb.length() > 1 ? "," : "").append("{\"id\":").append(id)
+								.append(",\"name\":\"s").append(id).append("\",\"clusterId\":1")
+								.append(",\"clusterName\":\"c1\",\"clusterRoleId\":").append(id % 3)
+								.append(",\"clusterRoleName\":\"r").append(id % 3).append("\"}");
+					}
+					return new StubResponse(200, sb.append(']').toString());
+				}
+				if (path.startsWith("/rest/server/metrics")) {
+					long id = Long.parseLong(BatchLookupTest.queryParam(path, "serverId"));
+					String metricName = BatchLookupTest.queryParam(path, "metricName");
+					StringBuilder sb = new StringBuilder("[");
+					for (String name : new String[] { "cpu", "memory" }) {
+						if (metricName != null && !metricName.equals(name)) {
+							continue;
+						}
+						for (int i = 0; i < SAMPLES; i++) {
+							sb.append(sb.length() > 1 ? "," : "").append("{\"serverId\":").append(id)
+									.append(",\"heartbeatTimestamp\":").append(1000 + i)
+									.append(",\"metricName\":\"").append(name).append("\",\"metricValue\":")
+									.append(value(name, id, i)).append('}');
+						}
+					}
+					return new StubResponse(200, sb.append(']').toString(), 2);
+				}
+				return new StubResponse(404, "unknown path " + path);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	private static double value(String name, long id, int i) {
+		return name.equals("cpu") ? (id * 37 + i * 13) % 100 : (id * 53 + i * 7) % 90;
+	}
+
+	/**
+	 * 按定义逐台计算后排序得到的排行
+	 */
+	private static List<long[]> expected(final String name, MetricTopK.Statistic statistic, int limit) {
+		List<long[]> ranked = new ArrayList<long[]>();
+		for (long id = 1; id <= FLEET; id++) {
+			double[] values = new double[SAMPLES];
+			double sum = 0;
+			for (int i = 0; i < SAMPLES; i++) {
+				values[i] = value(name, id, i);
+				sum += values[i];
+			}
+			double score = values[SAMPLES - 1];
+			if (statistic == MetricTopK.Statistic.AVG) {
+				score = sum / SAMPLES;
+			} else if (statistic == MetricTopK.Statistic.MAX) {
+				Arrays.sort(values);
+				score = values[SAMPLES - 1];
+			}
+			ranked.add(new long[] { id, Double.doubleToLongBits(score) });
+		}
+		Collections.sort(ranked, new Comparator<long[]>() {
+			public int compare(long[] a, long[] b) {
+				int c = Double.compare(Double.longBitsToDouble(b[1]), Double.longBitsToDouble(a[1]));
+				return c != 0 ? c : (a[0] < b[0] ? -1 : 1);
+			}
+		});
+		return ranked.subList(0, limit);
+	}
+
+	private static void assertRanking(List<long[]> expected, List<MetricTop> actual, String metricName) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			MetricTop top = actual.get(i);
+			assertEquals(expected.get(i)[0], top.getServerId());
+			assertEquals(Double.longBitsToDouble(expected.get(i)[1]), top.getMetricValue(), 1e-9);
+			assertEquals(metricName, top.getMetricName());
+			assertEquals("s" + top.getServerId(), top.getServerName());
+			assertEquals("r" + top.getServerId() % 3, top.getClusterRoleName());
+			assertEquals(top.getServerId() % 3, top.getClusterRoleId());
+			assertEquals("c1", top.getClusterName());
+		}
+	}
+
+	@Test
+	public void testRankMultipleMetrics() throws Exception {
+		MetricRanking ranking = new MetricRanking(client);
+		ServerSelector selector = new ServerSelector();
+		selector.setPageSize(25);
+		ranking.setSelector(selector);
+		ranking.setLimit(7);
+		ranking.setParallelism(4);
+		int before = server.getRequestCount();
+		Map<String, List<MetricTop>> results = ranking.rank(Arrays.asList("cpu", "memory", "disk"), null, null);
+
+		// 3页虚机列表, 每台虚机一次监控查询
+		assertEquals(3 + FLEET, server.getRequestCount() - before);
+		assertEquals(3, results.size());
+		assertRanking(expected("cpu", MetricTopK.Statistic.AVG, 7), results.get("cpu"), "cpu");
+		assertRanking(expected("memory", MetricTopK.Statistic.AVG, 7), results.get("memory"), "memory");
+		assertEquals(0, results.get("disk").size());
+	}
+
+	@Test
+	public void testRankSingleMetricWithStatistic() throws Exception {
+		MetricRanking ranking = new MetricRanking(client);
+		ranking.setLimit(4);
+		ranking.setStatistic(MetricTopK.Statistic.MAX);
+		assertRanking(expected("memory", MetricTopK.Statistic.MAX, 4), ranking.rank("memory", 0L, 5000L),
+				"memory");
+		ranking.setStatistic(MetricTopK.Statistic.LAST);
+		assertRanking(expected("cpu", MetricTopK.Statistic.LAST, 4), ranking.rank("cpu", 0L, 5000L), "cpu");
+	}
+
+	@Test
+	public void testEngineKeepsOnlyRankedServers() {
+		MetricTopK topK = new MetricTopK(3, MetricTopK.Statistic.AVG, null);
+		for (long id = 1; id <= 1000; id++) {
+			Server s = new Server();
+			s.setId(id);
+			s.setName("s" + id);
+			ServerMetric metric = new ServerMetric();
+			metric.setMetricName("cpu");
+			metric.setMetricValue(id % 500);
+			topK.add(s, Collections.singletonList(metric));
+		}
+		List<MetricTop> tops = topK.getResult("cpu");
+		assertEquals(3, tops.size());
+		// 值相同时ID较小的在前
+		assertEquals(499, tops.get(0).getServerId());
+		assertEquals(999, tops.get(1).getServerId());
+		assertEquals(498, tops.get(2).getServerId());
+		assertEquals("s999", tops.get(1).getServerName());
+	}
+}
@@ -0,0 +1,58 @@
+package com.fit2cloud.sdk;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fit2cloud.sdk.model.CmdbVm;
+import com.fit2cloud.sdk.model.Event;
+import com.fit2cloud.sdk.model.Server;
+import com.fit2cloud.sdk.model.SfServer;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * 比较Gson反射解码与{@link ModelAdapters}流式解码Server, CmdbVm, SfServer和Event列表的耗时, 每种模型先预热再计时.
+ * 运行: java -cp ... com.fit2cloud.sdk.ModelAdapterBenchmark [records] [rounds]
+ */
+public class ModelAdapterBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int records = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+		run(Server.class, new TypeToken<ArrayList<Server>>() {
+		}.getType(), records, rounds);
+		run(CmdbVm.class, new TypeToken<ArrayList<CmdbVm>>() {
+		}.getType(), records, rounds);
+		run(SfServer.class, new TypeToken<ArrayList<SfServer>>() {
+		}.getType(), records, rounds);
+		run(Event.class, new TypeToken<ArrayList<Event>>() {
+		}.getType(), records, rounds);
+	}
+
+	private static void run(Class<?> model, Type listType, int records, int rounds) throws Exception {
+		List<Object> list = new ArrayList<Object>(records);
+		for (int i = 0; i < records; i++) {
+			list.add(ModelAdaptersTest.sample(model, i));
+		}
+		String json = new Gson().toJson(list);
+		// 预热
+		for (int i = 0; i < rounds / 2; i++) {
+			new Gson().fromJson(json, listType);
+			ModelAdapters.decode(json, listType);
+		}
+		long gson = 0;
+		long adapter = 0;
+		for (int i = 0; i < rounds; i++) {
+			long start = System.nanoTime();
+			new Gson().fromJson(json, listType);
+			gson += System.nanoTime() - start;
+			start = System.nanoTime();
+			ModelAdapters.decode(json, listType);
+			adapter += System.nanoTime() - start;
+		}
+		System.out.printf("%-10s %6d records %6d KB: gson %7.2f ms, adapter %7.2f ms (%.1fx)%n",
+				model.getSimpleName(), records, json.length() / 1024, gson / 1e6 / rounds, adapter / 1e6 / rounds,
+				(double) gson / adapter);
+	}
+}
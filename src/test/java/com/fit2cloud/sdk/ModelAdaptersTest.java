@@ -0,0 +1,162 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.Application;
+import com.fit2cloud.sdk.model.ApplicationDeployment;
+import com.fit2cloud.sdk.model.ApplicationDeploymentEventLog;
+import com.fit2cloud.sdk.model.ApplicationDeploymentLog;
+import com.fit2cloud.sdk.model.ApplicationRepo;
+import com.fit2cloud.sdk.model.ApplicationRevision;
+import com.fit2cloud.sdk.model.CloudCredential;
+import com.fit2cloud.sdk.model.Cluster;
+import com.fit2cloud.sdk.model.ClusterParam;
+import com.fit2cloud.sdk.model.ClusterRole;
+import com.fit2cloud.sdk.model.ClusterRoleAlertLogging;
+import com.fit2cloud.sdk.model.CmdbVm;
+import com.fit2cloud.sdk.model.ContactGroup;
+import com.fit2cloud.sdk.model.Event;
+import com.fit2cloud.sdk.model.FireEventRequest;
+import com.fit2cloud.sdk.model.GroupEnv;
+import com.fit2cloud.sdk.model.KeyPair;
+import com.fit2cloud.sdk.model.KeyPassword;
+import com.fit2cloud.sdk.model.LaunchConfiguration;
+import com.fit2cloud.sdk.model.Logging;
+import com.fit2cloud.sdk.model.Metric;
+import com.fit2cloud.sdk.model.MetricTop;
+import com.fit2cloud.sdk.model.PortMonitor;
+import com.fit2cloud.sdk.model.Script;
+import com.fit2cloud.sdk.model.Server;
+import com.fit2cloud.sdk.model.ServerMetric;
+import com.fit2cloud.sdk.model.ServiceCatalogOrder;
+import com.fit2cloud.sdk.model.SfServer;
+import com.fit2cloud.sdk.model.Tag;
+import com.fit2cloud.sdk.model.UserData;
+import com.fit2cloud.sdk.model.ViewScriptlog;
+import com.google.gson.Gson;
+
+public class ModelAdaptersTest {
+
+	static final Class<?>[] MODELS = { Application.class, ApplicationDeployment.class,
+			ApplicationDeploymentEventLog.class, ApplicationDeploymentLog.class, ApplicationRepo.class,
+			ApplicationRevision.class, CloudCredential.class, Cluster.class, ClusterParam.class, ClusterRole.class,
+			ClusterRoleAlertLogging.class, CmdbVm.class, ContactGroup.class, Event.class, FireEventRequest.class,
+			GroupEnv.class, KeyPair.class, KeyPassword.class, LaunchConfiguration.class, Logging.class,
+			Metric.class, MetricTop.class, PortMonitor.class, Script.class, Server.class, ServerMetric.class,
+			ServiceCatalogOrder.class, SfServer.class, Tag.class, UserData.class, ViewScriptlog.class };
+
+	/**
+	 * 构造一个所有字段都有值的模型对象, 不同的seed得到不同的值
+	 */
+	static <T> T sample(Class<T> type, int seed) throws Exception {
+		T target = type.newInstance();
+		int k = 0;
+		for (Field field : type.getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+				continue;
+			}
+			field.setAccessible(true);
+			Class<?> c = field.getType();
+			k++;
+			if (c == String.class) {
+				field.set(target, field.getName() + "-" + (seed % 20) + "\"\n");
+			} else if (c == Long.class || c == long.class) {
+				field.set(target, (long) seed * 1000 + k);
+			} else if (c == Integer.class || c == int.class) {
+				field.set(target, seed % 100 + k);
+			} else if (c == Double.class || c == double.class) {
+				field.set(target, seed + k / 4.0);
+			} else if (c == Boolean.class || c == boolean.class) {
+				field.set(target, (seed + k) % 2 == 0);
+			} else if (c == List.class) {
+				List<Tag> tags = new ArrayList<Tag>();
+				tags.add(sample(Tag.class, seed));
+				tags.add(sample(Tag.class, seed + 1));
+				field.set(target, tags);
+			} else {
+				throw new IllegalStateException("unexpected field type " + c);
+			}
+		}
+		return target;
+	}
+
+	static void assertFieldsEqual(Object expected, Object actual) throws Exception {
+		assertEquals(expected.getClass(), actual.getClass());
+		for (Field field : expected.getClass().getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+			field.setAccessible(true);
+			Object e = field.get(expected);
+			Object a = field.get(actual);
+			if (e instanceof List<?>) {
+				assertEquals(((List<?>) e).size(), ((List<?>) a).size());
+				for (int i = 0; i < ((List<?>) e).size(); i++) {
+					assertFieldsEqual(((List<?>) e).get(i), ((List<?>) a).get(i));
+				}
+			} else {
+				assertEquals(expected.getClass().getSimpleName() + "." + field.getName(), e, a);
+			}
+		}
+	}
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(200, ProjectionTest.fleetJson(3));
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testAllModelsDecodeLikeGson() throws Exception {
+		Gson gson = new Gson();
+		for (Class<?> model : MODELS) {
+			assertTrue(model.getName(), ModelAdapters.supports(model));
+			String json = gson.toJson(sample(model, 7));
+			assertFieldsEqual(gson.fromJson(json, model), ModelAdapters.decode(json, model));
+
+			List<Object> list = new ArrayList<Object>();
+			list.add(sample(model, 1));
+			list.add(null);
+			list.add(model.newInstance());
+			json = gson.toJson(list);
+			List<?> decoded = ModelAdapters.decode(json, ListTypes.of(model));
+			assertEquals(3, decoded.size());
+			assertFieldsEqual(list.get(0), decoded.get(0));
+			assertEquals(null, decoded.get(1));
+			assertFieldsEqual(list.get(2), decoded.get(2));
+		}
+	}
+
+	@Test
+	public void testClientOption() throws Exception {
+		client.setStreamingDecoding(true);
+		List<Server> servers = client.getServers(null, null, null, null, null, null, false);
+		assertEquals(3, servers.size());
+		assertEquals("server-2", servers.get(1).getName());
+		assertEquals("{\"owner\":\"ops\"}", servers.get(1).getCustomData());
+		assertEquals("team", servers.get(1).getTags().get(1).getName());
+	}
+}
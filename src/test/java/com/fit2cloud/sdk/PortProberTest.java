@@ -0,0 +1,109 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+public class PortProberTest {
+
+	/**
+	 * 在后台接受并立即关闭连接的本地端口
+	 */
+	private static ServerSocket listen() throws IOException {
+		final ServerSocket socket = new ServerSocket(0);
+		Thread thread = new Thread(new Runnable() {
+			public void run() {
+				try {
+					while (true) {
+						Socket accepted = socket.accept();
+						accepted.close();
+					}
+				} catch (IOException e) {
+					// 端口已关闭
+				}
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+		return socket;
+	}
+
+	private static void await(PortProber.Target target, PortProber.Status status) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (target.getStatus() != status && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(target.toString(), status, target.getStatus());
+	}
+
+	@Test
+	public void testStatusTransitionsAndLatency() throws Exception {
+		ServerSocket open = listen();
+		ServerSocket closed = new ServerSocket(0);
+		int closedPort = closed.getLocalPort();
+		closed.close();
+
+		PortProber prober = new PortProber();
+		final List<String> transitions = new CopyOnWriteArrayList<String>();
+		prober.addListener(new PortProbeListener() {
+			public void onStatusChanged(PortProber.Target target, PortProber.Status previous) {
+				transitions.add(target.getPort() + ":" + previous + "->" + target.getStatus());
+			}
+		});
+		PortProber.Target up = prober.addTarget("127.0.0.1", open.getLocalPort(), 20);
+		prober.start();
+		try {
+			// 启动后添加的目标同样被调度
+			PortProber.Target down = prober.addTarget("127.0.0.1", closedPort, 20);
+			await(up, PortProber.Status.UP);
+			await(down, PortProber.Status.DOWN);
+			assertTrue(up.getLastLatencyMicros() >= 0);
+			assertTrue(up.getLatencies().getPercentile(0.95) > 0);
+			assertTrue(down.getFailures() >= 2);
+
+			open.close();
+			await(up, PortProber.Status.DOWN);
+			assertTrue(transitions.contains(open.getLocalPort() + ":UNKNOWN->UP"));
+			assertTrue(transitions.contains(open.getLocalPort() + ":UP->DOWN"));
+			assertTrue(transitions.contains(closedPort + ":UNKNOWN->DOWN"));
+		} finally {
+			prober.close();
+		}
+	}
+
+	@Test
+	public void testThrowingListenerDoesNotStopProbing() throws Exception {
+		ServerSocket open = listen();
+		PortProber prober = new PortProber();
+		prober.setThresholds(1, 1);
+		prober.addListener(new PortProbeListener() {
+			public void onStatusChanged(PortProber.Target target, PortProber.Status previous) {
+				throw new IllegalStateException("listener failure");
+			}
+		});
+		final List<PortProber.Status> seen = new CopyOnWriteArrayList<PortProber.Status>();
+		prober.addListener(new PortProbeListener() {
+			public void onStatusChanged(PortProber.Target target, PortProber.Status previous) {
+				seen.add(target.getStatus());
+			}
+		});
+		PortProber.Target target = prober.addTarget("127.0.0.1", open.getLocalPort(), 20);
+		prober.start();
+		try {
+			await(target, PortProber.Status.UP);
+			open.close();
+			await(target, PortProber.Status.DOWN);
+			assertTrue(seen.contains(PortProber.Status.UP));
+			assertTrue(seen.contains(PortProber.Status.DOWN));
+		} finally {
+			prober.close();
+		}
+	}
+}
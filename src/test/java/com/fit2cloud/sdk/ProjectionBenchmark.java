@@ -0,0 +1,38 @@
+package com.fit2cloud.sdk;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fit2cloud.sdk.model.Server;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * 字段投影解码的基准测试, 比较Gson完整解码与只解码5个字段的投影解码一个虚机列表响应的耗时.
+ * 运行: java -cp ... com.fit2cloud.sdk.ProjectionBenchmark [servers] [rounds]
+ */
+public class ProjectionBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		String json = ProjectionTest.fleetJson(size);
+		System.out.printf("%d servers, %d KB%n", size, json.length() / 1024);
+
+		Type listType = new TypeToken<ArrayList<Server>>() {
+		}.getType();
+		Projection<Server> projection = new Projection<Server>(Server.class, "id", "name", "status", "remoteIP",
+				"clusterRoleId");
+		for (int round = 1; round <= rounds; round++) {
+			long start = System.nanoTime();
+			List<Server> full = new Gson().fromJson(json, listType);
+			long gson = System.nanoTime() - start;
+			start = System.nanoTime();
+			List<Server> projected = projection.decodeList(json);
+			long sparse = System.nanoTime() - start;
+			System.out.printf("round %2d: gson %5d ms, projection %5d ms (%d/%d)%n", round, gson / 1000000,
+					sparse / 1000000, full.size(), projected.size());
+		}
+	}
+}
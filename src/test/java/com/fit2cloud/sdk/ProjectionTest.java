@@ -0,0 +1,85 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.Server;
+
+public class ProjectionTest {
+
+	/**
+	 * 字段齐全的虚机JSON, 包含嵌套的标签列表
+	 */
+	static String fullServerJson(long id) {
+		return "{\"id\":" + id + ",\"description\":\"dev server " + id + "\",\"clusterId\":3,\"clusterName\":\"dev\","
+				+ "\"clusterRoleId\":" + (id % 10) + ",\"clusterRoleName\":\"web\",\"imageId\":\"img-2f9a\","
+				+ "\"vmId\":\"i-" + Long.toHexString(id * 7919) + "\",\"vmStatus\":\"Running\",\"vmType\":\"m1.small\","
+				+ "\"vmTypeDescription\":\"1 vCPU 2GB\",\"status\":\"running\",\"region\":\"cn-hangzhou\","
+				+ "\"remoteIP\":\"10.1." + (id / 256 % 256) + "." + (id % 256) + "\",\"localIP\":\"192.168.0.1\","
+				+ "\"created\":1400000000000,\"heartbeatStatus\":\"ok\",\"name\":\"server-" + id + "\","
+				+ "\"alertType\":null,\"zone\":\"cn-hangzhou-b\",\"hostname\":\"host-" + id + "\","
+				+ "\"keyPasswordId\":1,\"rabbitmqQueue\":\"q-" + id + "\",\"sshPort\":22,"
+				+ "\"customData\":\"{\\\"owner\\\":\\\"ops\\\"}\",\"credentialId\":2,\"launchConfigurationId\":4,"
+				+ "\"machineId\":\"m-" + id + "\",\"os\":\"CentOS 6.5\",\"agentVersion\":\"1.4.2\","
+				+ "\"tags\":[{\"id\":1,\"name\":\"env\",\"value\":\"dev\"},"
+				+ "{\"id\":2,\"name\":\"team\",\"value\":\"ops\"}]}";
+	}
+
+	static String fleetJson(int size) {
+		StringBuilder sb = new StringBuilder("[");
+		for (long id = 1; id <= size; id++) {
+			if (id > 1) {
+				sb.append(',');
+			}
+			sb.append(fullServerJson(id));
+		}
+		return sb.append(']').toString();
+	}
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(200, fleetJson(3));
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testOnlyProjectedFieldsAreDecoded() throws Exception {
+		Projection<Server> projection = new Projection<Server>(Server.class, "id", "name", "status", "remoteIP",
+				"clusterRoleId", "tags");
+		List<Server> servers = client.getServers(null, null, null, null, null, null, false, projection);
+		assertEquals(3, servers.size());
+		Server server = servers.get(2);
+		assertEquals(Long.valueOf(3), server.getId());
+		assertEquals("server-3", server.getName());
+		assertEquals("running", server.getStatus());
+		assertEquals("10.1.0.3", server.getRemoteIP());
+		assertEquals(Long.valueOf(3), server.getClusterRoleId());
+		assertEquals("ops", server.getTags().get(1).getValue());
+		assertNull(server.getClusterName());
+		assertNull(server.getCustomData());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownField() {
+		new Projection<Server>(Server.class, "id", "ipAddress");
+	}
+}
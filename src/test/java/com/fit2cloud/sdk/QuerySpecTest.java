@@ -0,0 +1,31 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URLDecoder;
+
+import org.junit.Test;
+
+public class QuerySpecTest {
+
+	private static final QuerySpec TAGS = new QuerySpec("/tags/servers", "clusterId", "tagName", "tagValue",
+			"pageSize", "showTerminated");
+
+	@Test
+	public void testUnsetValuesAreOmitted() {
+		assertEquals("http://h/rest/tags/servers", TAGS.build("http://h/rest", null, " ", "", 0, false));
+		assertEquals("http://h/rest/tags/servers?tagName=env&showTerminated=true",
+				TAGS.build("http://h/rest", -1L, " env ", null, null, true));
+		assertEquals("http://h/rest/tags/servers?clusterId=3000000000&pageSize=20",
+				TAGS.build("http://h/rest", 3000000000L, null, null, 20, null));
+	}
+
+	@Test
+	public void testValuesArePercentEncodedAsUtf8() throws Exception {
+		String value = "生产 a+b&c=d/é~😀";
+		String url = TAGS.build("http://h/rest", null, "环境", value, null, null);
+		assertEquals("http://h/rest/tags/servers?tagName=%E7%8E%AF%E5%A2%83&tagValue="
+				+ "%E7%94%9F%E4%BA%A7%20a%2Bb%26c%3Dd%2F%C3%A9~%F0%9F%98%80", url);
+		assertEquals(value, URLDecoder.decode(url.substring(url.indexOf("tagValue=") + 9), "UTF-8"));
+	}
+}
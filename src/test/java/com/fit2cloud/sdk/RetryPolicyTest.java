@@ -0,0 +1,219 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+public class RetryPolicyTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(null);
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+		RetryPolicy policy = new RetryPolicy();
+		policy.setBaseDelayMillis(1);
+		policy.setMaxDelayMillis(5);
+		client.setRetryPolicy(policy);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testBackoffIsCapped() {
+		RetryPolicy policy = new RetryPolicy();
+		policy.setBaseDelayMillis(100);
+		policy.setMaxDelayMillis(1000);
+		Random random = new Random(1);
+		for (int retry = 1; retry < 64; retry++) {
+			long delay = policy.getBackoffMillis(retry, random);
+			assertTrue(delay >= 0 && delay < 1000);
+		}
+	}
+
+	@Test
+	public void testRetryBudgetLimitsRetries() {
+		RetryBudget budget = new RetryBudget(0.5, 1);
+		assertTrue(budget.tryAcquireRetry());
+		assertFalse(budget.tryAcquireRetry());
+		budget.onRequest();
+		budget.onRequest();
+		assertTrue(budget.tryAcquireRetry());
+		assertEquals(2, budget.getRetries());
+		assertEquals(1, budget.getRejectedRetries());
+	}
+
+	@Test
+	public void testIdempotentGetRetriedOnServiceUnavailable() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		server.setHandler(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				if (calls.incrementAndGet() < 3) {
+					return new StubResponse(503, "busy", "Retry-After: 0");
+				}
+				return new StubResponse(200, "{\"id\":2,\"name\":\"c2\"}");
+			}
+		});
+		assertEquals("c2", client.getCluster(2).getName());
+		assertEquals(3, server.getRequestCount());
+	}
+
+	@Test
+	public void testNonIdempotentPostNotRetried() throws Exception {
+		server.setHandler(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(503, "busy");
+			}
+		});
+		try {
+			client.executeScript(1, "date");
+			fail();
+		} catch (Fit2CloudException e) {
+			assertEquals("busy", e.getMessage());
+		}
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testPermanentErrorNotRetried() throws Exception {
+		server.setHandler(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(400, "bad request");
+			}
+		});
+		try {
+			client.getServer(5);
+			fail();
+		} catch (Fit2CloudException e) {
+			assertEquals("bad request", e.getMessage());
+		}
+		assertEquals(1, server.getRequestCount());
+	}
+
+	@Test
+	public void testExhaustedRetriesCarryStatusAndRetryCount() throws Exception {
+		server.setHandler(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(502, "bad gateway");
+			}
+		});
+		try {
+			client.getServers(null, null, null, null, 10, 1, false);
+			fail();
+		} catch (Fit2CloudResponseException e) {
+			assertEquals(502, e.getStatusCode());
+			assertTrue(e.isServerError());
+			assertEquals(2, e.getRetryCount());
+			assertEquals(server.getEndpoint() + "/servers", e.getEndpoint());
+			assertTrue(e.getDurationMillis() >= 0);
+		}
+	}
+
+	@Test
+	public void testConnectionRefusedAndDecodeErrors() throws Exception {
+		server.setHandler(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(200, "not json");
+			}
+		});
+		try {
+			client.getClusters();
+			fail();
+		} catch (Fit2CloudDecodeException e) {
+			assertEquals(200, e.getStatusCode());
+			assertEquals("not json", e.getResponseBody());
+		}
+		String endpoint = server.getEndpoint();
+		server.close();
+		Fit2CloudClient closed = new Fit2CloudClient("key", "secret", endpoint);
+		closed.setRetryPolicy(RetryPolicy.noRetry());
+		try {
+			closed.executeScript(1, "date");
+			fail();
+		} catch (Fit2CloudConnectionException e) {
+			assertTrue(e.isConnectionRefused());
+			assertEquals(-1, e.getStatusCode());
+		}
+	}
+
+	@Test
+	public void testFailoverToHealthyEndpoint() throws Exception {
+		server.setHandler(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(503, "busy");
+			}
+		});
+		StubFit2CloudServer healthy = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(200, "{\"id\":5,\"name\":\"s5\"}");
+			}
+		});
+		try {
+			Fit2CloudClient multi = new Fit2CloudClient("key", "secret", Arrays.asList(server.getEndpoint(),
+					healthy.getEndpoint()));
+			multi.setRetryPolicy(RetryPolicy.noRetry());
+			try {
+				// 无统计信息时按顺序选择主Endpoint
+				multi.getServer(5);
+				fail();
+			} catch (Fit2CloudResponseException e) {
+				assertEquals(503, e.getStatusCode());
+			}
+			RetryPolicy policy = new RetryPolicy();
+			policy.setMaxAttempts(2);
+			multi.setRetryPolicy(policy);
+			for (int i = 0; i < 5; i++) {
+				assertEquals("s5", multi.getServer(5).getName());
+			}
+			Fit2CloudEndpoint primary = multi.getEndpoints().get(0);
+			assertTrue(primary.getErrorRate() > 0);
+			assertEquals(0.0, multi.getEndpoints().get(1).getErrorRate(), 0.0);
+		} finally {
+			healthy.close();
+		}
+	}
+
+	@Test
+	public void testInterruptedCallerIsNotRetried() throws Exception {
+		StubFit2CloudServer.Handler busy = new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(503, "busy");
+			}
+		};
+		server.setHandler(busy);
+		StubFit2CloudServer other = new StubFit2CloudServer(busy);
+		try {
+			// 有未尝试的Endpoint时切换不等待, 也必须检查中断标记
+			Fit2CloudClient multi = new Fit2CloudClient("key", "secret", Arrays.asList(server.getEndpoint(),
+					other.getEndpoint()));
+			Thread.currentThread().interrupt();
+			try {
+				multi.getServer(5);
+				fail();
+			} catch (Fit2CloudResponseException e) {
+				assertEquals(503, e.getStatusCode());
+			} finally {
+				assertTrue(Thread.interrupted());
+			}
+			assertEquals(1, server.getRequestCount() + other.getRequestCount());
+		} finally {
+			other.close();
+		}
+	}
+}
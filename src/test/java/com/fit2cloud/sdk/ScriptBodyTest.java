@@ -0,0 +1,103 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URLDecoder;
+
+import org.junit.Test;
+import org.scribe.extractors.BaseStringExtractorImpl;
+import org.scribe.model.OAuthRequest;
+import org.scribe.model.Verb;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+public class ScriptBodyTest {
+
+	private static final String SCRIPT = "#!/bin/bash\necho \"部署 a+b&c=d\" > /tmp/x.log # 50%~\n";
+
+	@Test
+	public void testSignatureAndBodyMatchPlainRequest() throws Exception {
+		ScriptOAuthRequest scriptRequest = new ScriptOAuthRequest(Verb.POST, "http://h/rest/executescript/server?x=1",
+				"scriptContent", new ScriptBody(SCRIPT));
+		OAuthRequest plainRequest = new OAuthRequest(Verb.POST, "http://h/rest/executescript/server?x=1");
+		for (OAuthRequest request : new OAuthRequest[] { scriptRequest, plainRequest }) {
+			request.addBodyParameter("serverId", "42");
+			request.addBodyParameter("scriptType", "shell");
+			request.addBodyParameter("aaa", "中文");
+			request.addOAuthParameter("oauth_consumer_key", "key");
+			request.addOAuthParameter("oauth_nonce", "123");
+			request.setCharset("UTF-8");
+		}
+		plainRequest.addBodyParameter("scriptContent", SCRIPT);
+		scriptRequest.preparePayload();
+
+		assertEquals(new BaseStringExtractorImpl().extract(plainRequest),
+				new Fit2CloudBaseStringExtractor().extract(scriptRequest));
+		assertEquals(plainRequest.getBodyContents(), scriptRequest.getBodyContents());
+	}
+
+	@Test
+	public void testScriptBodyIsSentAsFormParameter() throws Exception {
+		final String[] received = new String[1];
+		StubFit2CloudServer server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				received[0] = body;
+				return new StubResponse(200, "7");
+			}
+		});
+		try {
+			Fit2CloudClient client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+			ScriptBody script = new ScriptBody(SCRIPT);
+			assertEquals(7, client.executeScript(1, script, null));
+			assertEquals(7, client.executeScript(2, script, "shell"));
+			String prefix = "serverId=2&scriptType=shell&scriptContent=";
+			assertTrue(received[0].startsWith(prefix));
+			assertEquals(prefix.length() + script.getEncodedLength(), received[0].length());
+			assertEquals(SCRIPT, URLDecoder.decode(received[0].substring(prefix.length()), "UTF-8"));
+		} finally {
+			server.close();
+		}
+	}
+
+	@Test
+	public void testLargeScriptBodyIsReusedByContent() {
+		Fit2CloudClient client = new Fit2CloudClient("key", "secret", "http://127.0.0.1:1/rest");
+		StringBuilder sb = new StringBuilder();
+		while (sb.length() < 64 * 1024) {
+			sb.append(SCRIPT);
+		}
+		ScriptBody body = client.getScriptBody(sb.toString());
+		assertSame(body, client.getScriptBody(new String(sb)));
+		assertNotSame(client.getScriptBody(SCRIPT), client.getScriptBody(SCRIPT));
+	}
+
+	@Test
+	public void testScriptBodyCacheIsBoundedByBytes() {
+		Fit2CloudClient client = new Fit2CloudClient("key", "secret", "http://127.0.0.1:1/rest");
+		StringBuilder sb = new StringBuilder();
+		while (sb.length() < 64 * 1024) {
+			sb.append(SCRIPT);
+		}
+		String first = sb.toString();
+		String second = sb.append('\n').toString();
+		ScriptBodyCache cache = new ScriptBodyCache(1024 * 1024);
+		ScriptBody body = cache.get(first);
+		long oneEntry = cache.getBytes();
+		assertTrue(oneEntry > 2L * first.length());
+		cache.setMaxBytes(oneEntry + oneEntry / 2);
+		cache.get(second);
+		// 放不下两项, 最久未使用的first被淘汰
+		assertEquals(1, cache.size());
+		assertNotSame(body, cache.get(first));
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getBytes());
+
+		client.setScriptBodyCacheBytes(0);
+		assertNotSame(client.getScriptBody(first), client.getScriptBody(first));
+	}
+}
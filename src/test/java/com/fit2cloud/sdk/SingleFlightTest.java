@@ -0,0 +1,66 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.Server;
+
+public class SingleFlightTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(200, "{\"id\":1,\"name\":\"s1\"}", 300);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+		client.setRequestCoalescing(true);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testConcurrentIdenticalGetsShareOneRequest() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			Future<?>[] futures = new Future<?>[8];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = pool.submit(new Callable<Server>() {
+					public Server call() throws Exception {
+						return client.getServer(1);
+					}
+				});
+			}
+			Object first = futures[0].get();
+			for (Future<?> future : futures) {
+				assertSame(first, future.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(1, server.getRequestCount());
+		assertEquals(1, client.getSingleFlight().getExecutions());
+		assertEquals(7, client.getSingleFlight().getCoalesced());
+
+		// 请求完成后不再共享
+		client.getServer(1);
+		assertEquals(2, server.getRequestCount());
+	}
+}
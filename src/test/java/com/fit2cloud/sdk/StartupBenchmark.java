@@ -0,0 +1,53 @@
+package com.fit2cloud.sdk;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+
+/**
+ * 启动开销基准测试: 在新的JVM中测量首次getServers的耗时, 以及随后首次调用其他列表接口的耗时和新加载的类数.
+ * 每次运行只有一个有效样本, 需多次运行取中位数.
+ * 运行: java -cp ... com.fit2cloud.sdk.StartupBenchmark
+ */
+public class StartupBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		StubFit2CloudServer server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				if (path.startsWith("/rest/servers")) {
+					return new StubResponse(200, ProjectionTest.fleetJson(10));
+				}
+				return new StubResponse(200, "[]");
+			}
+		});
+		try {
+			ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+			long classes = classLoading.getTotalLoadedClassCount();
+			long start = System.nanoTime();
+			Fit2CloudClient client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+			client.getServers(null, null, null, null, null, null, false);
+			long first = System.nanoTime() - start;
+			long firstClasses = classLoading.getTotalLoadedClassCount() - classes;
+
+			classes = classLoading.getTotalLoadedClassCount();
+			start = System.nanoTime();
+			client.getClusters();
+			client.getClusterRoles(1);
+			client.getScripts(null, null);
+			client.getTags(null, null, null, null, null, null);
+			client.getServersByTag(null, null, null, null, null, null);
+			client.getDeployments(null, null, null, null);
+			client.getApplicationList(null, null);
+			client.getLaunchconfigurations(null);
+			long others = System.nanoTime() - start;
+			long otherClasses = classLoading.getTotalLoadedClassCount() - classes;
+
+			System.out.printf("first getServers: %.1f ms, %d classes loaded%n", first / 1e6, firstClasses);
+			System.out.printf("first call of 8 other list methods: %.1f ms, %d classes loaded%n", others / 1e6,
+					otherClasses);
+		} finally {
+			server.close();
+		}
+	}
+}
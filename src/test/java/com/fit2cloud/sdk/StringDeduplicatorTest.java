@@ -0,0 +1,81 @@
+package com.fit2cloud.sdk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fit2cloud.sdk.StubFit2CloudServer.StubResponse;
+import com.fit2cloud.sdk.model.Server;
+
+public class StringDeduplicatorTest {
+
+	private StubFit2CloudServer server;
+	private Fit2CloudClient client;
+	private volatile String response = ProjectionTest.fleetJson(5);
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubFit2CloudServer(new StubFit2CloudServer.Handler() {
+			public StubResponse handle(String method, String path, String body) {
+				return new StubResponse(200, response);
+			}
+		});
+		client = new Fit2CloudClient("key", "secret", server.getEndpoint());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void testRepeatedValuesShareOneInstance() throws Exception {
+		assertNull(client.getStringDeduplicator());
+		client.setStringDeduplication(100);
+		List<Server> first = client.getServers(null, null, null, null, null, null, false);
+		List<Server> second = client.getServers(null, null, null, null, null, null, false);
+		assertEquals("cn-hangzhou", first.get(0).getRegion());
+		assertSame(first.get(0).getRegion(), first.get(4).getRegion());
+		assertSame(first.get(0).getClusterName(), second.get(3).getClusterName());
+		// 未登记的字段不去重
+		assertNotSame(first.get(0).getLocalIP(), first.get(1).getLocalIP());
+	}
+
+	@Test
+	public void testTableIsBounded() {
+		StringDeduplicator deduplicator = new StringDeduplicator(2);
+		String a = deduplicator.deduplicate(new String("a"));
+		assertSame(a, deduplicator.deduplicate(new String("a")));
+		deduplicator.deduplicate("b");
+		String c = new String("c");
+		assertSame(c, deduplicator.deduplicate(c));
+		assertNotSame(c, deduplicator.deduplicate(new String("c")));
+		assertEquals(2, deduplicator.getSize());
+		assertEquals(1, deduplicator.getHits());
+		assertEquals(4, deduplicator.getMisses());
+	}
+
+	@Test
+	public void testDistinctPerServerValuesDoNotFillTable() throws Exception {
+		StringBuilder sb = new StringBuilder("[");
+		for (int id = 1; id <= 500; id++) {
+			sb.append(id > 1 ? "," : "").append("{\"id\":").append(id).append(",\"name\":\"web-").append(id)
+					.append("\",\"imageId\":\"img-").append(id).append("\",\"agentVersion\":\"1.").append(id)
+					.append("\",\"vmStatus\":\"Running\",\"region\":\"cn-hangzhou\"}");
+		}
+		response = sb.append(']').toString();
+		client.setStringDeduplication(16);
+		List<Server> servers = client.getServers(null, null, null, null, null, null, false);
+		assertEquals(500, servers.size());
+		assertEquals(2, client.getStringDeduplicator().getSize());
+		assertSame(servers.get(0).getVmStatus(), servers.get(499).getVmStatus());
+		assertSame(servers.get(0).getRegion(), servers.get(499).getRegion());
+	}
+}
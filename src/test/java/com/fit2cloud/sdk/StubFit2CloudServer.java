@@ -0,0 +1,165 @@
+package com.fit2cloud.sdk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用于单元测试的本地HTTP桩服务, 按Handler返回的内容应答所有请求
+ */
+public class StubFit2CloudServer {
+
+	public interface Handler {
+		StubResponse handle(String method, String path, String body) throws Exception;
+	}
+
+	public static class StubResponse {
+		final int code;
+		final String body;
+		final String[] headers;
+		final long delayMillis;
+
+		public StubResponse(int code, String body, String... headers) {
+			this(code, body, 0, headers);
+		}
+
+		public StubResponse(int code, String body, long delayMillis, String... headers) {
+			this.code = code;
+			this.body = body;
+			this.headers = headers;
+			this.delayMillis = delayMillis;
+		}
+	}
+
+	private final ServerSocket serverSocket;
+	private final ExecutorService workers = Executors.newCachedThreadPool();
+	private final AtomicInteger requestCount = new AtomicInteger();
+	private volatile Handler handler;
+
+	public StubFit2CloudServer(Handler handler) throws IOException {
+		this.handler = handler;
+		this.serverSocket = new ServerSocket(0, 512, InetAddress.getByName("127.0.0.1"));
+		Thread acceptor = new Thread(new Runnable() {
+			public void run() {
+				while (!serverSocket.isClosed()) {
+					try {
+						final Socket socket = serverSocket.accept();
+						workers.execute(new Runnable() {
+							public void run() {
+								serve(socket);
+							}
+						});
+					} catch (IOException e) {
+						return;
+					}
+				}
+			}
+		}, "stub-fit2cloud-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	public String getEndpoint() {
+		return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/rest";
+	}
+
+	public int getRequestCount() {
+		return requestCount.get();
+	}
+
+	public void setHandler(Handler handler) {
+		this.handler = handler;
+	}
+
+	public void close() throws IOException {
+		serverSocket.close();
+		workers.shutdownNow();
+	}
+
+	private void serve(Socket socket) {
+		try {
+			InputStream in = socket.getInputStream();
+			String requestLine = readLine(in);
+			if (requestLine == null) {
+				return;
+			}
+			int contentLength = 0;
+			String line;
+			while ((line = readLine(in)) != null && line.length() > 0) {
+				int colon = line.indexOf(':');
+				if (colon > 0 && "Content-Length".equalsIgnoreCase(line.substring(0, colon).trim())) {
+					contentLength = Integer.parseInt(line.substring(colon + 1).trim());
+				}
+			}
+			byte[] body = new byte[contentLength];
+			int read = 0;
+			while (read < contentLength) {
+				int n = in.read(body, read, contentLength - read);
+				if (n < 0) {
+					break;
+				}
+				read += n;
+			}
+			requestCount.incrementAndGet();
+			String[] parts = requestLine.split(" ");
+			StubResponse response;
+			try {
+				response = handler.handle(parts[0], parts[1], new String(body, 0, read, "UTF-8"));
+			} catch (Exception e) {
+				response = new StubResponse(500, String.valueOf(e.getMessage()));
+			}
+			if (response == null) {
+				return;
+			}
+			if (response.delayMillis > 0) {
+				Thread.sleep(response.delayMillis);
+			}
+			byte[] payload = response.body.getBytes("UTF-8");
+			StringBuilder head = new StringBuilder();
+			head.append("HTTP/1.1 ").append(response.code).append(" STUB\r\n");
+			head.append("Content-Type: application/json;charset=UTF-8\r\n");
+			head.append("Content-Length: ").append(payload.length).append("\r\n");
+			head.append("Connection: close\r\n");
+			for (String header : response.headers) {
+				head.append(header).append("\r\n");
+			}
+			head.append("\r\n");
+			OutputStream out = socket.getOutputStream();
+			out.write(head.toString().getBytes("UTF-8"));
+			out.write(payload);
+			out.flush();
+		} catch (Exception e) {
+			// 客户端可能已断开连接
+		} finally {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	private static String readLine(InputStream in) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != -1) {
+			if (b == '\n') {
+				break;
+			}
+			if (b != '\r') {
+				line.write(b);
+			}
+		}
+		if (b == -1 && line.size() == 0) {
+			return null;
+		}
+		return line.toString("UTF-8");
+	}
+}